@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.developerguilliman.cardEditor.CardHash;
+import com.developerguilliman.cardEditor.data.CardData;
+import com.developerguilliman.cardEditor.data.SectionData;
+
+/**
+ * Measures hashing the printed text of every card from four threads at once,
+ * as the parallel pdf export does, with the hash of each thread or with one
+ * digest shared under a lock and a new array for the bytes of each text as
+ * before.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class CardHashBenchmark {
+
+    private String[] texts;
+    private CardHash cardHash;
+    private MessageDigest sharedDigest;
+
+    @Setup
+    public void setup() throws NoSuchAlgorithmException {
+        List<String> list = new ArrayList<>();
+        for (SectionData section : Decks.synthetic(1000)) {
+            for (CardData card : section) {
+                list.add(card.getTitle() + card.getName() + card.getLegend() + card.getRules()
+                        + card.getCostValue() + card.getCostType());
+            }
+        }
+        texts = list.toArray(new String[0]);
+        cardHash = new CardHash();
+        sharedDigest = MessageDigest.getInstance("SHA-512");
+    }
+
+    @Benchmark
+    public int threadHash() {
+        int sum = 0;
+        for (String text : texts) {
+            sum += cardHash.getStringsHash(text).hashCode();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int lockedDigest() {
+        int sum = 0;
+        for (String text : texts) {
+            byte[] digest;
+            synchronized (sharedDigest) {
+                digest = sharedDigest.digest(text.getBytes(StandardCharsets.UTF_8));
+                sharedDigest.reset();
+            }
+            sum += base32Encode(digest, 4).substring(0, 5).hashCode();
+        }
+        return sum;
+    }
+
+    private static final char[] BASE32_ALPHABET = "BCDEFGHJKLMNPQRSTVWXYZ1234567890".toCharArray();
+
+    private static StringBuilder base32Encode(byte[] bytes, int len) {
+        int i = 0;
+        int index = 0;
+        int currByte, nextByte;
+        StringBuilder base32 = new StringBuilder((len + 7) * 8 / 5);
+
+        while (i < len) {
+            int ni = i + 1;
+            currByte = (bytes[i] >= 0) ? bytes[i] : (bytes[i] + 256);
+            int digit;
+            if (index > 3) {
+                if (ni < len) {
+                    nextByte = (bytes[ni] >= 0) ? bytes[ni] : (bytes[ni] + 256);
+                } else {
+                    nextByte = 0;
+                }
+
+                digit = currByte & (0xFF >> index);
+                index = (index + 5) & 0x7;
+                digit <<= index;
+                digit |= nextByte >> (8 - index);
+                i = ni;
+            } else {
+                digit = (currByte >> (8 - (index + 5))) & 0x1F;
+                index = (index + 5) & 0x7;
+                i = (index == 0) ? ni : i;
+            }
+            base32.append(BASE32_ALPHABET[digit]);
+        }
+        return base32;
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JTree;
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreePath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.developerguilliman.cardEditor.data.CardCollectionData;
+import com.developerguilliman.cardEditor.data.CardData;
+import com.developerguilliman.cardEditor.data.SectionData;
+import com.developerguilliman.cardEditor.gui.CardTreeModel;
+
+/**
+ * Measures moving a card to another section of an expanded card tree and
+ * back, telling the tree model which nodes moved or rebuilding every node as
+ * the main window did before.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class CardTreeBenchmark {
+
+    @Param({"1000", "50000"})
+    public int cards;
+
+    private CardCollectionData collection;
+    private JTree modelTree;
+    private CardTreeModel treeModel;
+    private JTree nodesTree;
+    private DefaultMutableTreeNode root;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        collection = new CardCollectionData();
+        for (SectionData section : Decks.synthetic(cards)) {
+            collection.add(section);
+        }
+
+        treeModel = new CardTreeModel(collection);
+        modelTree = new JTree(treeModel);
+        modelTree.setRootVisible(false);
+        for (SectionData section : collection) {
+            modelTree.expandPath(treeModel.getSectionPath(section));
+        }
+
+        root = new DefaultMutableTreeNode("Cards", true);
+        nodesTree = new JTree(new DefaultTreeModel(root, true));
+        nodesTree.setRootVisible(false);
+        rebuildNodes();
+    }
+
+    @Benchmark
+    public int moveCardWithModelEvents() {
+        SectionData first = collection.get(0);
+        SectionData last = collection.get(collection.size() - 1);
+        CardData card = first.remove(0);
+        treeModel.cardRemoved(first, 0, card);
+        last.add(card);
+        treeModel.cardInserted(last, last.size() - 1);
+        modelTree.setSelectionPath(treeModel.getCardPath(last, card));
+
+        last.remove(last.size() - 1);
+        treeModel.cardRemoved(last, last.size(), card);
+        first.add(0, card);
+        treeModel.cardInserted(first, 0);
+        modelTree.setSelectionPath(treeModel.getCardPath(first, card));
+        return modelTree.getRowCount();
+    }
+
+    @Benchmark
+    public int moveCardRebuildingNodes() {
+        SectionData first = collection.get(0);
+        SectionData last = collection.get(collection.size() - 1);
+        last.add(first.remove(0));
+        rebuildNodes();
+        first.add(0, last.remove(last.size() - 1));
+        rebuildNodes();
+        return nodesTree.getRowCount();
+    }
+
+    private void rebuildNodes() {
+        root.removeAllChildren();
+        for (SectionData section : collection) {
+            DefaultMutableTreeNode sectionNode = new DefaultMutableTreeNode(section, true);
+            root.add(sectionNode);
+            for (CardData card : section) {
+                sectionNode.add(new DefaultMutableTreeNode(card, false));
+            }
+        }
+        ((DefaultTreeModel) nodesTree.getModel()).reload();
+        for (int i = 0; i < root.getChildCount(); i++) {
+            nodesTree.expandPath(new TreePath(((DefaultMutableTreeNode) root.getChildAt(i)).getPath()));
+        }
+        nodesTree.updateUI();
+    }
+
+}
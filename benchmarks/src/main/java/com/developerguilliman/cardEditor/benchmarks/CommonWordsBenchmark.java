@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.developerguilliman.cardEditor.Utils;
+import com.developerguilliman.cardEditor.data.CardData;
+import com.developerguilliman.cardEditor.data.SectionData;
+
+/**
+ * Measures the common words search behind the section names.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class CommonWordsBenchmark {
+
+    @Param({"10", "1000", "5000"})
+    public int titles;
+
+    private List<String> titleList;
+    private List<CardData> cards;
+    private SectionData section;
+
+    @Setup
+    public void setup() {
+        titleList = Decks.sectionTitles(titles);
+        cards = new ArrayList<>(titles);
+        for (String title : titleList) {
+            cards.add(new CardData(title, "", "", "", "", ""));
+        }
+        section = new SectionData(cards);
+    }
+
+    @Benchmark
+    public String longestCommonWords() {
+        return Utils.longestCommonWords(titleList);
+    }
+
+    @Benchmark
+    public String sectionBuiltCardByCard() {
+        SectionData section = new SectionData();
+        for (CardData card : cards) {
+            section.add(card);
+        }
+        return section.getName();
+    }
+
+    /**
+     * A keystroke in the title field as it was handled in the event thread,
+     * computing the section name again.
+     */
+    @Benchmark
+    public String titleEditRecomputingName() {
+        CardData card = section.get(0);
+        card.setTitle(new String(card.getTitle()));
+        section.updateName();
+        return section.getName();
+    }
+
+    /**
+     * The part of a title edit left in the event thread, taking the titles
+     * the name is then computed from in the task executor.
+     */
+    @Benchmark
+    public String[] titleEditTakingTitles() {
+        CardData card = section.get(0);
+        card.setTitle(new String(card.getTitle()));
+        return section.getTitles();
+    }
+
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.developerguilliman.cardEditor.data.CardCollectionData;
+import com.developerguilliman.cardEditor.data.CardData;
+import com.developerguilliman.cardEditor.data.SectionData;
+import com.developerguilliman.cardEditor.input.XmlCardInput;
+import com.developerguilliman.cardEditor.output.XmlCardOutput;
+import com.developerguilliman.cardEditor.warning.WarningArrayList;
+
+/**
+ * Deterministic inputs shared by the benchmarks. Every generator is seeded so
+ * two runs of the same benchmark always measure the same deck.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public final class Decks {
+
+    /**
+     * Deck parameter value that loads {@code doc/examples.xml} instead of
+     * generating a synthetic deck.
+     */
+    public static final String EXAMPLES = "examples";
+
+    private static final String EXAMPLES_PROPERTY = "cardEditor.examples";
+    private static final String EXAMPLES_DEFAULT_PATH = "../doc/examples.xml";
+
+    private static final long SEED = 0x40C0DE;
+    private static final int CARDS_PER_SECTION = 36;
+
+    private static final String[] TITLES = {
+        "Battle Tactic Stratagem", "Strategic Ploy Stratagem", "Epic Deed Stratagem",
+        "Requisition Stratagem", "Wargear Stratagem", "Psychic Discipline",
+        "Warlord Trait", "Relic", "Chapter Tactic", "Secret Objective"
+    };
+
+    private static final String[] WORDS = {
+        "the", "a", "unit", "model", "enemy", "friendly", "within", "of", "this",
+        "phase", "until", "end", "turn", "can", "each", "time", "attack", "made",
+        "for", "that", "add", "1", "to", "hit", "roll", "wound", "Use", "Stratagem",
+        "in", "your", "Shooting", "Fight", "Command", "Movement", "Charge",
+        "INFANTRY", "CHARACTER", "VEHICLE", "weapon", "Damage", "characteristic",
+        "Mortal", "wounds", "D3", "D6", "6\"", "9\"", "12\"", "Leadership", "test",
+        "re-roll", "saving", "throw", "invulnerable", "Objective", "marker"
+    };
+
+    private static final String[] COST_TYPES = {
+        "COMMAND POINTS", "WARP CHARGE", "", "POINTS"
+    };
+
+    private Decks() {
+    }
+
+    /**
+     * Returns the deck named by a benchmark parameter: either a number of
+     * synthetic cards or {@link #EXAMPLES}.
+     */
+    public static CardCollectionData deck(String name) throws IOException {
+        if (EXAMPLES.equals(name)) {
+            return examples();
+        }
+        return synthetic(Integer.parseInt(name));
+    }
+
+    public static CardCollectionData synthetic(int cardCount) {
+        Random random = new Random(SEED);
+        CardCollectionData cards = new CardCollectionData((cardCount + CARDS_PER_SECTION - 1) / CARDS_PER_SECTION);
+        SectionData section = null;
+        String title = null;
+        for (int i = 0; i < cardCount; i++) {
+            if (i % CARDS_PER_SECTION == 0) {
+                title = TITLES[random.nextInt(TITLES.length)];
+                section = new SectionData(CARDS_PER_SECTION);
+                cards.add(section);
+            }
+            String name = words(random, 1 + random.nextInt(4)).toUpperCase();
+            String legend = sentence(random, 8 + random.nextInt(20));
+            String rules = paragraphs(random, 1 + random.nextInt(3), 15 + random.nextInt(45));
+            String costValue = Integer.toString(1 + random.nextInt(3));
+            String costType = COST_TYPES[random.nextInt(COST_TYPES.length)];
+            section.add(new CardData(title, name, legend, rules, costValue, costType));
+        }
+        return cards;
+    }
+
+    /**
+     * Builds card titles that share one of the {@link #TITLES} between a few
+     * random words, like the titles of an imported section.
+     */
+    public static List<String> sectionTitles(int count) {
+        Random random = new Random(SEED);
+        String common = TITLES[random.nextInt(TITLES.length)];
+        List<String> titles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            titles.add(words(random, random.nextInt(3)) + " " + common + " " + words(random, random.nextInt(3)));
+        }
+        return titles;
+    }
+
+    public static CardCollectionData examples() throws IOException {
+        File file = new File(System.getProperty(EXAMPLES_PROPERTY, EXAMPLES_DEFAULT_PATH));
+        try (InputStream is = new FileInputStream(file)) {
+            return new XmlCardInput().build(is);
+        }
+    }
+
+    public static byte[] toXml(CardCollectionData cards) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new XmlCardOutput().build(out, cards, new WarningArrayList());
+        return out.toByteArray();
+    }
+
+    /**
+     * Builds a pipe separated file laid out like the Wahapedia Stratagems.csv,
+     * with every row assigned to one of {@code factionCount} factions.
+     */
+    public static byte[] stratagemsCsv(int rowCount, int factionCount) {
+        Random random = new Random(SEED);
+        StringBuilder sb = new StringBuilder(rowCount * 400);
+        sb.append('\uFEFF');
+        sb.append("faction_id|name|type|cp_cost|legend|source_id|subfaction_id|description|id|\r\n");
+        for (int i = 0; i < rowCount; i++) {
+            sb.append(factionId(random.nextInt(factionCount))).append('|');
+            sb.append(words(random, 1 + random.nextInt(4)).toUpperCase()).append('|');
+            sb.append(TITLES[random.nextInt(TITLES.length)]).append('|');
+            sb.append(1 + random.nextInt(3)).append('|');
+            sb.append(sentence(random, 8 + random.nextInt(20))).append('|');
+            sb.append(random.nextInt(100)).append('|');
+            sb.append('|');
+            sb.append(htmlDescription(random)).append('|');
+            sb.append(i).append('|');
+            sb.append("\r\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static String factionId(int index) {
+        return "F" + index;
+    }
+
+    /**
+     * Builds an HTML page shaped like a Wahapedia faction page: tables of
+     * traits inside {@code div.Columns2} blocks, headed by h2/h3 titles.
+     */
+    public static String miscHtml(int rowCount) {
+        Random random = new Random(SEED);
+        StringBuilder sb = new StringBuilder(rowCount * 300);
+        sb.append("<html><head><title>Faction</title></head><body>");
+        int row = 0;
+        int table = 0;
+        while (row < rowCount) {
+            sb.append("<h2>Faction ").append(table).append("</h2>");
+            sb.append("<h3>").append(TITLES[table % TITLES.length]).append("s</h3>");
+            sb.append("<div class=\"Columns2\"><table>");
+            sb.append("<tr class=\"tableColumns3\"><td>D6</td><td>RESULT</td></tr>");
+            for (int i = 0; i < CARDS_PER_SECTION && row < rowCount; i++, row++) {
+                sb.append("<tr><td>").append(1 + i % 6).append("</td><td><b>");
+                sb.append(words(random, 1 + random.nextInt(3)));
+                sb.append(":</b> <i>").append(sentence(random, 6 + random.nextInt(12))).append("</i> ");
+                sb.append(htmlDescription(random));
+                sb.append("</td></tr>");
+            }
+            sb.append("</table></div>");
+            table++;
+        }
+        sb.append("</body></html>");
+        return sb.toString();
+    }
+
+    private static String htmlDescription(Random random) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Use this Stratagem in your <b>").append(WORDS[random.nextInt(WORDS.length)]);
+        sb.append("</b> phase. ").append(sentence(random, 10 + random.nextInt(30)));
+        if (random.nextBoolean()) {
+            sb.append("<ul class=\"impact\">");
+            int items = 1 + random.nextInt(3);
+            for (int i = 0; i < items; i++) {
+                sb.append("<li>").append(sentence(random, 5 + random.nextInt(10))).append("</li>");
+            }
+            sb.append("</ul>");
+        }
+        if (random.nextInt(4) == 0) {
+            sb.append(" Roll a D6&nbsp;&ndash; on a 4+ that unit&#39;s weapons gain +1&nbsp;AP.");
+        }
+        return sb.toString();
+    }
+
+    private static String paragraphs(Random random, int count, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append("\n\n");
+            }
+            sb.append(sentence(random, words));
+        }
+        return sb.toString();
+    }
+
+    private static String sentence(Random random, int words) {
+        return words(random, words).concat(".");
+    }
+
+    private static String words(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Output stream that only counts bytes, so the benchmarks do not measure
+     * the cost of growing a buffer.
+     */
+    public static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+    }
+
+}
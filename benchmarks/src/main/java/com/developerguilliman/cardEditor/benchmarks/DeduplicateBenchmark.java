@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.developerguilliman.cardEditor.data.CardCollectionData;
+import com.developerguilliman.cardEditor.data.CardData;
+import com.developerguilliman.cardEditor.data.SectionData;
+import com.developerguilliman.cardEditor.input.ICardInput;
+
+/**
+ * Measures the removal of duplicated cards, a quarter of the cards being
+ * copies of others.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class DeduplicateBenchmark {
+
+    @Param({"1000", "100000"})
+    public int cards;
+
+    private List<List<CardData>> sections;
+    private SectionData allCards;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(cards);
+        List<CardData> originals = new ArrayList<>();
+        sections = new ArrayList<>();
+        for (SectionData section : Decks.synthetic(cards - cards / 4)) {
+            List<CardData> copy = new ArrayList<>(section);
+            sections.add(copy);
+            originals.addAll(section);
+        }
+        for (int i = 0; i < cards / 4; i++) {
+            CardData original = originals.get(random.nextInt(originals.size()));
+            List<CardData> section = sections.get(random.nextInt(sections.size()));
+            section.add(new CardData(original.getTitle(), original.getName(), original.getLegend(),
+                    original.getRules(), original.getCostValue(), original.getCostType()));
+        }
+        allCards = new SectionData();
+        for (List<CardData> section : sections) {
+            allCards.addAll(section);
+        }
+    }
+
+    @Benchmark
+    public CardCollectionData deduplicateSections() {
+        CardCollectionData collection = new CardCollectionData(sections.size());
+        for (List<CardData> section : sections) {
+            collection.add(new SectionData(section));
+        }
+        ICardInput.deduplicateSections(collection);
+        return collection;
+    }
+
+    @Benchmark
+    public SectionData listDeduplicator() {
+        return ICardInput.createListDeduplicator(allCards, true);
+    }
+
+    @Benchmark
+    public SectionData sortedListDeduplicator() {
+        return ICardInput.createListDeduplicator(allCards);
+    }
+
+    @Benchmark
+    public SectionData treeSetDeduplicator() {
+        TreeSet<CardData> dedup = new TreeSet<>(ICardInput.TEXTS_COMPARATOR);
+        dedup.addAll(allCards);
+        return new SectionData(dedup);
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.developerguilliman.cardEditor.data.CardCollectionData;
+import com.developerguilliman.cardEditor.output.PdfOutput;
+import com.developerguilliman.cardEditor.warning.WarningArrayList;
+
+/**
+ * Measures a full PDF export for each built-in preset.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class PdfOutputBenchmark {
+
+    @Param({"BW_8", "COLOR_8", "BW_9"})
+    public PdfOutput.DefaultPreset preset;
+
+    @Param({"100", "10000", "100000", Decks.EXAMPLES})
+    public String deck;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private CardCollectionData cards;
+
+    @Setup
+    public void setup() throws IOException {
+        cards = Decks.deck(deck);
+    }
+
+    @Benchmark
+    public long build() throws IOException {
+        Decks.CountingOutputStream out = new Decks.CountingOutputStream();
+        new PdfOutput.Builder(preset).setParallel(parallel).build().build(out, cards, new WarningArrayList());
+        return out.getCount();
+    }
+
+}
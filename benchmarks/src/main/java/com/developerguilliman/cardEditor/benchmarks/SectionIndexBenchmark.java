@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.developerguilliman.cardEditor.Utils;
+import com.developerguilliman.cardEditor.data.CardCollectionData;
+import com.developerguilliman.cardEditor.data.SectionData;
+
+/**
+ * Measures finding the position of every section, as the card tree renderer
+ * does for each section row it paints, with the section index of the
+ * collection or searching the list.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class SectionIndexBenchmark {
+
+    @Param({"1000", "50000"})
+    public int cards;
+
+    private CardCollectionData collection;
+    private List<SectionData> list;
+
+    @Setup
+    public void setup() {
+        collection = Decks.synthetic(cards);
+        list = new ArrayList<>(collection);
+    }
+
+    @Benchmark
+    public long indexedLookup() {
+        long sum = 0;
+        for (SectionData section : list) {
+            sum += collection.getExactIndex(section);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long linearLookup() {
+        long sum = 0;
+        for (SectionData section : list) {
+            sum += Utils.getExactIndex(list, section);
+        }
+        return sum;
+    }
+
+}
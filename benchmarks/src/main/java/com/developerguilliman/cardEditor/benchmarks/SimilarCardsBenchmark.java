@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.developerguilliman.cardEditor.data.CardData;
+import com.developerguilliman.cardEditor.data.CardSimilarityFinder;
+import com.developerguilliman.cardEditor.data.SectionData;
+
+/**
+ * Measures the search of similar cards, a quarter of the cards being copies
+ * of others with other casing, spacing or one word changed, and of as many
+ * copies of a single card, all in the same buckets.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class SimilarCardsBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int cards;
+
+    private List<CardData> allCards;
+    private List<CardData> identicalCards;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(cards);
+        allCards = new ArrayList<>();
+        for (SectionData section : Decks.synthetic(cards - cards / 4)) {
+            allCards.addAll(section);
+        }
+        int originals = allCards.size();
+        for (int i = 0; i < cards / 4; i++) {
+            CardData original = allCards.get(random.nextInt(originals));
+            String rules = original.getRules();
+            switch (i % 3) {
+                case 0:
+                    rules = rules.toUpperCase(Locale.ROOT);
+                    break;
+                case 1:
+                    rules = rules.replace(" ", "  ");
+                    break;
+                default:
+                    int space = rules.indexOf(' ', random.nextInt(rules.length()));
+                    rules = (space < 0) ? rules + " again" : rules.substring(0, space) + " again" + rules.substring(space);
+                    break;
+            }
+            allCards.add(new CardData(original.getTitle(), original.getName(), original.getLegend(),
+                    rules, original.getCostValue(), original.getCostType()));
+        }
+        identicalCards = new ArrayList<>();
+        for (int i = 0; i < cards; i++) {
+            identicalCards.add(allCards.get(0));
+        }
+    }
+
+    @Benchmark
+    public List<List<CardData>> findSimilarCards() {
+        return new CardSimilarityFinder().find(allCards);
+    }
+
+    @Benchmark
+    public List<List<CardData>> findIdenticalCards() {
+        return new CardSimilarityFinder().find(identicalCards);
+    }
+
+}
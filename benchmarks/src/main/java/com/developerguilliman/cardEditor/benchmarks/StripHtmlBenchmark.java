@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.unbescape.html.HtmlEscape;
+
+import com.developerguilliman.cardEditor.csv.IWahapediaCsvRowHandler;
+import com.developerguilliman.cardEditor.csv.WahapediaCsvBuilder;
+import com.developerguilliman.cardEditor.csv.WahapediaCsvReader;
+import com.developerguilliman.cardEditor.csv.WahapediaCsvRow;
+
+/**
+ * Measures the cleaning of every description of a Stratagems file. The real
+ * file can be given with {@code -p csvFile=/path/to/Stratagems.csv}, the
+ * synthetic one is used otherwise.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class StripHtmlBenchmark {
+
+    private static final Pattern LI_TAG_START_PATTERN = Pattern.compile("\\<li.*?\\>");
+    private static final Pattern ANY_TAG_PATTERN = Pattern.compile("\\<.*?\\>");
+
+    @Param({""})
+    public String csvFile;
+
+    private String[] descriptions;
+
+    @Setup
+    public void setup() throws IOException {
+        List<String> list = new ArrayList<>();
+        try (InputStream is = csvFile.isEmpty()
+                ? new ByteArrayInputStream(Decks.stratagemsCsv(10000, 40)) : new FileInputStream(csvFile)) {
+            new WahapediaCsvReader(is).read(new IWahapediaCsvRowHandler() {
+
+                private int descriptionColumn;
+
+                @Override
+                public void handleHeader(WahapediaCsvRow header) {
+                    descriptionColumn = header.indexOf("description");
+                }
+
+                @Override
+                public void handleRow(WahapediaCsvRow row) {
+                    list.add(row.getString(descriptionColumn));
+                }
+            });
+        }
+        descriptions = list.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public int stripHtml() {
+        int length = 0;
+        for (String description : descriptions) {
+            length += WahapediaCsvBuilder.stripHtml(description).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int regexStripHtml() {
+        int length = 0;
+        for (String description : descriptions) {
+            String str = description.trim();
+            str = LI_TAG_START_PATTERN.matcher(str).replaceAll("\n\n• ");
+            str = ANY_TAG_PATTERN.matcher(str).replaceAll("");
+            length += HtmlEscape.unescapeHtml(str).length();
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.developerguilliman.cardEditor.csv.IWahapediaCsvRowHandler;
+import com.developerguilliman.cardEditor.csv.WahapediaCsvBuilder;
+import com.developerguilliman.cardEditor.csv.WahapediaCsvReader;
+import com.developerguilliman.cardEditor.csv.WahapediaCsvRow;
+import com.developerguilliman.cardEditor.csv.WahapediaCsvSnapshot;
+import com.developerguilliman.cardEditor.data.SectionData;
+import com.developerguilliman.cardEditor.input.WahapediaMiscCardBuilder;
+
+/**
+ * Measures the Wahapedia parsers over synthetic CSV and HTML sources shaped
+ * like the real downloads.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class WahapediaBenchmark {
+
+    private static final int FACTIONS = 40;
+
+    private static final String[] COLUMNS = {"faction_id", "subfaction_id", "name", "type", "cp_cost", "legend",
+        "description"};
+    private static final String[] HTML_COLUMNS = {"description"};
+
+    @Param({"100", "10000", "100000"})
+    public int rows;
+
+    private byte[] csv;
+    private Document html;
+    private File snapshotDirectory;
+
+    @Setup
+    public void setup() throws IOException {
+        csv = Decks.stratagemsCsv(rows, FACTIONS);
+        html = Jsoup.parse(Decks.miscHtml(rows));
+        snapshotDirectory = Files.createTempDirectory("snapshots").toFile();
+        snapshotDirectory.deleteOnExit();
+        WahapediaCsvSnapshot.read(new ByteArrayInputStream(csv), COLUMNS, HTML_COLUMNS, snapshotDirectory);
+        for (File file : snapshotDirectory.listFiles()) {
+            file.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public WahapediaCsvBuilder csvBuild() throws IOException {
+        return new WahapediaCsvBuilder().build(new ByteArrayInputStream(csv));
+    }
+
+    @Benchmark
+    public int csvRead() throws IOException {
+        int[] cells = new int[1];
+        new WahapediaCsvReader(new ByteArrayInputStream(csv)).read(new IWahapediaCsvRowHandler() {
+
+            @Override
+            public void handleHeader(WahapediaCsvRow header) {
+                cells[0] += header.size();
+            }
+
+            @Override
+            public void handleRow(WahapediaCsvRow row) {
+                cells[0] += row.size();
+            }
+        });
+        return cells[0];
+    }
+
+    @Benchmark
+    public int snapshotParse() throws IOException {
+        return scanSnapshot(WahapediaCsvSnapshot.read(new ByteArrayInputStream(csv), COLUMNS, HTML_COLUMNS, (File) null));
+    }
+
+    @Benchmark
+    public int snapshotLoad() throws IOException {
+        return scanSnapshot(WahapediaCsvSnapshot.read(new ByteArrayInputStream(csv), COLUMNS, HTML_COLUMNS,
+                snapshotDirectory));
+    }
+
+    private static int scanSnapshot(WahapediaCsvSnapshot snapshot) {
+        // What an import of a single faction reads
+        String faction = Decks.factionId(0);
+        int length = 0;
+        for (int row = 0; row < snapshot.getRowCount(); row++) {
+            if (snapshot.getString(row, 0).equals(faction)) {
+                for (int column = 2; column < snapshot.getColumnCount(); column++) {
+                    length += snapshot.getString(row, column).length();
+                }
+            }
+        }
+        return length;
+    }
+
+    @Benchmark
+    public SectionData miscBuildFromHtml() {
+        SectionData list = new SectionData();
+        new WahapediaMiscCardBuilder(0, false, false).buildFromHtml(html, list);
+        return list;
+    }
+
+}
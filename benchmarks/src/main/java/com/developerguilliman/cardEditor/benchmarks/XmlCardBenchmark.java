@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.developerguilliman.cardEditor.data.CardCollectionData;
+import com.developerguilliman.cardEditor.input.XmlCardInput;
+import com.developerguilliman.cardEditor.output.XmlCardOutput;
+import com.developerguilliman.cardEditor.warning.WarningArrayList;
+
+/**
+ * Measures loading and saving the card XML format.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class XmlCardBenchmark {
+
+    @Param({"100", "10000", "100000", Decks.EXAMPLES})
+    public String deck;
+
+    private CardCollectionData cards;
+    private byte[] xml;
+
+    @Setup
+    public void setup() throws IOException {
+        cards = Decks.deck(deck);
+        xml = Decks.toXml(cards);
+    }
+
+    @Benchmark
+    public CardCollectionData input() {
+        return new XmlCardInput().build(new ByteArrayInputStream(xml));
+    }
+
+    @Benchmark
+    public long output() throws IOException {
+        Decks.CountingOutputStream out = new Decks.CountingOutputStream();
+        new XmlCardOutput().build(out, cards, new WarningArrayList());
+        return out.getCount();
+    }
+
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.developerguilliman.cardEditor.data.CardCollectionData;
+import com.developerguilliman.cardEditor.input.XmlCardInput;
+import com.developerguilliman.cardEditor.metrics.Metrics;
+import com.developerguilliman.cardEditor.metrics.MetricsSnapshot;
+import com.developerguilliman.cardEditor.output.PdfOutput;
+import com.developerguilliman.cardEditor.warning.WarningArrayList;
+
+/**
+ * Converts card files to pdf from the command line, without any window, so
+ * the decks can be built where there is no display. The decks are converted
+ * in parallel, and the exit code tells whether any of them had warnings or
+ * could not be converted.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public class BatchConverter {
+
+    public static final String BATCH_OPTION = "--batch";
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_WARNINGS = 1;
+    public static final int EXIT_FAILED = 2;
+    public static final int EXIT_USAGE = 3;
+
+    public static final String METRICS_FILE_NAME = "cardEditor-metrics.json";
+
+    private static final String USAGE = "Usage: " + BATCH_OPTION + " [options] cards.xml...\n"
+            + "  --preset NAME          starting pdf settings, one of " + Arrays.toString(PdfOutput.DefaultPreset.values()) + "\n"
+            + "  --settings FILE        pdf settings file, applied over the preset\n"
+            + "  --save-settings FILE   writes the resulting pdf settings to the file\n"
+            + "  --output DIR           folder of the pdf files, next to each card file by default\n"
+            + "  --threads N            card files converted at once, the number of cores by default\n"
+            + "  --metrics              writes the time of every stage to " + METRICS_FILE_NAME + " next to the pdf files\n"
+            + "Exit codes: " + EXIT_OK + " converted, " + EXIT_WARNINGS + " converted with warnings, "
+            + EXIT_FAILED + " some file failed, " + EXIT_USAGE + " wrong arguments";
+
+    private final PdfOutput.Builder builder;
+    private final File outputDir;
+    private final int threads;
+    private final PrintStream out;
+    private boolean metricsReport;
+
+    /**
+     * @param outputDir the folder of the pdf files, null to write each one
+     * next to its card file
+     */
+    public BatchConverter(PdfOutput.Builder builder, File outputDir, int threads, PrintStream out) {
+        this.builder = builder;
+        this.outputDir = outputDir;
+        this.threads = threads;
+        this.out = out;
+    }
+
+    /**
+     * Runs the conversion the arguments after {@value #BATCH_OPTION} ask for.
+     *
+     * @return the exit code of the process
+     */
+    public static int run(String[] args, PrintStream out) {
+        PdfOutput.DefaultPreset preset = PdfOutput.DefaultPreset.BW_8;
+        File settingsFile = null;
+        File saveSettingsFile = null;
+        File outputDir = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean metricsReport = false;
+        List<File> inputs = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    inputs.add(new File(arg));
+                    continue;
+                }
+                if (arg.equals(BATCH_OPTION)) {
+                    continue;
+                }
+                if (arg.equals("--metrics")) {
+                    metricsReport = true;
+                    continue;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing the value of " + arg);
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--preset":
+                        preset = PdfOutput.DefaultPreset.valueOf(value);
+                        break;
+                    case "--settings":
+                        settingsFile = new File(value);
+                        break;
+                    case "--save-settings":
+                        saveSettingsFile = new File(value);
+                        break;
+                    case "--output":
+                        outputDir = new File(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        if (threads < 1) {
+                            throw new IllegalArgumentException("At least one thread is needed");
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+            if (inputs.isEmpty() && saveSettingsFile == null) {
+                throw new IllegalArgumentException("No card files to convert");
+            }
+        } catch (IllegalArgumentException e) {
+            out.println(e.getMessage());
+            out.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        PdfOutput.Builder builder = new PdfOutput.Builder(preset);
+        try {
+            if (settingsFile != null) {
+                try (InputStream is = new FileInputStream(settingsFile)) {
+                    builder.load(is);
+                }
+            }
+            if (saveSettingsFile != null) {
+                try (OutputStream os = new FileOutputStream(saveSettingsFile)) {
+                    builder.save(os);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            out.println("Could not use the pdf settings: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+        if (outputDir != null && !outputDir.isDirectory() && !outputDir.mkdirs()) {
+            out.println("Could not create the folder " + outputDir);
+            return EXIT_USAGE;
+        }
+        BatchConverter converter = new BatchConverter(builder, outputDir, threads, out);
+        converter.setMetricsReport(metricsReport);
+        return converter.convert(inputs);
+    }
+
+    /**
+     * Writes the metrics of the whole conversion as JSON in the folder of
+     * the pdf files, or next to the first one when they go next to their
+     * card files.
+     */
+    public void setMetricsReport(boolean metricsReport) {
+        this.metricsReport = metricsReport;
+    }
+
+    /**
+     * Converts every card file, reporting each one in the order given.
+     *
+     * @return {@link #EXIT_FAILED} when some file could not be converted,
+     * {@link #EXIT_WARNINGS} when some file had warnings, {@link #EXIT_OK}
+     * otherwise
+     */
+    public int convert(List<File> inputs) {
+        List<File> outputs = new ArrayList<>(inputs.size());
+        HashMap<File, File> inputsByOutput = new HashMap<>();
+        for (File input : inputs) {
+            File output = getOutputFile(input);
+            File previous = inputsByOutput.put(output.getAbsoluteFile(), input);
+            if (previous != null) {
+                out.println("Both " + previous + " and " + input + " would be written to " + output);
+                return EXIT_USAGE;
+            }
+            outputs.add(output);
+        }
+
+        MetricsSnapshot metricsBefore = Metrics.get().snapshot();
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, inputs.size())), (r) -> {
+            Thread t = new Thread(r, "Batch-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<WarningArrayList>> futures = new ArrayList<>(inputs.size());
+            for (int i = 0; i < inputs.size(); i++) {
+                File input = inputs.get(i);
+                File output = outputs.get(i);
+                futures.add(executor.submit(() -> convert(input, output)));
+            }
+
+            int exitCode = EXIT_OK;
+            for (int i = 0; i < inputs.size(); i++) {
+                File input = inputs.get(i);
+                try {
+                    List<String> warnings = futures.get(i).get().getWarnings();
+                    out.println(input + " -> " + outputs.get(i) + (warnings.isEmpty() ? "" : " (" + warnings.size() + " warnings)"));
+                    for (String warning : warnings) {
+                        out.println("    " + warning);
+                    }
+                    if (!warnings.isEmpty()) {
+                        exitCode = Math.max(exitCode, EXIT_WARNINGS);
+                    }
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    out.println(input + " failed: " + cause);
+                    exitCode = EXIT_FAILED;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    out.println("Interrupted");
+                    return EXIT_FAILED;
+                }
+            }
+            if (metricsReport && !outputs.isEmpty()) {
+                File metricsFile = new File(outputs.get(0).getAbsoluteFile().getParentFile(), METRICS_FILE_NAME);
+                Metrics.writeReport(metricsFile, Metrics.get().snapshot().minus(metricsBefore));
+            }
+            return exitCode;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private File getOutputFile(File input) {
+        String name = input.getName();
+        int dot = name.lastIndexOf('.');
+        String pdfName = ((dot > 0) ? name.substring(0, dot) : name) + ".pdf";
+        File dir = (outputDir != null) ? outputDir : input.getAbsoluteFile().getParentFile();
+        return new File(dir, pdfName);
+    }
+
+    private WarningArrayList convert(File input, File output) throws IOException {
+        CardCollectionData cards;
+        try (InputStream is = new BufferedInputStream(new FileInputStream(input))) {
+            cards = new XmlCardInput().build(is);
+        }
+        WarningArrayList warnings = new WarningArrayList();
+        // Written aside, a failed conversion leaves the previous file as it was
+        File partFile = new File(output.getPath() + ".part");
+        try {
+            try (OutputStream os = new BufferedOutputStream(new FileOutputStream(partFile))) {
+                builder.build().build(os, cards, warnings);
+            }
+            Files.move(partFile.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            partFile.delete();
+        }
+        return warnings;
+    }
+
+}
@@ -16,11 +16,20 @@
  */
 package com.developerguilliman.cardEditor;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 /**
+ * Short ids of the printed texts, the first 25 bits of their SHA-512 digest in
+ * Base32. Every thread hashes with its own digest and byte buffer, so one
+ * instance can be shared by parallel exports without locking, and the texts
+ * are encoded in UTF-8 into the reused buffer instead of a new array each.
  *
  * @author Developer Guilliman <developerguilliman@gmail.com>
  */
@@ -30,67 +39,88 @@ public class CardHash {
     // a word meanwhile all characters have the same height in the pdf
     private static final char[] BASE32_ALPHABET = "BCDEFGHJKLMNPQRSTVWXYZ1234567890".toCharArray();
 
-    private final MessageDigest messageDigest;
+    private static final int HASH_LENGTH = 5;
+    private static final int BUFFER_SIZE = 4096;
 
-    public CardHash() {
-        try {
-            this.messageDigest = MessageDigest.getInstance("SHA-512");
-        } catch (NoSuchAlgorithmException ex) {
-            throw new Error(ex);
-        }
+    private static final ThreadLocal<Hasher> HASHERS = ThreadLocal.withInitial(Hasher::new);
+
+    public String getStringsHash(CharSequence s) {
+        Hasher hasher = HASHERS.get();
+        hasher.update(s);
+        return hasher.digest();
     }
 
-    public String getStringsHash(String s) {
-        byte[] digest;
-        synchronized (messageDigest) {
-            digest = messageDigest.digest(s.getBytes(StandardCharsets.UTF_8));
-            messageDigest.reset();
+    public String getStringsHash(CharSequence... strings) {
+        Hasher hasher = HASHERS.get();
+        for (CharSequence s : strings) {
+            hasher.update(s);
         }
-        return base32Encode(digest, 4).substring(0, 5);
+        return hasher.digest();
     }
 
-    public String getStringsHash(String... strings) {
-        byte[] digest;
-        synchronized (messageDigest) {
-            for (String s : strings) {
-                messageDigest.update(s.getBytes(StandardCharsets.UTF_8));
+    private static final class Hasher {
+
+        private final MessageDigest messageDigest;
+        private final CharsetEncoder encoder;
+        private final ByteBuffer buffer;
+        private char[] chars;
+
+        private Hasher() {
+            try {
+                this.messageDigest = MessageDigest.getInstance("SHA-512");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new Error(ex);
             }
-            digest = messageDigest.digest();
-            messageDigest.reset();
+            // Replacing as String.getBytes does, so unpaired surrogates give the same ids
+            this.encoder = StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            this.chars = new char[BUFFER_SIZE];
         }
-        return base32Encode(digest, 4).substring(0, 5);
-    }
-
-    private static StringBuilder base32Encode(byte[] bytes, int len) {
-        int i = 0;
-        int index = 0;
-        int currByte, nextByte;
-        StringBuilder base32 = new StringBuilder((len + 7) * 8 / 5);
 
-        while (i < len) {
-            int ni = i + 1;
-            currByte = (bytes[i] >= 0) ? bytes[i] : (bytes[i] + 256);
-            int digit;
-            if (index > 3) {
-                if (ni < len) {
-                    nextByte = (bytes[ni] >= 0) ? bytes[ni] : (bytes[ni] + 256);
-                } else {
-                    nextByte = 0;
+        private void update(CharSequence s) {
+            int len = s.length();
+            if (chars.length < len) {
+                chars = new char[Math.max(len, chars.length * 2)];
+            }
+            // The encoder runs much faster over an array than over a sequence
+            if (s instanceof String) {
+                ((String) s).getChars(0, len, chars, 0);
+            } else if (s instanceof StringBuilder) {
+                ((StringBuilder) s).getChars(0, len, chars, 0);
+            } else {
+                for (int i = 0; i < len; i++) {
+                    chars[i] = s.charAt(i);
                 }
+            }
+            CharBuffer in = CharBuffer.wrap(chars, 0, len);
+            encoder.reset();
+            while (encoder.encode(in, buffer, true).isOverflow()) {
+                flush();
+            }
+            while (encoder.flush(buffer).isOverflow()) {
+                flush();
+            }
+        }
 
-                digit = currByte & (0xFF >> index);
-                index = (index + 5) & 0x7;
-                digit <<= index;
-                digit |= nextByte >> (8 - index);
-                i = ni;
-            } else {
-                digit = (currByte >> (8 - (index + 5))) & 0x1F;
-                index = (index + 5) & 0x7;
-                i = (index == 0) ? ni : i;
+        private void flush() {
+            ((Buffer) buffer).flip();
+            messageDigest.update(buffer);
+            ((Buffer) buffer).clear();
+        }
+
+        private String digest() {
+            flush();
+            byte[] digest = messageDigest.digest();
+            int bits = ((digest[0] & 0xFF) << 24) | ((digest[1] & 0xFF) << 16)
+                    | ((digest[2] & 0xFF) << 8) | (digest[3] & 0xFF);
+            char[] hash = new char[HASH_LENGTH];
+            for (int i = 0; i < HASH_LENGTH; i++) {
+                hash[i] = BASE32_ALPHABET[(bits >>> (27 - 5 * i)) & 0x1F];
             }
-            base32.append(BASE32_ALPHABET[digit]);
+            return new String(hash);
         }
-        return base32;
     }
 
 }
@@ -37,6 +37,11 @@ public class Main {
      */
     public static void main(String args[]) {
 
+        if (args.length > 0 && args[0].equals(BatchConverter.BATCH_OPTION)) {
+            // No window is opened, so it also runs where there is no display
+            System.setProperty("java.awt.headless", "true");
+            System.exit(BatchConverter.run(args, System.out));
+        }
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | javax.swing.UnsupportedLookAndFeelException ex) {
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor;
+
+/**
+ * Suffix automaton of a reversed text. It answers, for every position of
+ * another string, how long the longest prefix starting there that also
+ * occurs in the text is, in time linear in both lengths.
+ * <p>
+ * The transitions of each state are kept in a linked list of edges, the
+ * card texts use few distinct characters after any given prefix.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+final class SuffixAutomaton {
+
+    private final int[] length;
+    private final int[] link;
+    private final int[] firstEdge;
+    private int stateCount;
+
+    private final char[] edgeChar;
+    private final int[] edgeTarget;
+    private final int[] nextEdge;
+    private int edgeCount;
+
+    private SuffixAutomaton(int textLength) {
+        int maxStates = 2 * textLength + 1;
+        this.length = new int[maxStates];
+        this.link = new int[maxStates];
+        this.firstEdge = new int[maxStates];
+        int maxEdges = 3 * textLength + 1;
+        this.edgeChar = new char[maxEdges];
+        this.edgeTarget = new int[maxEdges];
+        this.nextEdge = new int[maxEdges];
+    }
+
+    /**
+     * Builds the automaton of the given text read backwards, so the
+     * suffixes it recognizes are the prefixes of the text.
+     */
+    static SuffixAutomaton ofReversed(String text) {
+        int len = text.length();
+        SuffixAutomaton automaton = new SuffixAutomaton(len);
+        int last = automaton.newState(0, -1);
+        for (int i = len - 1; i >= 0; i--) {
+            last = automaton.extend(last, text.charAt(i));
+        }
+        return automaton;
+    }
+
+    /**
+     * Lowers every {@code limits[i]} to the length of the longest prefix of
+     * {@code s.substring(i)} found in the text.
+     *
+     * @return false when every limit is zero, nothing of s is left to match
+     */
+    boolean limitPrefixMatches(String s, int[] limits) {
+        int state = 0;
+        int matched = 0;
+        boolean anyMatch = false;
+        for (int i = s.length() - 1; i >= 0; i--) {
+            char c = s.charAt(i);
+            int next = transition(state, c);
+            while (next < 0 && state != 0) {
+                state = link[state];
+                matched = length[state];
+                next = transition(state, c);
+            }
+            if (next < 0) {
+                matched = 0;
+            } else {
+                state = next;
+                matched++;
+            }
+            if (matched < limits[i]) {
+                limits[i] = matched;
+            }
+            anyMatch |= limits[i] > 0;
+        }
+        return anyMatch;
+    }
+
+    private int extend(int last, char c) {
+        int current = newState(length[last] + 1, -1);
+        int p = last;
+        while (p >= 0 && transition(p, c) < 0) {
+            addEdge(p, c, current);
+            p = link[p];
+        }
+        if (p < 0) {
+            link[current] = 0;
+            return current;
+        }
+        int q = transition(p, c);
+        if (length[p] + 1 == length[q]) {
+            link[current] = q;
+            return current;
+        }
+        int clone = newState(length[p] + 1, link[q]);
+        for (int e = firstEdge[q]; e >= 0; e = nextEdge[e]) {
+            addEdge(clone, edgeChar[e], edgeTarget[e]);
+        }
+        while (p >= 0 && redirectEdge(p, c, q, clone)) {
+            p = link[p];
+        }
+        link[q] = clone;
+        link[current] = clone;
+        return current;
+    }
+
+    private int newState(int stateLength, int stateLink) {
+        int state = stateCount++;
+        length[state] = stateLength;
+        link[state] = stateLink;
+        firstEdge[state] = -1;
+        return state;
+    }
+
+    private int transition(int state, char c) {
+        for (int e = firstEdge[state]; e >= 0; e = nextEdge[e]) {
+            if (edgeChar[e] == c) {
+                return edgeTarget[e];
+            }
+        }
+        return -1;
+    }
+
+    private void addEdge(int state, char c, int target) {
+        int e = edgeCount++;
+        edgeChar[e] = c;
+        edgeTarget[e] = target;
+        nextEdge[e] = firstEdge[state];
+        firstEdge[state] = e;
+    }
+
+    private boolean redirectEdge(int state, char c, int from, int to) {
+        for (int e = firstEdge[state]; e >= 0; e = nextEdge[e]) {
+            if (edgeChar[e] == c) {
+                if (edgeTarget[e] != from) {
+                    return false;
+                }
+                edgeTarget[e] = to;
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
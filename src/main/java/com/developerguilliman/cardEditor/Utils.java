@@ -76,6 +76,12 @@ public class Utils {
 		return (start > 0) ? value.substring(start, len) : value;
 	}
 
+	/**
+	 * Returns the longest run of whole words of the first string that is
+	 * contained in all the others, the first one found on ties. Each other
+	 * string is matched once with a suffix automaton, so the search is linear
+	 * in the total length instead of trying every run with contains.
+	 */
 	public static String longestCommonWords(List<String> list) {
 		String[] array = list.toArray(new String[0]);
 		int aLen = array.length;
@@ -83,29 +89,41 @@ public class Utils {
 			return "";
 		}
 
-		String result = "";
 		String s = array[0];
 		int sLen = s.length();
 
-		for (int i = 0; i < sLen; i = nextSpace(s, i) + 1) {
-			for (int j = nextSpace(s, i); j <= sLen; j = nextSpace(s, j)) {
-
-				String sub = s.substring(i, j);
-				int k;
-				for (k = 1; k < aLen; k++) {
-					if (!array[k].contains(sub)) {
-						break;
-					}
-				}
+		// limits[i] is the longest prefix of s.substring(i) found in every string
+		int[] limits = new int[sLen];
+		for (int i = 0; i < sLen; i++) {
+			limits[i] = sLen - i;
+		}
+		for (int k = 1; k < aLen; k++) {
+			if (!SuffixAutomaton.ofReversed(array[k]).limitPrefixMatches(s, limits)) {
+				return "";
+			}
+		}
 
-				if (k == aLen && result.length() < sub.length()) {
-					result = sub;
-				}
+		int[] lastSpaces = new int[sLen];
+		int lastSpace = -1;
+		for (int i = 0; i < sLen; i++) {
+			if (s.charAt(i) == ' ') {
+				lastSpace = i;
+			}
+			lastSpaces[i] = lastSpace;
+		}
 
+		int resultStart = 0;
+		int resultEnd = 0;
+		for (int i = 0; i < sLen; i = nextSpace(s, i) + 1) {
+			int maxEnd = i + limits[i];
+			int j = (maxEnd == sLen) ? sLen : lastSpaces[maxEnd];
+			if (j > i && resultEnd - resultStart < j - i) {
+				resultStart = i;
+				resultEnd = j;
 			}
 		}
 
-		return result;
+		return s.substring(resultStart, resultEnd);
 	}
 
 	private static int nextSpace(String s, int i) {
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.csv;
+
+import java.util.Collection;
+
+/**
+ * The cells of one row of a Wahapedia CSV file read by
+ * {@link WahapediaCsvSnapshot}, the columns being the indexes of the column
+ * names asked for and a missing column being empty. The cells of the HTML
+ * columns are returned cleaned. They are only valid during the call.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public interface IWahapediaCsvCells {
+
+	public String getString(int column);
+
+	public boolean isEmpty(int column);
+
+	public boolean matchesAny(int column, Collection<String> values);
+
+}
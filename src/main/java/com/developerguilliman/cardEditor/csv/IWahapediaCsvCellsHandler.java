@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.csv;
+
+import java.io.IOException;
+
+/**
+ * Receives the rows of a Wahapedia CSV file as cells of the columns asked
+ * for, read from the file or from its snapshot.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public interface IWahapediaCsvCellsHandler {
+
+	public void handleCells(IWahapediaCsvCells cells) throws IOException;
+
+}
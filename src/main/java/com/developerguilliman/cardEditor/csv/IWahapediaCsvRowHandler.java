@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.csv;
+
+import java.io.IOException;
+
+/**
+ * Receives the rows of a Wahapedia CSV file as {@link WahapediaCsvReader}
+ * reads them. The rows are only valid during the call.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public interface IWahapediaCsvRowHandler {
+
+	public void handleHeader(WahapediaCsvRow header) throws IOException;
+
+	public void handleRow(WahapediaCsvRow row) throws IOException;
+
+}
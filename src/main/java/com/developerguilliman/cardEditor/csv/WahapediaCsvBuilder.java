@@ -16,30 +16,20 @@
  */
 package com.developerguilliman.cardEditor.csv;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.regex.Pattern;
 
-import org.unbescape.html.HtmlEscape;
-
-import com.developerguilliman.cardEditor.Utils;
+import com.developerguilliman.cardEditor.metrics.Metric;
+import com.developerguilliman.cardEditor.metrics.Metrics;
 
 /**
 *
 * @author Developer Guilliman <developerguilliman@gmail.com>
 */
 public class WahapediaCsvBuilder {
-	
-	
-	private static final Pattern SEPARATOR_PATTERN = Pattern.compile("\\|");
-	private static final Pattern LI_TAG_START_PATTERN = Pattern.compile("\\<li.*?\\>");
-	private static final Pattern ANY_TAG_PATTERN = Pattern.compile("\\<.*?\\>");
+
+	private static final Metric STRIP_HTML_METRIC = Metrics.get().timer("wahapedia.stripHtml");
 
 	private final ArrayList<String> header;
 	private final ArrayList<ArrayList<String>> data;
@@ -50,27 +40,29 @@ public class WahapediaCsvBuilder {
 	}
 	
 	public WahapediaCsvBuilder build(InputStream is) throws IOException {
-		BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
-		String readedString = br.readLine();
-		if (readedString == null) {
-			return this;
-		}
-		addSplitted(header, readedString);
-		readedString = br.readLine();
-		while (readedString != null) {
-			data.add(addSplitted(new ArrayList<>(), readedString));
-			readedString = br.readLine();
-		}
+		new WahapediaCsvReader(is).read(new IWahapediaCsvRowHandler() {
+
+			@Override
+			public void handleHeader(WahapediaCsvRow row) {
+				addCells(header, row);
+			}
+
+			@Override
+			public void handleRow(WahapediaCsvRow row) {
+				data.add(addCells(new ArrayList<>(row.size()), row));
+			}
+		});
 		return this;
 	}
-	
-	private static ArrayList<String> addSplitted(ArrayList<String> al, String readedString) {
-		for (String s : SEPARATOR_PATTERN.split(readedString, -1)) {
-			al.add(s.replaceAll("\uEFBBBF", "").replace('\uFEFF', ' ').trim());
+
+	private static ArrayList<String> addCells(ArrayList<String> al, WahapediaCsvRow row) {
+		int size = row.size();
+		for (int i = 0; i < size; i++) {
+			al.add(row.getString(i));
 		}
 		return al;
 	}
-	
+
 	public ArrayList<String> getHeader() {
 		return header;
 	}
@@ -80,19 +72,20 @@ public class WahapediaCsvBuilder {
 	}
 	
 	public static InputStream getInputStreamFromUrl(String url) throws IOException {
-                System.out.println("Connecting to URL: " + url);
-		HttpURLConnection huc = ((HttpURLConnection) new URL(url).openConnection());
-		huc.addRequestProperty("User-Agent", Utils.getApplicationName());
-		huc.addRequestProperty("Accept", "*/*");
-		return huc.getInputStream();
+		return WahapediaHttpCache.getDefault().open(url);
 	}
 
+	/**
+	 * Trims the text, turns the list items into bullets, removes the other
+	 * tags and unescapes the entities.
+	 */
 	public static String stripHtml(String str) {
-		str = str.trim();
-		str =  LI_TAG_START_PATTERN.matcher(str).replaceAll("\n\n• ");
-		str =  ANY_TAG_PATTERN.matcher(str).replaceAll("");
-		str = HtmlEscape.unescapeHtml(str);
-		return str;
+		long start = System.nanoTime();
+		try {
+			return WahapediaHtmlStripper.strip(str);
+		} finally {
+			STRIP_HTML_METRIC.record(start);
+		}
 	}
 
 }
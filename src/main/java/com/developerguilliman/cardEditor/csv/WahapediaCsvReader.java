@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import com.developerguilliman.cardEditor.metrics.Metric;
+import com.developerguilliman.cardEditor.metrics.Metrics;
+
+/**
+ * Streaming tokenizer of the pipe separated files of Wahapedia. Lines end
+ * with a line feed, a carriage return or both, like
+ * {@link java.io.BufferedReader#readLine()}. Every line is split at each pipe
+ * and handed to the handler as a {@link WahapediaCsvRow} over the read
+ * buffer, so no line or cell string is created by the tokenizer itself.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public class WahapediaCsvReader {
+
+	private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private static final char SEPARATOR = '|';
+	private static final char BOM = '\uFEFF';
+
+	// Includes the time the handler takes with the rows
+	private static final Metric PARSE_METRIC = Metrics.get().timer("wahapedia.csvParse");
+
+	private final Reader reader;
+	private char[] buffer;
+
+	public WahapediaCsvReader(InputStream is) {
+		this(new InputStreamReader(is, StandardCharsets.UTF_8));
+	}
+
+	public WahapediaCsvReader(Reader reader) {
+		this.reader = reader;
+		this.buffer = new char[DEFAULT_BUFFER_SIZE];
+	}
+
+	/**
+	 * Reads the whole source, passing the first line to
+	 * {@link IWahapediaCsvRowHandler#handleHeader(WahapediaCsvRow)} and every
+	 * other line to {@link IWahapediaCsvRowHandler#handleRow(WahapediaCsvRow)}.
+	 */
+	public void read(IWahapediaCsvRowHandler handler) throws IOException {
+		long start = System.nanoTime();
+		try {
+			readRows(handler);
+		} finally {
+			PARSE_METRIC.record(start);
+		}
+	}
+
+	private void readRows(IWahapediaCsvRowHandler handler) throws IOException {
+		WahapediaCsvRow row = new WahapediaCsvRow();
+		boolean header = true;
+		boolean afterCarriageReturn = false;
+		int limit = fill(0);
+		boolean bom = limit > 0 && buffer[0] == BOM;
+		int pos = bom ? 1 : 0;
+		int lineStart = pos;
+		row.reset(buffer);
+		row.addCellStart(lineStart);
+
+		while (true) {
+			if (pos == limit) {
+				// Keep only the line being read, growing the buffer if the line fills it
+				int lineLength = limit - lineStart;
+				char[] target = (lineLength == buffer.length) ? new char[buffer.length * 2] : buffer;
+				System.arraycopy(buffer, lineStart, target, 0, lineLength);
+				buffer = target;
+				row.move(buffer, -lineStart);
+				lineStart = 0;
+				pos = lineLength;
+				limit = fill(lineLength);
+				if (limit == lineLength) {
+					// A first line with only the mark is still a line
+					if (lineLength > 0 || (bom && header)) {
+						row.end(pos);
+						handle(handler, row, header);
+					}
+					return;
+				}
+			}
+
+			char c = buffer[pos++];
+			if (c == SEPARATOR) {
+				row.addCellStart(pos);
+			} else if (c == '\n' && afterCarriageReturn) {
+				lineStart = pos;
+				row.reset(buffer);
+				row.addCellStart(lineStart);
+			} else if (c == '\n' || c == '\r') {
+				row.end(pos - 1);
+				handle(handler, row, header);
+				header = false;
+				lineStart = pos;
+				row.reset(buffer);
+				row.addCellStart(lineStart);
+			}
+			afterCarriageReturn = c == '\r';
+		}
+	}
+
+	private static void handle(IWahapediaCsvRowHandler handler, WahapediaCsvRow row, boolean header) throws IOException {
+		if (header) {
+			handler.handleHeader(row);
+		} else {
+			handler.handleRow(row);
+		}
+	}
+
+	private int fill(int offset) throws IOException {
+		int read = reader.read(buffer, offset, buffer.length - offset);
+		return (read < 0) ? offset : offset + read;
+	}
+
+}
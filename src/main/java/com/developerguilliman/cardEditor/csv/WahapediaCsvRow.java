@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.csv;
+
+import java.util.Collection;
+
+/**
+ * One row of a Wahapedia CSV file, as column slices of the buffer of the
+ * {@link WahapediaCsvReader}. No cell string is created until it is asked
+ * for, and the row must not be kept after the handler returns.
+ * <p>
+ * Cells are trimmed and a byte order mark inside them becomes a space, as the
+ * importers always did with the split lines.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public final class WahapediaCsvRow {
+
+	private static final char BOM = '\uFEFF';
+	// What a BOM decoded with the wrong charset looked like, always removed
+	private static final char BROKEN_BOM = '\uEFBB';
+	private static final String BROKEN_BOM_STRING = "\uEFBBBF";
+
+	private char[] buffer;
+	private int[] cellStarts;
+	private int size;
+
+	WahapediaCsvRow() {
+		this.cellStarts = new int[16];
+	}
+
+	void reset(char[] buffer) {
+		this.buffer = buffer;
+		this.size = 0;
+	}
+
+	/**
+	 * Follows the cells after the reader moved them inside its buffer.
+	 */
+	void move(char[] buffer, int delta) {
+		this.buffer = buffer;
+		for (int i = 0; i < size; i++) {
+			cellStarts[i] += delta;
+		}
+	}
+
+	void addCellStart(int start) {
+		if (size == cellStarts.length) {
+			int[] newCellStarts = new int[size * 2];
+			System.arraycopy(cellStarts, 0, newCellStarts, 0, size);
+			cellStarts = newCellStarts;
+		}
+		cellStarts[size++] = start;
+	}
+
+	/**
+	 * Marks where the last cell ends. The end of a cell is the start of the
+	 * next one minus its separator.
+	 */
+	void end(int end) {
+		addCellStart(end + 1);
+		size--;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the cell of the given column, or an empty string when the row
+	 * is shorter or the column is missing.
+	 */
+	public String getString(int column) {
+		if (column < 0 || column >= size) {
+			return "";
+		}
+		int start = cellStarts[column];
+		int end = cellStarts[column + 1] - 1;
+		if (needsCleaning(start, end)) {
+			return new String(buffer, start, end - start).replace(BROKEN_BOM_STRING, "").replace(BOM, ' ').trim();
+		}
+		while (start < end && buffer[start] <= ' ') {
+			start++;
+		}
+		while (start < end && buffer[end - 1] <= ' ') {
+			end--;
+		}
+		return new String(buffer, start, end - start);
+	}
+
+	/**
+	 * Compares the cell of the given column with a value without creating the
+	 * cell string.
+	 */
+	public boolean matches(int column, String value) {
+		if (column < 0 || column >= size) {
+			return value.isEmpty();
+		}
+		int start = cellStarts[column];
+		int end = cellStarts[column + 1] - 1;
+		if (needsCleaning(start, end)) {
+			return getString(column).equals(value);
+		}
+		while (start < end && buffer[start] <= ' ') {
+			start++;
+		}
+		while (start < end && buffer[end - 1] <= ' ') {
+			end--;
+		}
+		int len = value.length();
+		if (end - start != len) {
+			return false;
+		}
+		for (int i = 0; i < len; i++) {
+			if (buffer[start + i] != value.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true when the cell of the given column is one of the values,
+	 * without creating the cell string.
+	 */
+	public boolean matchesAny(int column, Collection<String> values) {
+		for (String value : values) {
+			if (matches(column, value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the first column whose cell is the given value, or -1. Meant to
+	 * resolve the column names of the header once.
+	 */
+	public int indexOf(String value) {
+		for (int i = 0; i < size; i++) {
+			if (matches(i, value)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns true when the cell of the given column is empty once trimmed.
+	 */
+	public boolean isEmpty(int column) {
+		return matches(column, "");
+	}
+
+	private boolean needsCleaning(int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = buffer[i];
+			if (c == BOM || c == BROKEN_BOM) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
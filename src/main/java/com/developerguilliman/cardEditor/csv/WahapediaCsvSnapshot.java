@@ -0,0 +1,466 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.csv;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * The cleaned cells of some columns of a Wahapedia CSV file, with the HTML
+ * columns already passed through {@link WahapediaCsvBuilder#stripHtml(String)}.
+ * <p>
+ * Every snapshot is also saved in a binary file of the snapshot directory,
+ * {@code ~/.cardEditor/snapshots} unless the {@value #DIRECTORY_PROPERTY}
+ * system property names another one. The file is named after the hash of the
+ * source content and the columns, so reading the same download again only
+ * loads that file instead of parsing the CSV. It has a header with a CRC of
+ * the rest, the end offsets of a table of distinct UTF-8 strings, the string
+ * index of every cell and the string bytes. Strings are decoded the first
+ * time they are asked for. With the property set empty there is no
+ * directory, and the rows are streamed from the CSV cleaning only the cells
+ * the handler asks for.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public final class WahapediaCsvSnapshot {
+
+	public static final String DIRECTORY_PROPERTY = "cardEditor.snapshots";
+
+	private static final int MAGIC = 0x57435356;
+	private static final int VERSION = 2;
+	private static final int HEADER_INTS = 6;
+
+	private static final String EXTENSION = ".snapshot";
+
+	private static final File DEFAULT_DIRECTORY = new File(System.getProperty("user.home"), ".cardEditor/snapshots");
+
+	private static volatile File defaultDirectory = getDirectoryProperty();
+
+	private final int columnCount;
+	private final int rowCount;
+	private final IntBuffer stringEnds;
+	private final IntBuffer cells;
+	private final ByteBuffer stringData;
+	private final String[] strings;
+
+	private WahapediaCsvSnapshot(ByteBuffer image) throws IOException {
+		if (image.remaining() < HEADER_INTS * 4 || image.getInt(0) != MAGIC || image.getInt(4) != VERSION) {
+			throw new IOException("Not a snapshot");
+		}
+		if (image.getInt(20) != computeCrc(image)) {
+			throw new IOException("Broken snapshot");
+		}
+		this.columnCount = image.getInt(8);
+		this.rowCount = image.getInt(12);
+		int stringCount = image.getInt(16);
+		long cellCount = (long) rowCount * columnCount;
+		long dataStart = 4L * (HEADER_INTS + stringCount + cellCount);
+		if (columnCount < 0 || rowCount < 0 || stringCount < 1 || dataStart > image.remaining()) {
+			throw new IOException("Broken snapshot");
+		}
+		IntBuffer ints = image.asIntBuffer();
+		ints.position(HEADER_INTS);
+		ints.limit(HEADER_INTS + stringCount);
+		this.stringEnds = ints.slice();
+		ints.limit(HEADER_INTS + stringCount + (int) cellCount);
+		ints.position(HEADER_INTS + stringCount);
+		this.cells = ints.slice();
+		ByteBuffer data = image.duplicate();
+		data.position((int) dataStart);
+		this.stringData = data.slice();
+		if (stringEnds.get(stringCount - 1) != stringData.remaining()) {
+			throw new IOException("Broken snapshot");
+		}
+		for (int i = 1; i < stringCount; i++) {
+			if (stringEnds.get(i) < stringEnds.get(i - 1)) {
+				throw new IOException("Broken snapshot");
+			}
+		}
+		for (int i = 0; i < cellCount; i++) {
+			int index = cells.get(i);
+			if (index < 0 || index >= stringCount) {
+				throw new IOException("Broken snapshot");
+			}
+		}
+		this.strings = new String[stringCount];
+	}
+
+	/**
+	 * Returns where snapshots are saved, or null when the source is always
+	 * streamed.
+	 */
+	public static File getDefaultDirectory() {
+		return defaultDirectory;
+	}
+
+	/**
+	 * Sets where snapshots are saved, or null to always stream the source.
+	 */
+	public static void setDefaultDirectory(File directory) {
+		defaultDirectory = directory;
+	}
+
+	/**
+	 * Passes the given columns of every row of the source to the handler,
+	 * from a snapshot when the default directory is set, or streaming the
+	 * source otherwise. Columns missing in the source are empty.
+	 */
+	public static void readCells(InputStream source, String[] columns, String[] htmlColumns,
+			IWahapediaCsvCellsHandler handler) throws IOException {
+		File directory = defaultDirectory;
+		if (directory == null) {
+			new WahapediaCsvReader(source).read(new RowCells(columns, htmlColumns, handler));
+		} else {
+			read(source, columns, htmlColumns, directory).forEachRow(handler);
+		}
+	}
+
+	/**
+	 * Reads the given columns of the source, from its saved snapshot when
+	 * there is one in the directory, or else parsing it and saving the
+	 * snapshot. A null directory only parses. The source is read whole to
+	 * name its snapshot. Columns missing in the source are empty.
+	 */
+	public static WahapediaCsvSnapshot read(InputStream source, String[] columns, String[] htmlColumns,
+			File directory) throws IOException {
+		if (directory == null) {
+			return new WahapediaCsvSnapshot(ByteBuffer.wrap(parse(source, columns, htmlColumns)));
+		}
+
+		byte[] content = readAll(source);
+		String columnsKey = createColumnsKey(columns, htmlColumns);
+		MessageDigest digest = createDigest();
+		digest.update(columnsKey.getBytes(StandardCharsets.UTF_8));
+		String name = columnsKey + "-" + toHex(digest.digest(content), 16) + EXTENSION;
+		File file = new File(directory, name);
+		if (file.isFile()) {
+			// Read instead of mapped, a mapping would lock the file until it is collected
+			try {
+				return new WahapediaCsvSnapshot(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+			} catch (IOException e) {
+				System.out.println("Replacing snapshot " + file + " (" + e.getLocalizedMessage() + ")");
+			}
+		}
+
+		byte[] image = parse(new ByteArrayInputStream(content), columns, htmlColumns);
+		save(image, directory, file, columnsKey);
+		return new WahapediaCsvSnapshot(ByteBuffer.wrap(image));
+	}
+
+	/**
+	 * Passes every row to the handler.
+	 */
+	public void forEachRow(IWahapediaCsvCellsHandler handler) throws IOException {
+		SnapshotCells snapshotCells = new SnapshotCells();
+		for (int row = 0; row < rowCount; row++) {
+			snapshotCells.row = row;
+			handler.handleCells(snapshotCells);
+		}
+	}
+
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	public int getColumnCount() {
+		return columnCount;
+	}
+
+	/**
+	 * Returns the cell of the row in the given column, an index of the
+	 * columns asked for when reading.
+	 */
+	public String getString(int row, int column) {
+		int index = cells.get(row * columnCount + column);
+		String s = strings[index];
+		if (s == null) {
+			int start = (index == 0) ? 0 : stringEnds.get(index - 1);
+			byte[] bytes = new byte[stringEnds.get(index) - start];
+			ByteBuffer data = stringData.duplicate();
+			data.position(start);
+			data.get(bytes);
+			s = new String(bytes, StandardCharsets.UTF_8);
+			strings[index] = s;
+		}
+		return s;
+	}
+
+	/**
+	 * Returns true when the cell is one of the values.
+	 */
+	public boolean matchesAny(int row, int column, Collection<String> values) {
+		return values.contains(getString(row, column));
+	}
+
+	public boolean isEmpty(int row, int column) {
+		// The empty string is always the first of the table
+		return cells.get(row * columnCount + column) == 0;
+	}
+
+	private static byte[] parse(InputStream source, String[] columns, String[] htmlColumns) throws IOException {
+		int columnCount = columns.length;
+		Set<String> htmlColumnSet = new HashSet<>();
+		for (String htmlColumn : htmlColumns) {
+			htmlColumnSet.add(htmlColumn);
+		}
+		int[] sourceColumns = new int[columnCount];
+		boolean[] html = new boolean[columnCount];
+		HashMap<String, Integer> stringIndexes = new HashMap<>();
+		ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+		IntArray stringEnds = new IntArray();
+		IntArray cells = new IntArray();
+		addString("", stringIndexes, stringBytes, stringEnds);
+
+		new WahapediaCsvReader(source).read(new IWahapediaCsvRowHandler() {
+
+			@Override
+			public void handleHeader(WahapediaCsvRow header) {
+				for (int i = 0; i < columnCount; i++) {
+					sourceColumns[i] = header.indexOf(columns[i]);
+					html[i] = htmlColumnSet.contains(columns[i]);
+				}
+			}
+
+			@Override
+			public void handleRow(WahapediaCsvRow row) {
+				for (int i = 0; i < columnCount; i++) {
+					String cell = row.getString(sourceColumns[i]);
+					if (html[i]) {
+						cell = WahapediaCsvBuilder.stripHtml(cell);
+					}
+					cells.add(addString(cell, stringIndexes, stringBytes, stringEnds));
+				}
+			}
+		});
+
+		int rowCount = (columnCount == 0) ? 0 : cells.size / columnCount;
+		ByteBuffer image = ByteBuffer.allocate(4 * (HEADER_INTS + stringEnds.size + cells.size) + stringBytes.size());
+		image.putInt(MAGIC).putInt(VERSION).putInt(columnCount).putInt(rowCount).putInt(stringEnds.size).putInt(0);
+		image.asIntBuffer().put(stringEnds.values, 0, stringEnds.size);
+		image.position(image.position() + 4 * stringEnds.size);
+		image.asIntBuffer().put(cells.values, 0, cells.size);
+		image.position(image.position() + 4 * cells.size);
+		image.put(stringBytes.toByteArray());
+		image.putInt(20, computeCrc(image));
+		return image.array();
+	}
+
+	private static int computeCrc(ByteBuffer image) {
+		CRC32 crc = new CRC32();
+		crc.update(image.array(), image.arrayOffset() + HEADER_INTS * 4, image.limit() - HEADER_INTS * 4);
+		return (int) crc.getValue();
+	}
+
+	private static int addString(String s, HashMap<String, Integer> stringIndexes, ByteArrayOutputStream stringBytes,
+			IntArray stringEnds) {
+		Integer index = stringIndexes.get(s);
+		if (index == null) {
+			index = stringEnds.size;
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			stringBytes.write(bytes, 0, bytes.length);
+			stringEnds.add(stringBytes.size());
+			stringIndexes.put(s, index);
+		}
+		return index;
+	}
+
+	private static void save(byte[] image, File directory, File file, String columnsKey) {
+		try {
+			Files.createDirectories(directory.toPath());
+			File temp = File.createTempFile("snapshot", ".tmp", directory);
+			try {
+				try (OutputStream os = new FileOutputStream(temp)) {
+					os.write(image);
+				}
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			} finally {
+				temp.delete();
+			}
+			// Only the snapshot of the last download of each file is kept
+			File[] files = directory.listFiles();
+			if (files != null) {
+				for (File old : files) {
+					String oldName = old.getName();
+					if (oldName.startsWith(columnsKey + "-") && oldName.endsWith(EXTENSION) && !old.equals(file)) {
+						old.delete();
+					}
+				}
+			}
+		} catch (IOException e) {
+			System.out.println("Could not save snapshot " + file + " (" + e.getLocalizedMessage() + ")");
+		}
+	}
+
+	private static byte[] readAll(InputStream source) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		byte[] buffer = new byte[64 * 1024];
+		int read;
+		while ((read = source.read(buffer)) >= 0) {
+			baos.write(buffer, 0, read);
+		}
+		return baos.toByteArray();
+	}
+
+	private static File getDirectoryProperty() {
+		String directory = System.getProperty(DIRECTORY_PROPERTY);
+		if (directory == null) {
+			return DEFAULT_DIRECTORY;
+		}
+		// Set empty to turn the snapshots off
+		return directory.isEmpty() ? null : new File(directory);
+	}
+
+	private static String createColumnsKey(String[] columns, String[] htmlColumns) {
+		MessageDigest digest = createDigest();
+		digest.update((byte) VERSION);
+		for (String column : columns) {
+			digest.update(column.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) '|');
+		}
+		for (String column : htmlColumns) {
+			digest.update((byte) '<');
+			digest.update(column.getBytes(StandardCharsets.UTF_8));
+		}
+		return toHex(digest.digest(), 8);
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes, int length) {
+		StringBuilder sb = new StringBuilder(length * 2);
+		for (int i = 0; i < length; i++) {
+			byte b = bytes[i];
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+	private final class SnapshotCells implements IWahapediaCsvCells {
+
+		private int row;
+
+		@Override
+		public String getString(int column) {
+			return WahapediaCsvSnapshot.this.getString(row, column);
+		}
+
+		@Override
+		public boolean isEmpty(int column) {
+			return WahapediaCsvSnapshot.this.isEmpty(row, column);
+		}
+
+		@Override
+		public boolean matchesAny(int column, Collection<String> values) {
+			return WahapediaCsvSnapshot.this.matchesAny(row, column, values);
+		}
+	}
+
+	/**
+	 * The cells of the rows as the reader streams them, the HTML columns
+	 * being cleaned only when asked for, so the rows the handler skips cost
+	 * no string.
+	 */
+	private static final class RowCells implements IWahapediaCsvCells, IWahapediaCsvRowHandler {
+
+		private final String[] columns;
+		private final Set<String> htmlColumns;
+		private final IWahapediaCsvCellsHandler handler;
+		private final int[] sourceColumns;
+		private final boolean[] html;
+		private WahapediaCsvRow row;
+
+		private RowCells(String[] columns, String[] htmlColumns, IWahapediaCsvCellsHandler handler) {
+			this.columns = columns;
+			this.htmlColumns = new HashSet<>();
+			for (String htmlColumn : htmlColumns) {
+				this.htmlColumns.add(htmlColumn);
+			}
+			this.handler = handler;
+			this.sourceColumns = new int[columns.length];
+			this.html = new boolean[columns.length];
+		}
+
+		@Override
+		public void handleHeader(WahapediaCsvRow header) {
+			for (int i = 0; i < columns.length; i++) {
+				sourceColumns[i] = header.indexOf(columns[i]);
+				html[i] = htmlColumns.contains(columns[i]);
+			}
+		}
+
+		@Override
+		public void handleRow(WahapediaCsvRow row) throws IOException {
+			this.row = row;
+			handler.handleCells(this);
+		}
+
+		@Override
+		public String getString(int column) {
+			String cell = row.getString(sourceColumns[column]);
+			return html[column] ? WahapediaCsvBuilder.stripHtml(cell) : cell;
+		}
+
+		@Override
+		public boolean isEmpty(int column) {
+			return html[column] ? getString(column).isEmpty() : row.isEmpty(sourceColumns[column]);
+		}
+
+		@Override
+		public boolean matchesAny(int column, Collection<String> values) {
+			return html[column] ? values.contains(getString(column)) : row.matchesAny(sourceColumns[column], values);
+		}
+	}
+
+	private static final class IntArray {
+
+		private int[] values = new int[1024];
+		private int size;
+
+		private void add(int value) {
+			if (size == values.length) {
+				int[] newValues = new int[size * 2];
+				System.arraycopy(values, 0, newValues, 0, size);
+				values = newValues;
+			}
+			values[size++] = value;
+		}
+	}
+
+}
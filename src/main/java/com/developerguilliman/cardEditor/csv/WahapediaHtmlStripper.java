@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.csv;
+
+import org.unbescape.html.HtmlEscape;
+
+/**
+ * Removes the HTML of the Wahapedia descriptions in one scan, giving the same
+ * text as trimming, replacing every {@code <li.*?>} with a bullet, removing
+ * every {@code <.*?>} left and unescaping the entities, one after another.
+ * <p>
+ * A tag ends at the first {@code >} of its line, like the {@code .} of those
+ * patterns, and a bullet ends a line, so the tags between two bullets never
+ * see past them. The usual entities are decoded in the same builder, anything
+ * else is left to {@link HtmlEscape#unescapeHtml(String)}.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+final class WahapediaHtmlStripper {
+
+	private static final String BULLET = "\n\n• ";
+
+	private static final String[] ENTITY_NAMES = { "amp", "lt", "gt", "quot", "apos", "nbsp", "ndash", "mdash",
+			"lsquo", "rsquo", "ldquo", "rdquo", "hellip", "bull", "times", "deg", "laquo", "raquo", "copy", "reg",
+			"trade", "middot", "frac12", "minus", "plusmn" };
+	private static final String ENTITY_CHARS = "&<>\"'\u00A0\u2013\u2014\u2018\u2019\u201C\u201D\u2026\u2022\u00D7"
+			+ "\u00B0\u00AB\u00BB\u00A9\u00AE\u2122\u00B7\u00BD\u2212\u00B1";
+
+	private static final ThreadLocal<StringBuilder> BUILDER = new ThreadLocal<StringBuilder>() {
+
+		@Override
+		protected StringBuilder initialValue() {
+			return new StringBuilder(1024);
+		}
+	};
+
+	private WahapediaHtmlStripper() {
+	}
+
+	static String strip(String str) {
+		int start = 0;
+		int end = str.length();
+		while (start < end && str.charAt(start) <= ' ') {
+			start++;
+		}
+		while (start < end && str.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		int first = start;
+		while (first < end && str.charAt(first) != '<' && str.charAt(first) != '&') {
+			first++;
+		}
+		if (first == end) {
+			return str.substring(start, end);
+		}
+
+		StringBuilder sb = BUILDER.get();
+		sb.setLength(0);
+		sb.append(str, start, first);
+		boolean entities = false;
+		// Every candidate before these positions is known to have no closing >
+		int noTagBefore = first;
+		int noItemBefore = first;
+		int pos = first;
+		while (true) {
+			int itemStart = -1;
+			int itemClose = -1;
+			for (int i = str.indexOf("<li", pos); i >= 0 && i < end; i = str.indexOf("<li", i + 1)) {
+				if (i < noItemBefore) {
+					continue;
+				}
+				int close = findClose(str, i + 3, end);
+				if (close >= 0) {
+					itemStart = i;
+					itemClose = close;
+					break;
+				}
+				noItemBefore = -close - 1;
+			}
+
+			int segmentEnd = (itemStart < 0) ? end : itemStart;
+			int runStart = pos;
+			for (int i = pos; i < segmentEnd; i++) {
+				char c = str.charAt(i);
+				if (c == '&') {
+					entities = true;
+				} else if (c == '<' && i >= noTagBefore) {
+					int close = findClose(str, i + 1, segmentEnd);
+					if (close >= 0) {
+						sb.append(str, runStart, i);
+						i = close;
+						runStart = close + 1;
+					} else {
+						noTagBefore = -close - 1;
+					}
+				}
+			}
+			sb.append(str, runStart, segmentEnd);
+
+			if (itemStart < 0) {
+				break;
+			}
+			sb.append(BULLET);
+			pos = itemClose + 1;
+		}
+
+		if (!entities) {
+			return sb.toString();
+		}
+		if (!decodeEntities(sb)) {
+			return HtmlEscape.unescapeHtml(sb.toString());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the position of the first {@code >} from the given one, or
+	 * minus one minus the position of the line end or limit found before.
+	 */
+	private static int findClose(String str, int from, int limit) {
+		for (int i = from; i < limit; i++) {
+			char c = str.charAt(i);
+			if (c == '>') {
+				return i;
+			}
+			if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+				return -i - 1;
+			}
+		}
+		return -limit - 1;
+	}
+
+	/**
+	 * Decodes the entities of the builder in place when all of them are known.
+	 *
+	 * @return false, without touching the builder, when one of them is not
+	 */
+	private static boolean decodeEntities(StringBuilder sb) {
+		int len = sb.length();
+		for (int i = 0; i < len; i++) {
+			if (sb.charAt(i) == '&' && entityLength(sb, i) == 0) {
+				return false;
+			}
+		}
+		int write = 0;
+		for (int read = 0; read < len; write++) {
+			char c = sb.charAt(read);
+			int length = (c == '&') ? entityLength(sb, read) : 1;
+			if (length > 1) {
+				c = entityChar(sb, read, length);
+			}
+			sb.setCharAt(write, c);
+			read += length;
+		}
+		sb.setLength(write);
+		return true;
+	}
+
+	/**
+	 * Returns the length of the entity at the given ampersand, one when it is
+	 * just an ampersand, or zero when it is not a known one.
+	 */
+	private static int entityLength(CharSequence s, int amp) {
+		int len = s.length();
+		int i = amp + 1;
+		if (i == len) {
+			return 1;
+		}
+		char c = s.charAt(i);
+		if (c == '#') {
+			return (numericEntityValue(s, amp) < 0) ? 0 : numericEntityEnd(s, amp) - amp;
+		}
+		if (!isAsciiLetter(c)) {
+			return 1;
+		}
+		for (String name : ENTITY_NAMES) {
+			int nameEnd = i + name.length();
+			if (nameEnd < len && s.charAt(nameEnd) == ';' && regionMatches(s, i, name)) {
+				return nameEnd + 1 - amp;
+			}
+		}
+		return 0;
+	}
+
+	private static char entityChar(CharSequence s, int amp, int length) {
+		if (s.charAt(amp + 1) == '#') {
+			return (char) numericEntityValue(s, amp);
+		}
+		for (int i = 0; i < ENTITY_NAMES.length; i++) {
+			if (ENTITY_NAMES[i].length() == length - 2 && regionMatches(s, amp + 1, ENTITY_NAMES[i])) {
+				return ENTITY_CHARS.charAt(i);
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	/**
+	 * Returns the value of a {@code &#...;} entity that decodes to a plain
+	 * character, or -1 for any other.
+	 */
+	private static int numericEntityValue(CharSequence s, int amp) {
+		int end = numericEntityEnd(s, amp);
+		if (end < 0) {
+			return -1;
+		}
+		int i = amp + 2;
+		int radix = 10;
+		if (s.charAt(i) == 'x' || s.charAt(i) == 'X') {
+			radix = 16;
+			i++;
+		}
+		int value = 0;
+		for (; i < end - 1; i++) {
+			value = value * radix + Character.digit(s.charAt(i), radix);
+		}
+		boolean plain = (value >= 0x20 && value < 0x7F) || (value >= 0xA0 && value < 0xD800)
+				|| (value >= 0xE000 && value < 0xFDD0) || (value > 0xFDEF && value < 0xFFFE);
+		return plain ? value : -1;
+	}
+
+	/**
+	 * Returns the position after the semicolon of a short {@code &#...;}
+	 * entity, or -1.
+	 */
+	private static int numericEntityEnd(CharSequence s, int amp) {
+		int len = s.length();
+		int i = amp + 2;
+		int radix = 10;
+		if (i < len && (s.charAt(i) == 'x' || s.charAt(i) == 'X')) {
+			radix = 16;
+			i++;
+		}
+		int digitsStart = i;
+		while (i < len && i - digitsStart < 6 && Character.digit(s.charAt(i), radix) >= 0
+				&& s.charAt(i) < 0x80) {
+			i++;
+		}
+		if (i == digitsStart || i == len || s.charAt(i) != ';') {
+			return -1;
+		}
+		return i + 1;
+	}
+
+	private static boolean isAsciiLetter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	private static boolean regionMatches(CharSequence s, int from, String name) {
+		int nameLength = name.length();
+		if (from + nameLength > s.length()) {
+			return false;
+		}
+		for (int i = 0; i < nameLength; i++) {
+			if (s.charAt(from + i) != name.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
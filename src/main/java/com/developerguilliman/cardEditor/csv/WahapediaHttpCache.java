@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.csv;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+
+import com.developerguilliman.cardEditor.Utils;
+import com.developerguilliman.cardEditor.metrics.Metric;
+import com.developerguilliman.cardEditor.metrics.Metrics;
+
+/**
+ * Local copy of the downloaded Wahapedia files. Every body is stored with the
+ * ETag and Last-Modified headers it came with, and the next download of the
+ * same URL is a conditional request that only transfers the body again when
+ * it changed. In offline mode, or when the download fails, the stored body is
+ * used as it is.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public class WahapediaHttpCache {
+
+	private static final String OFFLINE_PROPERTY = "cardEditor.offline";
+	private static final Metric DOWNLOAD_METRIC = Metrics.get().timer("wahapedia.download");
+
+	private static final String BODY_EXTENSION = ".body";
+	private static final String META_EXTENSION = ".meta";
+
+	private static final String URL_KEY = "url";
+	private static final String ETAG_KEY = "etag";
+	private static final String LAST_MODIFIED_KEY = "lastModified";
+
+	private static final WahapediaHttpCache DEFAULT = new WahapediaHttpCache(
+			new File(System.getProperty("user.home"), ".cardEditor/http-cache"));
+
+	private final File directory;
+
+	private volatile boolean offline;
+
+	public WahapediaHttpCache(File directory) {
+		this.directory = directory;
+		this.offline = Boolean.getBoolean(OFFLINE_PROPERTY);
+	}
+
+	public static WahapediaHttpCache getDefault() {
+		return DEFAULT;
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	public boolean isOffline() {
+		return offline;
+	}
+
+	public void setOffline(boolean offline) {
+		this.offline = offline;
+	}
+
+	/**
+	 * Opens the body of the URL, downloading it only when the stored copy is
+	 * missing or outdated.
+	 */
+	public InputStream open(String url) throws IOException {
+		long start = System.nanoTime();
+		try {
+			return fetch(url);
+		} finally {
+			DOWNLOAD_METRIC.record(start);
+		}
+	}
+
+	private InputStream fetch(String url) throws IOException {
+		String key = createKey(url);
+		File body = new File(directory, key + BODY_EXTENSION);
+		File meta = new File(directory, key + META_EXTENSION);
+		Properties validators = readValidators(url, body, meta);
+
+		if (offline) {
+			if (validators == null) {
+				throw new IOException("Not available offline: " + url);
+			}
+			System.out.println("Using cached URL: " + url);
+			return new FileInputStream(body);
+		}
+
+		System.out.println("Connecting to URL: " + url);
+		try {
+			HttpURLConnection huc = ((HttpURLConnection) new URL(url).openConnection());
+			huc.addRequestProperty("User-Agent", Utils.getApplicationName());
+			huc.addRequestProperty("Accept", "*/*");
+			huc.addRequestProperty("Accept-Encoding", "gzip");
+			if (validators != null) {
+				String etag = validators.getProperty(ETAG_KEY);
+				if (etag != null) {
+					huc.addRequestProperty("If-None-Match", etag);
+				}
+				String lastModified = validators.getProperty(LAST_MODIFIED_KEY);
+				if (lastModified != null) {
+					huc.addRequestProperty("If-Modified-Since", lastModified);
+				}
+			}
+
+			if (validators != null && huc.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+				huc.disconnect();
+				System.out.println("Not modified, using cached URL: " + url);
+				return new FileInputStream(body);
+			}
+
+			InputStream is = huc.getInputStream();
+			if ("gzip".equalsIgnoreCase(huc.getContentEncoding())) {
+				is = new GZIPInputStream(is);
+			}
+			store(is, url, body, meta, huc.getHeaderField("ETag"), huc.getHeaderField("Last-Modified"));
+			return new FileInputStream(body);
+		} catch (IOException e) {
+			if (validators == null) {
+				throw e;
+			}
+			System.out.println("Download failed, using cached URL: " + url + " (" + e.getLocalizedMessage() + ")");
+			return new FileInputStream(body);
+		}
+	}
+
+	private static Properties readValidators(String url, File body, File meta) {
+		if (!body.isFile() || !meta.isFile()) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream is = new FileInputStream(meta)) {
+			properties.load(is);
+		} catch (IOException e) {
+			return null;
+		}
+		return url.equals(properties.getProperty(URL_KEY)) ? properties : null;
+	}
+
+	private void store(InputStream is, String url, File body, File meta, String etag, String lastModified)
+			throws IOException {
+		Files.createDirectories(directory.toPath());
+		// Written aside and moved, so a failed download keeps the previous copy
+		File bodyTemp = File.createTempFile("body", ".tmp", directory);
+		File metaTemp = File.createTempFile("meta", ".tmp", directory);
+		try {
+			try (InputStream in = is; OutputStream os = new FileOutputStream(bodyTemp)) {
+				byte[] buffer = new byte[64 * 1024];
+				int read;
+				while ((read = in.read(buffer)) >= 0) {
+					os.write(buffer, 0, read);
+				}
+			}
+			Properties properties = new Properties();
+			properties.setProperty(URL_KEY, url);
+			if (etag != null) {
+				properties.setProperty(ETAG_KEY, etag);
+			}
+			if (lastModified != null) {
+				properties.setProperty(LAST_MODIFIED_KEY, lastModified);
+			}
+			try (OutputStream os = new FileOutputStream(metaTemp)) {
+				properties.store(os, null);
+			}
+			// The body is moved first, a body without its meta is just not used
+			meta.delete();
+			Files.move(bodyTemp.toPath(), body.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			Files.move(metaTemp.toPath(), meta.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			bodyTemp.delete();
+			metaTemp.delete();
+		}
+	}
+
+	private static String createKey(String url) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+			StringBuilder sb = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
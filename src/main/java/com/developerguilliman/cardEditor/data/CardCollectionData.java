@@ -16,9 +16,11 @@
  */
 package com.developerguilliman.cardEditor.data;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
@@ -39,6 +41,9 @@ public class CardCollectionData implements List<SectionData> {
 
     private final ArrayList<SectionData> sections;
 
+    // Position of every section when last indexed, dropped on every change
+    private IdentityHashMap<SectionData, Integer> indexes;
+
     public CardCollectionData() {
         this.sections = new ArrayList<>();
     }
@@ -51,8 +56,35 @@ public class CardCollectionData implements List<SectionData> {
         this.sections = new ArrayList<>(c);
     }
 
+    /**
+     * Returns the position of the section itself, not of an equal one. The
+     * positions are kept in an identity map built on the first lookup after
+     * a change, so any number of lookups between two changes take constant
+     * time. The iterators and sub lists drop the map only when they change
+     * the list, so reading the sections never forces a new one. The map is
+     * read once, so a change on another thread never leaves this lookup
+     * without one.
+     */
     public int getExactIndex(SectionData section) {
-        return Utils.getExactIndex(sections, section);
+        IdentityHashMap<SectionData, Integer> current = indexes;
+        Integer index = (current != null) ? current.get(section) : null;
+        if (index == null || index >= sections.size() || sections.get(index) != section) {
+            index = reindex().get(section);
+            if (index == null) {
+                return -1;
+            }
+        }
+        return index;
+    }
+
+    private IdentityHashMap<SectionData, Integer> reindex() {
+        IdentityHashMap<SectionData, Integer> newIndexes = new IdentityHashMap<>(sections.size());
+        // Backwards, so a section added twice keeps its first position
+        for (int i = sections.size() - 1; i >= 0; i--) {
+            newIndexes.put(sections.get(i), i);
+        }
+        indexes = newIndexes;
+        return newIndexes;
     }
 
     public int getBoundIndex(int position) {
@@ -105,72 +137,82 @@ public class CardCollectionData implements List<SectionData> {
 
     @Override
     public SectionData set(int index, SectionData element) {
+        indexes = null;
         return sections.set(index, element);
     }
 
     @Override
     public boolean add(SectionData e) {
+        indexes = null;
         return sections.add(e);
     }
 
     @Override
     public void add(int index, SectionData element) {
+        indexes = null;
         sections.add(index, element);
     }
 
     @Override
     public SectionData remove(int index) {
+        indexes = null;
         return sections.remove(index);
     }
 
     @Override
     public boolean remove(Object o) {
+        indexes = null;
         return sections.remove(o);
     }
 
     @Override
     public void clear() {
+        indexes = null;
         sections.clear();
     }
 
     @Override
     public boolean addAll(Collection<? extends SectionData> c) {
+        indexes = null;
         return sections.addAll(c);
     }
 
     @Override
     public boolean addAll(int index, Collection<? extends SectionData> c) {
+        indexes = null;
         return sections.addAll(index, c);
     }
 
     @Override
     public boolean removeAll(Collection<?> c) {
+        indexes = null;
         return sections.removeAll(c);
     }
 
     @Override
     public boolean retainAll(Collection<?> c) {
+        indexes = null;
         return sections.retainAll(c);
     }
 
     @Override
     public ListIterator<SectionData> listIterator(int index) {
-        return sections.listIterator(index);
+        return new SectionIterator(sections.listIterator(index));
     }
 
     @Override
     public ListIterator<SectionData> listIterator() {
-        return sections.listIterator();
+        return new SectionIterator(sections.listIterator());
     }
 
     @Override
     public Iterator<SectionData> iterator() {
-        return sections.iterator();
+        return new SectionIterator(sections.listIterator());
     }
 
     @Override
     public List<SectionData> subList(int fromIndex, int toIndex) {
-        return sections.subList(fromIndex, toIndex);
+        return new SectionSubList(sections.subList(fromIndex, toIndex));
     }
 
     @Override
@@ -185,16 +227,19 @@ public class CardCollectionData implements List<SectionData> {
 
     @Override
     public boolean removeIf(Predicate<? super SectionData> filter) {
+        indexes = null;
         return sections.removeIf(filter);
     }
 
     @Override
     public void replaceAll(UnaryOperator<SectionData> operator) {
+        indexes = null;
         sections.replaceAll(operator);
     }
 
     @Override
     public void sort(Comparator<? super SectionData> c) {
+        indexes = null;
         sections.sort(c);
     }
 
@@ -248,4 +293,107 @@ public class CardCollectionData implements List<SectionData> {
     	return i;
     }
 
+    private final class SectionIterator implements ListIterator<SectionData> {
+
+        private final ListIterator<SectionData> iterator;
+
+        private SectionIterator(ListIterator<SectionData> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public SectionData next() {
+            return iterator.next();
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return iterator.hasPrevious();
+        }
+
+        @Override
+        public SectionData previous() {
+            return iterator.previous();
+        }
+
+        @Override
+        public int nextIndex() {
+            return iterator.nextIndex();
+        }
+
+        @Override
+        public int previousIndex() {
+            return iterator.previousIndex();
+        }
+
+        @Override
+        public void remove() {
+            indexes = null;
+            iterator.remove();
+        }
+
+        @Override
+        public void set(SectionData e) {
+            indexes = null;
+            iterator.set(e);
+        }
+
+        @Override
+        public void add(SectionData e) {
+            indexes = null;
+            iterator.add(e);
+        }
+    }
+
+    private final class SectionSubList extends AbstractList<SectionData> {
+
+        private final List<SectionData> view;
+
+        private SectionSubList(List<SectionData> view) {
+            this.view = view;
+        }
+
+        @Override
+        public SectionData get(int index) {
+            return view.get(index);
+        }
+
+        @Override
+        public int size() {
+            return view.size();
+        }
+
+        @Override
+        public SectionData set(int index, SectionData element) {
+            indexes = null;
+            return view.set(index, element);
+        }
+
+        @Override
+        public void add(int index, SectionData element) {
+            indexes = null;
+            modCount++;
+            view.add(index, element);
+        }
+
+        @Override
+        public SectionData remove(int index) {
+            indexes = null;
+            modCount++;
+            return view.remove(index);
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            indexes = null;
+            modCount++;
+            view.subList(fromIndex, toIndex).clear();
+        }
+    }
+
 }
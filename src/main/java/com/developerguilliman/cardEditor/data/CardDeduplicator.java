@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * Index of the distinct cards seen so far, two cards being the same when
+ * their six texts are equal. Cards are found by a fingerprint mixed from the
+ * length and the {@link String#hashCode()} of every text, so adding a card
+ * takes constant time once its strings know their hashes. Those hashes are
+ * only 32 bits and easy to collide, "Aa" and "BB" hash the same, so a
+ * fingerprint match is always confirmed comparing the texts and different
+ * cards with the same fingerprint are kept side by side.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public class CardDeduplicator {
+
+    private final HashMap<Fingerprint, CardData[]> index;
+    private final ArrayList<CardData> cards;
+
+    public CardDeduplicator() {
+        this(16);
+    }
+
+    public CardDeduplicator(int expectedCards) {
+        this.index = new HashMap<>(Math.max(16, (int) (expectedCards / 0.75f) + 1));
+        this.cards = new ArrayList<>(expectedCards);
+    }
+
+    /**
+     * Adds the card when no equal card was added before.
+     *
+     * @return the first added card equal to this one, the card itself when
+     * it is new
+     */
+    public CardData add(CardData card) {
+        Fingerprint fingerprint = new Fingerprint(card);
+        CardData[] sameFingerprint = index.get(fingerprint);
+        if (sameFingerprint == null) {
+            index.put(fingerprint, new CardData[]{card});
+            cards.add(card);
+            return card;
+        }
+        for (CardData seen : sameFingerprint) {
+            if (sameTexts(seen, card)) {
+                return seen;
+            }
+        }
+        // Different texts with the same fingerprint, kept side by side
+        CardData[] grown = new CardData[sameFingerprint.length + 1];
+        System.arraycopy(sameFingerprint, 0, grown, 0, sameFingerprint.length);
+        grown[sameFingerprint.length] = card;
+        index.put(fingerprint, grown);
+        cards.add(card);
+        return card;
+    }
+
+    public void addAll(Collection<? extends CardData> c) {
+        for (CardData card : c) {
+            add(card);
+        }
+    }
+
+    /**
+     * Returns the distinct cards in the order they were first added.
+     */
+    public ArrayList<CardData> getCards() {
+        return cards;
+    }
+
+    public int size() {
+        return cards.size();
+    }
+
+    private static boolean sameTexts(CardData a, CardData b) {
+        return Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getLegend(), b.getLegend())
+                && Objects.equals(a.getRules(), b.getRules())
+                && Objects.equals(a.getCostValue(), b.getCostValue())
+                && Objects.equals(a.getCostType(), b.getCostType());
+    }
+
+    private static final class Fingerprint {
+
+        private final long high;
+        private final long low;
+
+        private Fingerprint(CardData card) {
+            long h = 0xCBF29CE484222325L;
+            long l = 0x9E3779B97F4A7C15L;
+            String[] texts = {card.getTitle(), card.getName(), card.getLegend(), card.getRules(),
+                card.getCostValue(), card.getCostType()};
+            for (String text : texts) {
+                // The hash each string caches, no stronger than its 32 bits however well mixed
+                long value = (text == null) ? -1L : ((long) text.length() << 32) | (text.hashCode() & 0xFFFFFFFFL);
+                h = mix(h ^ value);
+                l = Long.rotateLeft(l, 29) * 0xC2B2AE3D27D4EB4FL + value;
+            }
+            this.high = h;
+            this.low = mix(l);
+        }
+
+        private static long mix(long k) {
+            k ^= k >>> 33;
+            k *= 0xFF51AFD7ED558CCDL;
+            k ^= k >>> 33;
+            k *= 0xC4CEB9FE1A85EC53L;
+            k ^= k >>> 33;
+            return k;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) low;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) obj;
+            return high == other.high && low == other.low;
+        }
+    }
+
+}
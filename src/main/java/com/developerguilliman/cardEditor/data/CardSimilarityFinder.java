@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Finds the cards whose legend and rules are almost the same text, ignoring
+ * case, spacing and punctuation. Each text is cut in overlapping runs of
+ * {@value #SHINGLE_WORDS} words, and two cards are similar when the Jaccard
+ * index of their runs reaches the threshold.
+ * <p>
+ * Pairs are not all compared: every card gets a MinHash signature, and only
+ * the cards that share one band of it in the LSH buckets are compared. Each
+ * bucket keeps only the last card of every group in it, so a card is compared
+ * once per group and not once per card, and many copies of the same text
+ * leave a single card in their buckets. The similar pairs are joined in
+ * groups, so a card can be in a group through another card like it.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public class CardSimilarityFinder {
+
+    public static final double DEFAULT_THRESHOLD = 0.8;
+
+    private static final int SHINGLE_WORDS = 3;
+    private static final int BANDS = 32;
+    private static final int ROWS = 4;
+    private static final int SIGNATURE_LENGTH = BANDS * ROWS;
+
+    private static final long[] MULTIPLIERS = new long[SIGNATURE_LENGTH];
+    private static final long[] ADDENDS = new long[SIGNATURE_LENGTH];
+
+    static {
+        Random random = new Random(0x5EED);
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1;
+            ADDENDS[i] = random.nextLong();
+        }
+    }
+
+    private final double threshold;
+
+    public CardSimilarityFinder() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    public CardSimilarityFinder(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns the groups of similar cards, each in the order of the given
+     * cards and ordered by their first card. Cards without legend nor rules
+     * are never in a group.
+     */
+    public List<List<CardData>> find(Collection<CardData> cards) {
+        CardData[] array = cards.toArray(new CardData[0]);
+        int count = array.length;
+        long[][] shingles = new long[count][];
+        long[][] signatures = new long[count][];
+        for (int i = 0; i < count; i++) {
+            shingles[i] = createShingles(array[i]);
+            signatures[i] = (shingles[i].length == 0) ? null : createSignature(shingles[i]);
+        }
+
+        int[] parents = new int[count];
+        for (int i = 0; i < count; i++) {
+            parents[i] = i;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            HashMap<Long, int[]> buckets = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                if (signatures[i] == null) {
+                    continue;
+                }
+                Long key = bandKey(signatures[i], band);
+                int[] bucket = buckets.get(key);
+                if (bucket == null) {
+                    buckets.put(key, new int[]{1, i});
+                    continue;
+                }
+                for (int k = 1; k <= bucket[0]; k++) {
+                    compare(bucket[k], i, shingles, parents);
+                }
+                // The card takes the place of the ones of its group, now or after joining
+                int root = findRoot(parents, i);
+                int kept = 0;
+                for (int k = 1; k <= bucket[0]; k++) {
+                    if (findRoot(parents, bucket[k]) != root) {
+                        bucket[++kept] = bucket[k];
+                    }
+                }
+                bucket[0] = kept;
+                if (bucket[0] + 1 == bucket.length) {
+                    bucket = Arrays.copyOf(bucket, bucket.length * 2);
+                    buckets.put(key, bucket);
+                }
+                bucket[++bucket[0]] = i;
+            }
+        }
+
+        HashMap<Integer, List<CardData>> groupsByRoot = new HashMap<>();
+        List<List<CardData>> groups = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int root = findRoot(parents, i);
+            List<CardData> group = groupsByRoot.get(root);
+            if (group == null) {
+                group = new ArrayList<>();
+                groupsByRoot.put(root, group);
+                groups.add(group);
+            }
+            group.add(array[i]);
+        }
+        groups.removeIf((group) -> group.size() < 2);
+        return groups;
+    }
+
+    /**
+     * Joins the groups of both cards when they are similar. Cards already in
+     * the same group are not compared, and a pair found different in one band
+     * may be compared again in another, which costs less than remembering
+     * every pair of a big bucket.
+     */
+    private void compare(int a, int b, long[][] shingles, int[] parents) {
+        int rootA = findRoot(parents, a);
+        int rootB = findRoot(parents, b);
+        if (rootA != rootB && jaccard(shingles[a], shingles[b]) >= threshold) {
+            // The first card stays as the root, the groups keep the card order
+            parents[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    private static int findRoot(int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    private static Long bandKey(long[] signature, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = mix(key * 31 + signature[row]);
+        }
+        return key;
+    }
+
+    /**
+     * Returns the sorted distinct hashes of the runs of words of the legend
+     * and rules.
+     */
+    static long[] createShingles(CardData card) {
+        long[] words = hashWords(card.getLegend(), hashWords(card.getRules(), new long[0]));
+        int wordCount = words.length;
+        if (wordCount == 0) {
+            return words;
+        }
+        int shingleCount = Math.max(1, wordCount - SHINGLE_WORDS + 1);
+        long[] shingles = new long[shingleCount];
+        for (int i = 0; i < shingleCount; i++) {
+            long h = 0;
+            for (int j = i; j < Math.min(wordCount, i + SHINGLE_WORDS); j++) {
+                h = h * 0x100000001B3L + words[j];
+            }
+            shingles[i] = mix(h);
+        }
+        Arrays.sort(shingles);
+        int distinct = 0;
+        for (int i = 0; i < shingleCount; i++) {
+            if (i == 0 || shingles[i] != shingles[i - 1]) {
+                shingles[distinct++] = shingles[i];
+            }
+        }
+        return (distinct == shingleCount) ? shingles : Arrays.copyOf(shingles, distinct);
+    }
+
+    /**
+     * Appends to the hashes the hash of every word of the text, a word being
+     * a run of letters or digits compared ignoring case.
+     */
+    private static long[] hashWords(String text, long[] hashes) {
+        if (text == null) {
+            return hashes;
+        }
+        long[] words = new long[16];
+        int count = 0;
+        int len = text.length();
+        int i = 0;
+        while (i < len) {
+            while (i < len && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == len) {
+                break;
+            }
+            long h = 0xCBF29CE484222325L;
+            while (i < len && Character.isLetterOrDigit(text.charAt(i))) {
+                h = (h ^ Character.toLowerCase(text.charAt(i))) * 0x100000001B3L;
+                i++;
+            }
+            if (count == words.length) {
+                words = Arrays.copyOf(words, count * 2);
+            }
+            words[count++] = h;
+        }
+        long[] all = Arrays.copyOf(hashes, hashes.length + count);
+        System.arraycopy(words, 0, all, hashes.length, count);
+        return all;
+    }
+
+    private static long[] createSignature(long[] shingles) {
+        long[] signature = new long[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                long h = shingle * MULTIPLIERS[i] + ADDENDS[i];
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static double jaccard(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+}
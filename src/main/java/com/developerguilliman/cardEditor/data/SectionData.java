@@ -30,6 +30,8 @@ import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 import com.developerguilliman.cardEditor.Utils;
+import com.developerguilliman.cardEditor.metrics.Metric;
+import com.developerguilliman.cardEditor.metrics.Metrics;
 
 /**
  *
@@ -37,8 +39,11 @@ import com.developerguilliman.cardEditor.Utils;
  */
 public class SectionData implements List<CardData> {
 
+    private static final Metric NAMING_METRIC = Metrics.get().timer("section.naming");
+
     private final ArrayList<CardData> cards;
     private String name;
+    private boolean nameOutdated;
 
     public SectionData() {
         this.cards = new ArrayList<>();
@@ -53,11 +58,17 @@ public class SectionData implements List<CardData> {
 
     public SectionData(Collection<? extends CardData> c) {
         this.cards = new ArrayList<>(c);
-        this.name = getCommonCardsName();
+        this.name = "";
+        this.nameOutdated = true;
     }
 
+    /**
+     * Marks the name to be computed again from the card titles. The common
+     * words are only searched on the next {@link #getName()}, so adding or
+     * editing many cards in a row computes the name once.
+     */
     public void updateName() {
-        name = getCommonCardsName();
+        nameOutdated = true;
     }
 
     public int getExactIndex(CardData card) {
@@ -73,19 +84,63 @@ public class SectionData implements List<CardData> {
     }
 
     public String getName() {
+        if (nameOutdated) {
+            name = getCommonCardsName();
+            nameOutdated = false;
+        }
         return name;
     }
 
     private String getCommonCardsName() {
-        if (cards.isEmpty()) {
+        return computeName(getTitles());
+    }
+
+    /**
+     * Returns the titles of the cards, so the name can be computed in another
+     * thread with {@link #computeName(String[])} while the cards change.
+     */
+    public String[] getTitles() {
+        String[] titles = new String[cards.size()];
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = cards.get(i).getTitle();
+        }
+        return titles;
+    }
+
+    public static String computeName(String[] titles) {
+        if (titles.length == 0) {
             return "";
         }
 
-        ArrayList<String> list = new ArrayList<>(cards.size());
-        for (CardData card : cards) {
-            list.add(Utils.normalizeTrim(card.getTitle()));
+        long start = System.nanoTime();
+        ArrayList<String> list = new ArrayList<>(titles.length);
+        for (String title : titles) {
+            list.add(Utils.normalizeTrim(title));
+        }
+        String name = Utils.longestCommonWords(list);
+        NAMING_METRIC.record(start);
+        return name;
+    }
+
+    /**
+     * Sets the name computed from the titles, unless a card or a title
+     * changed since they were taken.
+     *
+     * @return if the name was set
+     */
+    public boolean setName(String[] titles, String name) {
+        if (titles.length != cards.size()) {
+            return false;
+        }
+        for (int i = 0; i < titles.length; i++) {
+            // The same title objects, any edit creates a new string
+            if (titles[i] != cards.get(i).getTitle()) {
+                return false;
+            }
         }
-        return Utils.longestCommonWords(list);
+        this.name = name;
+        this.nameOutdated = false;
+        return true;
     }
 
     @Override
@@ -170,6 +225,7 @@ public class SectionData implements List<CardData> {
     public void clear() {
         cards.clear();
         name = "";
+        nameOutdated = false;
     }
 
     @Override
@@ -19,7 +19,6 @@ package com.developerguilliman.cardEditor.gui;
 import java.awt.Component;
 
 import javax.swing.JTree;
-import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeCellRenderer;
 
 import com.developerguilliman.cardEditor.data.CardCollectionData;
@@ -45,12 +44,10 @@ public class CardTreeCellRenderer extends DefaultTreeCellRenderer {
 
     @Override
     public Component getTreeCellRendererComponent(JTree tree, Object value, boolean selected, boolean expanded, boolean leaf, int row, boolean hasFocus) {
-        DefaultMutableTreeNode node = (DefaultMutableTreeNode) value;
-        Object o = node.getUserObject();
-        if (o instanceof CardData) {
-            value = ((CardData) o).getName();
-        } else if (o instanceof SectionData) {
-            SectionData section = (SectionData) o;
+        SectionData section = CardTreeModel.getSection(value);
+        if (value instanceof CardData) {
+            value = ((CardData) value).getName();
+        } else if (section != null) {
             int index = cards.getExactIndex(section) + 1;
             String sectionName = section.getName();
             if (sectionName.isEmpty()) {
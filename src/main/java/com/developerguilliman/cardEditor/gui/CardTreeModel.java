@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.gui;
+
+import java.util.IdentityHashMap;
+import java.util.regex.Pattern;
+
+import javax.swing.event.EventListenerList;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+
+import com.developerguilliman.cardEditor.data.CardCollectionData;
+import com.developerguilliman.cardEditor.data.CardData;
+import com.developerguilliman.cardEditor.data.SectionData;
+
+/**
+ * Tree model reading the sections and cards straight from the collection, so
+ * an edit only has to tell which nodes it inserted, removed or changed.
+ * <p>
+ * The cards are the nodes themselves. The sections are wrapped in a node
+ * compared by identity, because a section equals any other section with the
+ * same cards and hashes all of them. Every change must be told from the
+ * event dispatch thread, after the collection was changed.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public class CardTreeModel implements TreeModel {
+
+    private final CardCollectionData cards;
+    private final Object root;
+    private final IdentityHashMap<SectionData, SectionNode> sectionNodes;
+    private final EventListenerList listeners;
+
+    public CardTreeModel(CardCollectionData cards) {
+        this.cards = cards;
+        this.root = new Object() {
+            @Override
+            public String toString() {
+                return "Cards";
+            }
+        };
+        this.sectionNodes = new IdentityHashMap<>();
+        this.listeners = new EventListenerList();
+    }
+
+    @Override
+    public Object getRoot() {
+        return root;
+    }
+
+    @Override
+    public Object getChild(Object parent, int index) {
+        if (parent == root) {
+            return getSectionNode(cards.get(index));
+        }
+        return ((SectionNode) parent).section.get(index);
+    }
+
+    @Override
+    public int getChildCount(Object parent) {
+        if (parent == root) {
+            return cards.size();
+        }
+        if (parent instanceof SectionNode) {
+            return ((SectionNode) parent).section.size();
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean isLeaf(Object node) {
+        return node instanceof CardData;
+    }
+
+    @Override
+    public int getIndexOfChild(Object parent, Object child) {
+        if (parent == root && child instanceof SectionNode) {
+            return cards.getExactIndex(((SectionNode) child).section);
+        }
+        if (parent instanceof SectionNode && child instanceof CardData) {
+            return ((SectionNode) parent).section.getExactIndex((CardData) child);
+        }
+        return -1;
+    }
+
+    /**
+     * Renames the edited card, or replaces the name of the edited section in
+     * the title of its cards.
+     */
+    @Override
+    public void valueForPathChanged(TreePath path, Object newValue) {
+        Object node = path.getLastPathComponent();
+        if (node instanceof CardData) {
+            ((CardData) node).setName(newValue.toString());
+            cardChanged(getSection(path.getParentPath().getLastPathComponent()), (CardData) node);
+        } else if (node instanceof SectionNode) {
+            SectionData section = ((SectionNode) node).section;
+            String oldTitle = section.getName();
+            String newTitle = newValue.toString();
+
+            Pattern oldTitlePattern = Pattern.compile(oldTitle, Pattern.LITERAL);
+            newTitle = oldTitle.isEmpty() ? newTitle.concat(" ") : newTitle;
+            for (CardData card : section) {
+                card.setTitle(oldTitlePattern.matcher(card.getTitle()).replaceFirst(newTitle));
+            }
+            section.updateName();
+            sectionChanged(section);
+        }
+    }
+
+    @Override
+    public void addTreeModelListener(TreeModelListener l) {
+        listeners.add(TreeModelListener.class, l);
+    }
+
+    @Override
+    public void removeTreeModelListener(TreeModelListener l) {
+        listeners.remove(TreeModelListener.class, l);
+    }
+
+    /**
+     * Returns the section of a section node, null for any other node.
+     */
+    public static SectionData getSection(Object node) {
+        return (node instanceof SectionNode) ? ((SectionNode) node).section : null;
+    }
+
+    public TreePath getSectionPath(SectionData section) {
+        return new TreePath(new Object[]{root, getSectionNode(section)});
+    }
+
+    public TreePath getCardPath(SectionData section, CardData card) {
+        return new TreePath(new Object[]{root, getSectionNode(section), card});
+    }
+
+    /**
+     * Tells the section at that index was added. The following sections are
+     * changed too, their label shows their position.
+     */
+    public void sectionInserted(int index) {
+        fireInserted(new TreePath(root), index, getChild(root, index));
+        sectionsChangedFrom(index + 1);
+    }
+
+    public void sectionRemoved(int index, SectionData section) {
+        SectionNode node = sectionNodes.remove(section);
+        fireRemoved(new TreePath(root), index, (node != null) ? node : new SectionNode(section));
+        sectionsChangedFrom(index);
+    }
+
+    public void sectionChanged(SectionData section) {
+        int index = cards.getExactIndex(section);
+        if (index >= 0) {
+            fireChanged(new TreePath(root), index, getSectionNode(section));
+        }
+    }
+
+    /**
+     * Tells the cards of the section were replaced or reordered.
+     */
+    public void sectionStructureChanged(SectionData section) {
+        fireStructureChanged(getSectionPath(section));
+        sectionChanged(section);
+    }
+
+    /**
+     * Tells the card at that index of the section was added. The section is
+     * changed too, its label shows the number of cards and its name comes
+     * from their titles.
+     */
+    public void cardInserted(SectionData section, int index) {
+        fireInserted(getSectionPath(section), index, section.get(index));
+        sectionChanged(section);
+    }
+
+    public void cardRemoved(SectionData section, int index, CardData card) {
+        fireRemoved(getSectionPath(section), index, card);
+        sectionChanged(section);
+    }
+
+    /**
+     * Tells the name of the card changed.
+     */
+    public void cardChanged(SectionData section, CardData card) {
+        int index = section.getExactIndex(card);
+        if (index >= 0) {
+            fireChanged(getSectionPath(section), index, card);
+        }
+    }
+
+    /**
+     * Tells any section could have been added, removed or changed.
+     */
+    public void structureChanged() {
+        // The nodes of the sections still there are kept, and so the paths to them
+        IdentityHashMap<SectionData, SectionNode> kept = new IdentityHashMap<>();
+        for (SectionData section : cards) {
+            SectionNode node = sectionNodes.get(section);
+            if (node != null) {
+                kept.put(section, node);
+            }
+        }
+        sectionNodes.clear();
+        sectionNodes.putAll(kept);
+        fireStructureChanged(new TreePath(root));
+    }
+
+    private void sectionsChangedFrom(int index) {
+        int count = cards.size() - index;
+        if (count <= 0) {
+            return;
+        }
+        int[] indices = new int[count];
+        Object[] children = new Object[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = index + i;
+            children[i] = getChild(root, index + i);
+        }
+        TreeModelEvent event = new TreeModelEvent(this, new TreePath(root), indices, children);
+        for (TreeModelListener l : listeners.getListeners(TreeModelListener.class)) {
+            l.treeNodesChanged(event);
+        }
+    }
+
+    private SectionNode getSectionNode(SectionData section) {
+        SectionNode node = sectionNodes.get(section);
+        if (node == null) {
+            node = new SectionNode(section);
+            sectionNodes.put(section, node);
+        }
+        return node;
+    }
+
+    private void fireInserted(TreePath parent, int index, Object child) {
+        TreeModelEvent event = new TreeModelEvent(this, parent, new int[]{index}, new Object[]{child});
+        for (TreeModelListener l : listeners.getListeners(TreeModelListener.class)) {
+            l.treeNodesInserted(event);
+        }
+    }
+
+    private void fireRemoved(TreePath parent, int index, Object child) {
+        TreeModelEvent event = new TreeModelEvent(this, parent, new int[]{index}, new Object[]{child});
+        for (TreeModelListener l : listeners.getListeners(TreeModelListener.class)) {
+            l.treeNodesRemoved(event);
+        }
+    }
+
+    private void fireChanged(TreePath parent, int index, Object child) {
+        TreeModelEvent event = new TreeModelEvent(this, parent, new int[]{index}, new Object[]{child});
+        for (TreeModelListener l : listeners.getListeners(TreeModelListener.class)) {
+            l.treeNodesChanged(event);
+        }
+    }
+
+    private void fireStructureChanged(TreePath path) {
+        TreeModelEvent event = new TreeModelEvent(this, path);
+        for (TreeModelListener l : listeners.getListeners(TreeModelListener.class)) {
+            l.treeStructureChanged(event);
+        }
+    }
+
+    /**
+     * Node of a section, equal only to itself.
+     */
+    private static final class SectionNode {
+
+        private final SectionData section;
+
+        private SectionNode(SectionData section) {
+            this.section = section;
+        }
+
+        @Override
+        public String toString() {
+            return section.getName();
+        }
+    }
+
+}
@@ -20,43 +20,51 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Desktop;
 import java.awt.Image;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.regex.Pattern;
+import java.util.function.BiConsumer;
 
 import javax.imageio.ImageIO;
 import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
 import javax.swing.JTree;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.event.CellEditorListener;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
-import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.text.JTextComponent;
 import javax.swing.tree.DefaultTreeCellEditor;
-import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.DefaultTreeSelectionModel;
-import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 
 import com.developerguilliman.cardEditor.data.CardCollectionData;
 import com.developerguilliman.cardEditor.data.CardData;
+import com.developerguilliman.cardEditor.data.CardSimilarityFinder;
 import com.developerguilliman.cardEditor.data.SectionData;
 import com.developerguilliman.cardEditor.input.ICardInput;
 import com.developerguilliman.cardEditor.input.XmlCardInput;
 import com.developerguilliman.cardEditor.output.PdfOutput;
 import com.developerguilliman.cardEditor.output.XmlCardOutput;
+import com.developerguilliman.cardEditor.progress.ProgressInputStream;
+import com.developerguilliman.cardEditor.progress.TaskExecutor;
 import com.developerguilliman.cardEditor.warning.WarningArrayList;
 
 /**
@@ -71,16 +79,15 @@ public class MainWindow extends javax.swing.JFrame {
 	private static final long serialVersionUID = -1566754681388477161L;
 	
 	private final CardCollectionData cards;
-    private final DefaultMutableTreeNode root;
+    private final CardTreeModel treeModel;
+    private final EditPipeline editPipeline;
 
     private SectionData actualSection;
     private CardData actualCard;
     private PdfOutput.Builder pdfSettings;
 
-    private DefaultMutableTreeNode actualSectionNode;
-    private DefaultMutableTreeNode actualCardNode;
-
     private File actualFile;
+    private boolean fillingFields;
 
     /**
      * Creates new form Main
@@ -89,163 +96,24 @@ public class MainWindow extends javax.swing.JFrame {
         cards = new CardCollectionData();
         initComponents();
 
-        root = new DefaultMutableTreeNode("Cards", true);
-        cardTree.setModel(new DefaultTreeModel(root, true));
+        treeModel = new CardTreeModel(cards);
+        cardTree.setModel(treeModel);
         cardTree.setTransferHandler(new TreeTransferHandler(cardTree));
         cardTree.getSelectionModel().setSelectionMode(DefaultTreeSelectionModel.SINGLE_TREE_SELECTION);
-        titleTextField.getDocument().addDocumentListener(new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent index) {
-                update();
-            }
-
-            @Override
-            public void removeUpdate(DocumentEvent index) {
-                update();
-            }
-
-            @Override
-            public void changedUpdate(DocumentEvent index) {
-                update();
-            }
-
-            private void update() {
-                if (actualCard == null) {
-                    return;
-                }
-                actualCard.setTitle(titleTextField.getText());
-                actualSection.updateName();
-                cardTree.updateUI();
-            }
-        });
-
-        nameTextField.getDocument().addDocumentListener(new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent index) {
-                update();
-            }
-
-            @Override
-            public void removeUpdate(DocumentEvent index) {
-                update();
-            }
-
-            @Override
-            public void changedUpdate(DocumentEvent index) {
-                update();
-            }
-
-            private void update() {
-                if (actualCard == null) {
-                    return;
-                }
-                actualCard.setName(nameTextField.getText());
-                cardTree.updateUI();
-            }
-        });
-
-        legendTextArea.getDocument().addDocumentListener(new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent index) {
-                update();
-            }
-
-            @Override
-            public void removeUpdate(DocumentEvent index) {
-                update();
-            }
-
-            @Override
-            public void changedUpdate(DocumentEvent index) {
-                update();
-            }
-
-            private void update() {
-                if (actualCard == null) {
-                    return;
-                }
-                actualCard.setLegend(legendTextArea.getText());
-            }
-        });
-
-        rulesTextArea.getDocument().addDocumentListener(new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent index) {
-                update();
-            }
-
-            @Override
-            public void removeUpdate(DocumentEvent index) {
-                update();
-            }
-
-            @Override
-            public void changedUpdate(DocumentEvent index) {
-                update();
-            }
-
-            private void update() {
-                if (actualCard == null) {
-                    return;
-                }
-                actualCard.setRules(rulesTextArea.getText());
-            }
-        });
-
-        costValueTextField.getDocument().addDocumentListener(new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent index) {
-                update();
-            }
-
-            @Override
-            public void removeUpdate(DocumentEvent index) {
-                update();
-            }
-
-            @Override
-            public void changedUpdate(DocumentEvent index) {
-                update();
-            }
-
-            private void update() {
-                if (actualCard == null) {
-                    return;
-                }
-                actualCard.setCostValue(costValueTextField.getText());
-            }
-        });
-
-        costTypeTextField.getDocument().addDocumentListener(new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent index) {
-                update();
-            }
-
-            @Override
-            public void removeUpdate(DocumentEvent index) {
-                update();
-            }
-
-            @Override
-            public void changedUpdate(DocumentEvent index) {
-                update();
-            }
-
-            private void update() {
-                if (actualCard == null) {
-                    return;
-                }
-                actualCard.setCostType(costTypeTextField.getText());
-            }
-        });
+        editPipeline = new EditPipeline();
+        listenCardField(titleTextField, CardData::setTitle, editPipeline::titleEdited);
+        listenCardField(nameTextField, CardData::setName, editPipeline::nameEdited);
+        listenCardField(legendTextArea, CardData::setLegend, null);
+        listenCardField(rulesTextArea, CardData::setRules, null);
+        listenCardField(costValueTextField, CardData::setCostValue, null);
+        listenCardField(costTypeTextField, CardData::setCostType, null);
         CardTreeCellRenderer cellRenderer = new CardTreeCellRenderer(cards);
         cardTree.setCellRenderer(cellRenderer);
         CardTreeCellEditor treeCellEditor = new CardTreeCellEditor(cardTree, cellRenderer);
         treeCellEditor.addCellEditorListener(new CellEditorListener() {
             @Override
             public void editingStopped(ChangeEvent e) {
-                forceUpdateUI();
+                updateButtonsFieldsLater();
             }
 
             @Override
@@ -317,6 +185,7 @@ public class MainWindow extends javax.swing.JFrame {
         reorderTitleSectionMenuItem = new javax.swing.JMenuItem();
         reorderNameSectionMenuItem = new javax.swing.JMenuItem();
         deduplicateMenuItem = new javax.swing.JMenuItem();
+        similarCardsMenuItem = new javax.swing.JMenuItem();
         helpMenu = new javax.swing.JMenu();
         githubMenuItem = new javax.swing.JMenuItem();
         aboutMenuItem = new javax.swing.JMenuItem();
@@ -638,6 +507,14 @@ public class MainWindow extends javax.swing.JFrame {
         });
         sectionMenu.add(deduplicateMenuItem);
 
+        similarCardsMenuItem.setText("Find similar cards");
+        similarCardsMenuItem.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                similarCardsMenuItemActionPerformed(evt);
+            }
+        });
+        sectionMenu.add(similarCardsMenuItem);
+
         mainMenuBar1.add(sectionMenu);
 
         helpMenu.setText("Help");
@@ -668,11 +545,9 @@ public class MainWindow extends javax.swing.JFrame {
     private void addSectionButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_addSectionButtonActionPerformed
         SectionData section = new SectionData();
         cards.add(section);
-        DefaultMutableTreeNode sectionNode = createSectionNode(section);
-        root.add(sectionNode);
-        expandNodes(cardTree, sectionNode);
-        selectAndScroll(sectionNode);
-        forceUpdateUI();
+        treeModel.sectionInserted(cards.size() - 1);
+        selectAndScroll(treeModel.getSectionPath(section));
+        updateButtonsFieldsLater();
     }//GEN-LAST:event_addSectionButtonActionPerformed
 
     private void removeSectionButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_removeSectionButtonActionPerformed
@@ -681,21 +556,18 @@ public class MainWindow extends javax.swing.JFrame {
         }
         int position = cards.getExactIndex(actualSection);
         cards.remove(position);
-        root.remove(position);
+        treeModel.sectionRemoved(position, actualSection);
         actualCard = null;
-        actualCardNode = null;
         position = cards.getBoundIndex(position);
         if (cards.size() > 0) {
             actualSection = cards.get(position);
-            actualSectionNode = (DefaultMutableTreeNode) root.getChildAt(position);
-            selectAndScroll(actualSectionNode);
+            selectAndScroll(treeModel.getSectionPath(actualSection));
         } else {
             actualSection = null;
-            actualSectionNode = null;
             cardTree.clearSelection();
         }
 
-        forceUpdateUI();
+        updateButtonsFieldsLater();
     }//GEN-LAST:event_removeSectionButtonActionPerformed
 
     private void addCardButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_addCardButtonActionPerformed
@@ -706,11 +578,9 @@ public class MainWindow extends javax.swing.JFrame {
         card.setName("NEW");
         card.setTitle(actualSection.getName());
         actualSection.add(card);
-        DefaultMutableTreeNode cardNode = createCardNode(card);
-        actualSectionNode.add(cardNode);
-        actualCardNode = cardNode;
-        selectAndScroll(cardNode);
-        forceUpdateUI();
+        treeModel.cardInserted(actualSection, actualSection.size() - 1);
+        selectAndScroll(treeModel.getCardPath(actualSection, card));
+        updateButtonsFieldsLater();
         java.awt.EventQueue.invokeLater(() -> {
             nameTextField.requestFocus();
             nameTextField.setSelectionStart(0);
@@ -724,18 +594,16 @@ public class MainWindow extends javax.swing.JFrame {
         }
         int position = actualSection.getExactIndex(actualCard);
         actualSection.remove(position);
-        actualSectionNode.remove(position);
+        treeModel.cardRemoved(actualSection, position, actualCard);
         position = actualSection.getBoundIndex(position);
         if (actualSection.size() > 0) {
             actualCard = actualSection.get(position);
-            actualCardNode = (DefaultMutableTreeNode) actualSectionNode.getChildAt(position);
-            selectAndScroll(actualCardNode);
+            selectAndScroll(treeModel.getCardPath(actualSection, actualCard));
         } else {
             actualCard = null;
-            actualCardNode = null;
-            selectAndScroll(actualSectionNode);
+            selectAndScroll(treeModel.getSectionPath(actualSection));
         }
-        forceUpdateUI();
+        updateButtonsFieldsLater();
     }//GEN-LAST:event_removeCardButtonActionPerformed
 
     private void loadMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_loadMenuItemActionPerformed
@@ -776,8 +644,6 @@ public class MainWindow extends javax.swing.JFrame {
         cards.clear();
         actualCard = null;
         actualSection = null;
-        actualCardNode = null;
-        actualSectionNode = null;
         updateTree();
     }//GEN-LAST:event_newMenuItemActionPerformed
 
@@ -803,7 +669,7 @@ public class MainWindow extends javax.swing.JFrame {
         }
         Collections.sort(actualSection, Comparator.comparing(CardData::getName));
         actualCard = null;
-        updateSectionSubTree(actualSection, actualSectionNode);
+        updateSectionSubTree(actualSection);
     }//GEN-LAST:event_reorderNameSectionMenuItemActionPerformed
 
     private void reorderTitleSectionMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_reorderTitleSectionMenuItemActionPerformed
@@ -812,36 +678,26 @@ public class MainWindow extends javax.swing.JFrame {
         }
         Collections.sort(actualSection, Comparator.comparing(CardData::getTitle));
         actualCard = null;
-        updateSectionSubTree(actualSection, actualSectionNode);
+        updateSectionSubTree(actualSection);
     }//GEN-LAST:event_reorderTitleSectionMenuItemActionPerformed
 
     private void cardTreeValueChanged(javax.swing.event.TreeSelectionEvent evt) {//GEN-FIRST:event_cardTreeValueChanged
-        DefaultMutableTreeNode path = (DefaultMutableTreeNode) cardTree.getLastSelectedPathComponent();
+        TreePath path = cardTree.getSelectionPath();
 
+        editPipeline.flush();
         actualCard = null;
-        actualCardNode = null;
-
         actualSection = null;
-        actualSectionNode = null;
 
         if (path != null) {
-            TreeNode[] pathNodes = path.getPath();
-
-            for (int i = pathNodes.length - 1; i >= 0; i--) {
-                DefaultMutableTreeNode pathNode = (DefaultMutableTreeNode) pathNodes[i];
-                Object pathObject = pathNode.getUserObject();
+            for (Object pathObject : path.getPath()) {
                 if (pathObject instanceof CardData) {
-                    CardData cardNode = (CardData) pathObject;
-                    actualCard = cardNode;
-                    actualCardNode = pathNode;
-                } else if (pathObject instanceof SectionData) {
-                    SectionData sectionNode = (SectionData) pathObject;
-                    actualSection = sectionNode;
-                    actualSectionNode = pathNode;
+                    actualCard = (CardData) pathObject;
+                } else if (CardTreeModel.getSection(pathObject) != null) {
+                    actualSection = CardTreeModel.getSection(pathObject);
                 }
             }
         }
-        forceUpdateUI();
+        updateButtonsFieldsLater();
     }//GEN-LAST:event_cardTreeValueChanged
 
     private void wahapediaAllImportMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_wahapediaAllImportMenuItemActionPerformed
@@ -871,13 +727,36 @@ public class MainWindow extends javax.swing.JFrame {
 
     private void deduplicateMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_deduplicateMenuItemActionPerformed
 
-        SectionData deduplicated = new SectionData(ICardInput.createSectionsDeduplicator(cards));
-        for (SectionData list : cards) {
-            list.retainAll(deduplicated);
-        }
+        ICardInput.deduplicateSections(cards);
         updateTree();
     }//GEN-LAST:event_deduplicateMenuItemActionPerformed
 
+    private void similarCardsMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_similarCardsMenuItemActionPerformed
+
+        Callable<List<String>> callable = () -> {
+            List<CardData> allCards = new ArrayList<>();
+            for (SectionData section : cards) {
+                allCards.addAll(section);
+            }
+            List<String> report = new ArrayList<>();
+            for (List<CardData> group : new CardSimilarityFinder().find(allCards)) {
+                StringBuilder sb = new StringBuilder();
+                sb.append(group.size()).append(" similar cards:");
+                for (CardData card : group) {
+                    sb.append(' ').append(card.getName()).append(" (").append(card.getTitle()).append(");");
+                }
+                report.add(sb.substring(0, sb.length() - 1));
+            }
+            return report;
+        };
+        Runnable postNoWarnings = () -> {
+            JOptionPane.showMessageDialog(MainWindow.this, "No similar cards were found", "Similar cards",
+                    JOptionPane.INFORMATION_MESSAGE);
+        };
+        WaitingDialog.show(MainWindow.this, "Searching...", callable,
+                "\nThese cards have almost the same legend and rules, and could be merged:", null, postNoWarnings);
+    }//GEN-LAST:event_similarCardsMenuItemActionPerformed
+
     private void exitMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_exitMenuItemActionPerformed
         dispose();
     }//GEN-LAST:event_exitMenuItemActionPerformed
@@ -888,9 +767,8 @@ public class MainWindow extends javax.swing.JFrame {
         }
         CardData card = new CardData(actualCard.getTitle(), actualCard.getName(), actualCard.getLegend(), actualCard.getRules(), actualCard.getCostValue(), actualCard.getCostType());
         actualSection.add(card);
-        DefaultMutableTreeNode cardNode = createCardNode(card);
-        actualSectionNode.add(cardNode);
-        forceUpdateUI();
+        treeModel.cardInserted(actualSection, actualSection.size() - 1);
+        updateButtonsFieldsLater();
     }//GEN-LAST:event_duplicateCardButtonActionPerformed
 
     private void bw9ExportMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_bw9ExportMenuItemActionPerformed
@@ -1004,6 +882,7 @@ public class MainWindow extends javax.swing.JFrame {
     private javax.swing.JMenuItem saveMenuItem;
     private javax.swing.JMenu sectionMenu;
     private javax.swing.JPanel sectionsButtonsPanel;
+    private javax.swing.JMenuItem similarCardsMenuItem;
     private javax.swing.JLabel titleLabel;
     private javax.swing.JTextField titleTextField;
     private javax.swing.JPanel treeButtonsPanel;
@@ -1012,40 +891,55 @@ public class MainWindow extends javax.swing.JFrame {
     // End of variables declaration//GEN-END:variables
 
     public void loadCards(File file, String waitTitle, boolean clear) {
-        Callable<List<String>> callable = () -> {
-            FileInputStream fis = new FileInputStream(file);
+        WaitingDialog.Handler handler = (progress) -> {
             XmlCardInput input = new XmlCardInput();
 
-            CardCollectionData newCards = input.build(fis);
-
-            if (clear) {
-                cardTree.clearSelection();
-                cards.clear();
-            }
-            cards.addAll(newCards);
-            updateTree();
-            if (clear) {
-                setActualFile(file);
+            CardCollectionData newCards;
+            try (InputStream is = new ProgressInputStream(new FileInputStream(file), file.length(), waitTitle, progress)) {
+                newCards = input.build(is);
             }
+            progress.checkCancelled();
+
+            java.awt.EventQueue.invokeLater(() -> {
+                if (clear) {
+                    cardTree.clearSelection();
+                    cards.clear();
+                }
+                cards.addAll(newCards);
+                updateTree();
+                if (clear) {
+                    setActualFile(file);
+                }
+            });
             return null;
         };
-        WaitingDialog.show(MainWindow.this, waitTitle, callable);
+        WaitingDialog.show(MainWindow.this, waitTitle, handler);
     }
 
     public void addCards(Collection<SectionData> newCards) {
-        cards.addAll(newCards);
-        updateTree();
+        java.awt.EventQueue.invokeLater(() -> {
+            cards.addAll(newCards);
+            updateTree();
+        });
     }
 
     private void saveCards(File file) {
-        Callable<List<String>> callable = () -> {
-            FileOutputStream fos = new FileOutputStream(file);
-            XmlCardOutput output = new XmlCardOutput();
-            output.build(fos, cards, new WarningArrayList());
+        WaitingDialog.Handler handler = (progress) -> {
+            // Written aside, a cancelled save leaves the previous file as it was
+            File partFile = new File(file.getPath() + ".part");
+            try {
+                try (FileOutputStream fos = new FileOutputStream(partFile)) {
+                    XmlCardOutput output = new XmlCardOutput();
+                    output.build(fos, cards, new WarningArrayList(), progress);
+                }
+                Files.move(partFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                partFile.delete();
+            }
             setActualFile(file);
             return null;
         };
-        WaitingDialog.show(MainWindow.this, "Saving...", callable);
+        WaitingDialog.show(MainWindow.this, "Saving...", handler);
 
     }
 
@@ -1093,6 +987,15 @@ public class MainWindow extends javax.swing.JFrame {
         legendTextArea.setBackground(textAreaColor);
         rulesTextArea.setBackground(textAreaColor);
 
+        fillingFields = true;
+        try {
+            fillFields(hasActualCard);
+        } finally {
+            fillingFields = false;
+        }
+    }
+
+    private void fillFields(boolean hasActualCard) {
         if (hasActualCard) {
             titleTextField.setText(actualCard.getTitle());
             nameTextField.setText(actualCard.getName());
@@ -1110,43 +1013,29 @@ public class MainWindow extends javax.swing.JFrame {
         }
     }
 
-    private void selectAndScroll(DefaultMutableTreeNode node) {
-        TreePath path = createPath(node);
+    private void selectAndScroll(TreePath path) {
         cardTree.setSelectionPath(path);
         cardTree.scrollPathToVisible(path);
     }
 
     private void updateTree() {
 
-        root.removeAllChildren();
+        treeModel.structureChanged();
         for (SectionData section : cards) {
-            DefaultMutableTreeNode sectionNode = createSectionNode(section);
-            root.add(sectionNode);
-            updateNode(section, sectionNode);
+            cardTree.expandPath(treeModel.getSectionPath(section));
         }
-        expandNodes(cardTree, root);
-        forceUpdateUI();
+        updateButtonsFieldsLater();
     }
 
-    private void updateSectionSubTree(SectionData section, DefaultMutableTreeNode sectionNode) {
+    private void updateSectionSubTree(SectionData section) {
 
-        sectionNode.removeAllChildren();
-        updateNode(section, sectionNode);
-        forceUpdateUI();
+        treeModel.sectionStructureChanged(section);
+        cardTree.expandPath(treeModel.getSectionPath(section));
+        updateButtonsFieldsLater();
     }
 
-    private void updateNode(SectionData section, DefaultMutableTreeNode sectionNode) {
-
-        for (CardData c : section) {
-            sectionNode.add(createCardNode(c));
-        }
-    }
-
-    private void forceUpdateUI() {
-        java.awt.EventQueue.invokeLater(() -> {
-            cardTree.updateUI();
-            updateButtonsFields();
-        });
+    private void updateButtonsFieldsLater() {
+        java.awt.EventQueue.invokeLater(this::updateButtonsFields);
     }
 
     public boolean moveCard(int oldCardIndex, int oldSectionIndex, int newCardIndex, int newSectionIndex) {
@@ -1160,10 +1049,15 @@ public class MainWindow extends javax.swing.JFrame {
             }
         }
         SectionData oldSection = cards.get(cards.getBoundIndex(oldSectionIndex));
-        CardData card = oldSection.remove(oldSection.getBoundIndex(oldCardIndex));
+        int oldPosition = oldSection.getBoundIndex(oldCardIndex);
+        CardData card = oldSection.remove(oldPosition);
+        treeModel.cardRemoved(oldSection, oldPosition, card);
         SectionData newSection = cards.get(cards.getBoundIndex(newSectionIndex));
-        newSection.add(newSection.getBoundIndexPlusOne(newCardIndex), card);
-        updateTree();
+        int newPosition = newSection.getBoundIndexPlusOne(newCardIndex);
+        newSection.add(newPosition, card);
+        treeModel.cardInserted(newSection, newPosition);
+        cardTree.expandPath(treeModel.getSectionPath(newSection));
+        selectAndScroll(treeModel.getCardPath(newSection, card));
         return true;
     }
 
@@ -1175,9 +1069,17 @@ public class MainWindow extends javax.swing.JFrame {
             // section will move the intented position one position down
             newSectionIndex--;
         }
-        SectionData section = cards.remove(cards.getBoundIndex(oldSectionIndex));
-        cards.add(cards.getBoundIndexPlusOne(newSectionIndex), section);
-        updateTree();
+        int oldPosition = cards.getBoundIndex(oldSectionIndex);
+        SectionData section = cards.remove(oldPosition);
+        boolean expanded = cardTree.isExpanded(treeModel.getSectionPath(section));
+        treeModel.sectionRemoved(oldPosition, section);
+        int newPosition = cards.getBoundIndexPlusOne(newSectionIndex);
+        cards.add(newPosition, section);
+        treeModel.sectionInserted(newPosition);
+        if (expanded) {
+            cardTree.expandPath(treeModel.getSectionPath(section));
+        }
+        selectAndScroll(treeModel.getSectionPath(section));
         return true;
     }
 
@@ -1191,70 +1093,119 @@ public class MainWindow extends javax.swing.JFrame {
 
     }
 
-    private static DefaultMutableTreeNode createCardNode(CardData card) {
-        return new DefaultMutableTreeNode(card, false) {
-            /**
-			 * 
-			 */
-			private static final long serialVersionUID = 6203511105134532218L;
-
-			@Override
-            public void setUserObject(Object userObject) {
-                String name = userObject.toString();
-                card.setName(name);
-            }
-        };
+    private void setActualFile(File file) {
+        actualFile = file;
+        setTitle(file != null ? file.getName().concat(" - Card editor") : "Card editor");
+
     }
 
-    private static DefaultMutableTreeNode createSectionNode(SectionData section) {
-        return new DefaultMutableTreeNode(section, true) {
-            /**
-			 * 
-			 */
-			private static final long serialVersionUID = 3594751494863325062L;
-
-			@Override
-            public void setUserObject(Object userObject) {
-                String oldTitle = section.getName();
-                String newTitle = userObject.toString();
-
-                Pattern oldTitlePattern = Pattern.compile(oldTitle, Pattern.LITERAL);
-                newTitle = oldTitle.isEmpty() ? newTitle.concat(" ") : newTitle;
-                for (CardData card : section) {
-                    card.setTitle(oldTitlePattern.matcher(card.getTitle()).replaceFirst(newTitle));
+    /**
+     * Writes every edit of the field into the actual card, and tells the
+     * edit pipeline when it is given.
+     */
+    private void listenCardField(JTextComponent field, BiConsumer<CardData, String> setter, Runnable edited) {
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent index) {
+                update();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent index) {
+                update();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent index) {
+                update();
+            }
+
+            private void update() {
+                // Filling the fields of a selected card is not an edit
+                if (actualCard == null || fillingFields) {
+                    return;
+                }
+                setter.accept(actualCard, field.getText());
+                if (edited != null) {
+                    edited.run();
                 }
-                section.updateName();
             }
-        };
+        });
     }
 
-    private static void expandNodes(JTree tree, DefaultMutableTreeNode node) {
-        List<TreeNode> list = Collections.list(node.children());
-        for (TreeNode treeNode : list) {
-            expandNodes(tree, (DefaultMutableTreeNode) treeNode);
+    /**
+     * Coalesces the tree updates of the keystrokes in the name and title
+     * fields. The row of the card is repainted once the typing pauses, and
+     * the section name, the longest words common to every title, is then
+     * computed on the task executor from the titles of that moment.
+     */
+    private class EditPipeline implements ActionListener {
+
+        private static final int DELAY_MILLIS = 200;
+
+        private final Timer timer;
+        private SectionData section;
+        private CardData card;
+        private boolean nameEdited;
+        private boolean titleEdited;
+
+        public EditPipeline() {
+            timer = new Timer(DELAY_MILLIS, this);
+            timer.setRepeats(false);
         }
-        if (!node.isRoot()) {
-            TreePath path = createPath(node);
-            tree.expandPath(path);
-            try {
-                tree.expandPath(path);
-            } catch (NullPointerException _tryAgain) {
-                try {
-                    tree.expandPath(path);
-                } catch (NullPointerException _whatTheFrackAreYouDoingSwing) {
-                }
-            }
+
+        public void nameEdited() {
+            edited();
+            nameEdited = true;
         }
-    }
 
-    private static TreePath createPath(DefaultMutableTreeNode node) {
-        return new TreePath(node.getPath());
-    }
+        public void titleEdited() {
+            edited();
+            titleEdited = true;
+        }
 
-    private void setActualFile(File file) {
-        actualFile = file;
-        setTitle(file != null ? file.getName().concat(" - Card editor") : "Card editor");
+        private void edited() {
+            if (card != actualCard) {
+                flush();
+            }
+            section = actualSection;
+            card = actualCard;
+            timer.restart();
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            flush();
+        }
 
+        /**
+         * Updates the tree now with the pending edits.
+         */
+        public void flush() {
+            timer.stop();
+            if (card == null) {
+                return;
+            }
+            if (nameEdited) {
+                treeModel.cardChanged(section, card);
+            }
+            if (titleEdited) {
+                SectionData editedSection = section;
+                String[] titles = editedSection.getTitles();
+                TaskExecutor.get().execute(() -> {
+                    String name = SectionData.computeName(titles);
+                    java.awt.EventQueue.invokeLater(() -> {
+                        if (editedSection.setName(titles, name)) {
+                            treeModel.sectionChanged(editedSection);
+                        }
+                    });
+                });
+            }
+            section = null;
+            card = null;
+            nameEdited = false;
+            titleEdited = false;
+        }
     }
 
     private static class CardTreeCellEditor extends DefaultTreeCellEditor {
@@ -1266,11 +1217,10 @@ public class MainWindow extends javax.swing.JFrame {
 
         @Override
         public Component getTreeCellEditorComponent(JTree tree, Object value, boolean isSelected, boolean expanded, boolean leaf, int row) {
-            Object o = ((DefaultMutableTreeNode) value).getUserObject();
-            if (o instanceof CardData) {
-                value = ((CardData) o).getName();
-            } else if (o instanceof SectionData) {
-                value = ((SectionData) o).getName();
+            if (value instanceof CardData) {
+                value = ((CardData) value).getName();
+            } else if (CardTreeModel.getSection(value) != null) {
+                value = CardTreeModel.getSection(value).getName();
             }
             return super.getTreeCellEditorComponent(tree, value, isSelected, expanded, leaf, row);
         }
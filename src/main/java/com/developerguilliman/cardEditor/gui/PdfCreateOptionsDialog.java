@@ -19,9 +19,14 @@ package com.developerguilliman.cardEditor.gui;
 import java.awt.Color;
 import java.awt.Desktop;
 import java.awt.Frame;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -36,6 +41,9 @@ import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 
 import com.developerguilliman.cardEditor.data.CardCollectionData;
+import com.developerguilliman.cardEditor.metrics.Metrics;
+import com.developerguilliman.cardEditor.metrics.MetricsSnapshot;
+import com.developerguilliman.cardEditor.output.PdfLayoutCache;
 import com.developerguilliman.cardEditor.output.PdfOutput;
 import com.developerguilliman.cardEditor.warning.WarningArrayList;
 
@@ -102,6 +110,41 @@ public class PdfCreateOptionsDialog extends javax.swing.JDialog {
 
     private static final float POINTS_PER_MM = 1 / (10 * 2.54f) * POINTS_PER_INCH;
 
+    private static final File LAYOUT_CACHE_FILE = new File(System.getProperty("user.home"), ".cardEditor/pdf-layout.cache");
+
+    private static PdfLayoutCache layoutCache;
+
+    /**
+     * The text layouts are shared by every export of the session and kept on
+     * disk between sessions, a missing or unreadable file only starts empty.
+     */
+    private static synchronized PdfLayoutCache getLayoutCache() {
+        if (layoutCache == null) {
+            layoutCache = new PdfLayoutCache();
+            if (LAYOUT_CACHE_FILE.isFile()) {
+                try (InputStream is = new BufferedInputStream(new FileInputStream(LAYOUT_CACHE_FILE))) {
+                    layoutCache.load(is);
+                } catch (IOException | RuntimeException e) {
+                    System.out.println("Ignoring the pdf layout cache: " + e);
+                    layoutCache.clear();
+                }
+            }
+        }
+        return layoutCache;
+    }
+
+    private static synchronized void saveLayoutCache() {
+        if (layoutCache == null || !layoutCache.isModified()) {
+            return;
+        }
+        LAYOUT_CACHE_FILE.getParentFile().mkdirs();
+        try (OutputStream os = new BufferedOutputStream(new FileOutputStream(LAYOUT_CACHE_FILE))) {
+            layoutCache.save(os);
+        } catch (IOException e) {
+            System.out.println("Could not save the pdf layout cache: " + e);
+        }
+    }
+
     private static String getFontName(PDFont font) {
 
         for (int i = 0; i < FONT_TYPES.length; i++) {
@@ -787,11 +830,20 @@ public class PdfCreateOptionsDialog extends javax.swing.JDialog {
         Frame parent = (Frame) getParent();
         File file = MainWindow.getChooserSelectedFile(chooser, "pdf");
 
-        WaitingDialog.show(parent, "Creating pdf...", () -> {
+        WaitingDialog.show(parent, "Creating pdf...", (progress) -> {
             WarningArrayList warningArrayList = new WarningArrayList();
             setBuilderValuesFromDialog();
             PdfOutput output = builder.build();
-            output.build(new FileOutputStream(file), cards, warningArrayList);
+            MetricsSnapshot metricsBefore = Metrics.get().snapshot();
+            try (FileOutputStream fos = new FileOutputStream(file)) {
+                output.build(fos, cards, warningArrayList, progress);
+            } catch (IOException | RuntimeException e) {
+                // No half written pdf is left behind an error or a cancel
+                file.delete();
+                throw e;
+            }
+            Metrics.get().writeReportNextTo(file, metricsBefore);
+            saveLayoutCache();
             return warningArrayList.getWarnings();
         }, "building the pdf.\nSome cards can have missing text or have broken borders.", () -> {
             disposeAndOpenPdf(file);
@@ -1181,6 +1233,9 @@ public class PdfCreateOptionsDialog extends javax.swing.JDialog {
                 .setBackgroundPages(backgroundPagesCheckBox.isSelected())
                 .setFillUnusedCardSlots(fillUnusedCardSlotsCheckBox.isSelected())
                 .setFillUnusedCardSlotsBorders(fillUnusedCardSlotsBordersCheckBox.isSelected())
-                .setFillUnusedCardSlotsTitles(fillUnusedCardSlotsTitleBarsCheckBox.isSelected());
+                .setFillUnusedCardSlotsTitles(fillUnusedCardSlotsTitleBarsCheckBox.isSelected())
+                .setParallel(true)
+                .setScratchFile(true)
+                .setLayoutCache(getLayoutCache());
     }
 }
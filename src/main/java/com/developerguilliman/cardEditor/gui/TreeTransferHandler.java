@@ -26,7 +26,7 @@ import java.io.Serializable;
 import javax.swing.JComponent;
 import javax.swing.JTree;
 import javax.swing.TransferHandler;
-import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.TreeModel;
 import javax.swing.tree.TreePath;
 
 import com.developerguilliman.cardEditor.data.CardData;
@@ -69,13 +69,13 @@ public class TreeTransferHandler extends TransferHandler {
             return null;
         }
 
+        TreeModel model = cardTree.getModel();
         Object[] pathNodes = path.getPath();
         int len = pathNodes.length - 1;
         int[] route = new int[len];
 
         for (int i = 0; i < route.length; i++) {
-            DefaultMutableTreeNode pathNode = (DefaultMutableTreeNode) pathNodes[i];
-            route[i] = pathNode.getIndex((DefaultMutableTreeNode) pathNodes[i + 1]);
+            route[i] = model.getIndexOfChild(pathNodes[i], pathNodes[i + 1]);
         }
 
         DataMove transferData;
@@ -120,7 +120,7 @@ public class TreeTransferHandler extends TransferHandler {
             }
             MainWindow mw = (MainWindow) component;
             DataMove dataMove = (DataMove) info.getTransferable().getTransferData(dataFlavor);
-            return dataMove.importData(mw, (JTree.DropLocation) info.getDropLocation());
+            return dataMove.importData(mw, cardTree.getModel(), (JTree.DropLocation) info.getDropLocation());
         } catch (UnsupportedFlavorException | IOException | RuntimeException ex) {
             System.err.println(ex);
             return false;
@@ -139,7 +139,7 @@ public class TreeTransferHandler extends TransferHandler {
 
     private interface DataMove extends Serializable {
 
-        public boolean importData(MainWindow mw, JTree.DropLocation dropLocation);
+        public boolean importData(MainWindow mw, TreeModel model, JTree.DropLocation dropLocation);
 
         public void exportDone();
 
@@ -161,15 +161,14 @@ public class TreeTransferHandler extends TransferHandler {
         }
 
         @Override
-        public boolean importData(MainWindow mw, JTree.DropLocation dropLocation) {
+        public boolean importData(MainWindow mw, TreeModel model, JTree.DropLocation dropLocation) {
 
             Object[] newPath = dropLocation.getPath().getPath();
-            DefaultMutableTreeNode node = (DefaultMutableTreeNode) newPath[0];
             int newCardIndex;
             int newSectionIndex;
             if (newPath.length > 1) {
                 newCardIndex = dropLocation.getChildIndex();
-                newSectionIndex = node.getIndex((DefaultMutableTreeNode) newPath[1]);
+                newSectionIndex = model.getIndexOfChild(newPath[0], newPath[1]);
             } else {
                 newSectionIndex = dropLocation.getChildIndex() - 1;
                 newCardIndex = (newSectionIndex < 0) ? 0 : Integer.MAX_VALUE;
@@ -198,7 +197,7 @@ public class TreeTransferHandler extends TransferHandler {
         }
 
         @Override
-        public boolean importData(MainWindow mw, JTree.DropLocation dropLocation) {
+        public boolean importData(MainWindow mw, TreeModel model, JTree.DropLocation dropLocation) {
             Object[] newPath = dropLocation.getPath().getPath();
             int newSectionIndex;
             if (newPath.length > 1) {
@@ -219,10 +218,8 @@ public class TreeTransferHandler extends TransferHandler {
         Object[] pathNodes = path.getPath();
 
         for (int i = pathNodes.length - 1; i >= 0; i--) {
-            DefaultMutableTreeNode pathNode = (DefaultMutableTreeNode) pathNodes[i];
-            Object pathObject = pathNode.getUserObject();
-            if (pathObject instanceof CardData) {
-                return (CardData) pathObject;
+            if (pathNodes[i] instanceof CardData) {
+                return (CardData) pathNodes[i];
             }
         }
         return null;
@@ -232,10 +229,9 @@ public class TreeTransferHandler extends TransferHandler {
         Object[] pathNodes = path.getPath();
 
         for (int i = pathNodes.length - 1; i >= 0; i--) {
-            DefaultMutableTreeNode pathNode = (DefaultMutableTreeNode) pathNodes[i];
-            Object pathObject = pathNode.getUserObject();
-            if (pathObject instanceof SectionData) {
-                return (SectionData) pathObject;
+            SectionData section = CardTreeModel.getSection(pathNodes[i]);
+            if (section != null) {
+                return section;
             }
         }
         return null;
@@ -23,15 +23,10 @@ import java.util.concurrent.Callable;
 
 import javax.swing.JOptionPane;
 
-import com.developerguilliman.cardEditor.csv.WahapediaCsvBuilder;
 import com.developerguilliman.cardEditor.csv.WahapediaCsvFactions;
 import com.developerguilliman.cardEditor.data.CardCollectionData;
 import com.developerguilliman.cardEditor.data.Faction;
-import com.developerguilliman.cardEditor.input.WahapediaAbilities;
-import com.developerguilliman.cardEditor.input.WahapediaMiscCardBuilder;
-import com.developerguilliman.cardEditor.input.WahapediaPsychicPowers;
-import com.developerguilliman.cardEditor.input.WahapediaStratagems;
-import com.developerguilliman.cardEditor.input.WahapediaWarlordTraits;
+import com.developerguilliman.cardEditor.input.WahapediaImport;
 
 /**
  *
@@ -233,40 +228,29 @@ public class WahapediaFactions extends javax.swing.JDialog {
 
 		MainWindow mainWindow = (MainWindow) getParent();
 
-		WaitingDialog.Handler callable = (label) -> {
-			CardCollectionData newCards = new CardCollectionData();
-
+		WaitingDialog.Handler callable = (progress) -> {
 			int regroup = (int) regroupSpinner.getModel().getValue() - 1;
 			boolean reorderByName = reorderCheckBox.isSelected();
 			boolean deduplicate = deduplicateCheckBox.isSelected();
 
+			WahapediaImport wahapediaImport = new WahapediaImport(selectedFactions, regroup, reorderByName, deduplicate);
 			if (stratagems) {
-				label.accept("Loading Stratagems...");
-				newCards.addAll(new WahapediaStratagems(selectedFactions, regroup, reorderByName, deduplicate)
-						.build(WahapediaStratagems.getInputStreamFromUrl()));
+				wahapediaImport.addStratagems();
 			}
 			if (psychicPowers) {
-				label.accept("Loading Psychic Powers...");
-				newCards.addAll(new WahapediaPsychicPowers(selectedFactions, regroup, reorderByName, deduplicate)
-						.build(WahapediaPsychicPowers.getInputStreamFromUrl()));
+				wahapediaImport.addPsychicPowers();
 			}
 			if (warlordTraits) {
-				label.accept("Loading Warlord Traits...");
-				newCards.addAll(new WahapediaWarlordTraits(selectedFactions, regroup, reorderByName, deduplicate)
-						.build(WahapediaWarlordTraits.getInputStreamFromUrl()));
+				wahapediaImport.addWarlordTraits();
 			}
 			if (factionAbilities) {
-				label.accept("Loading Abilities...");
-				newCards.addAll(new WahapediaAbilities(selectedFactions, regroup, reorderByName, deduplicate)
-						.build(WahapediaAbilities.getInputStreamFromUrl()));
+				wahapediaImport.addAbilities();
 			}
 			if (misc) {
-				label.accept("Loading Misc...");
-				for (Faction faction : selectedFactions.values()) {
-					newCards.addAll(new WahapediaMiscCardBuilder(regroup, reorderByName, deduplicate)
-							.build(WahapediaCsvBuilder.getInputStreamFromUrl(faction.getLink().concat("/"))));
-				}
+				wahapediaImport.addMisc();
 			}
+			CardCollectionData newCards = wahapediaImport.build(progress);
+			progress.checkCancelled();
 			dispose();
 			java.awt.EventQueue.invokeLater(() -> {
 				new CardImportDialog(mainWindow, newCards).setVisible(true);
@@ -21,10 +21,14 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.function.Consumer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
 
 import javax.swing.JOptionPane;
 
+import com.developerguilliman.cardEditor.progress.IProgressHandler;
+import com.developerguilliman.cardEditor.progress.TaskExecutor;
+
 /**
  *
  * @author Developer Guilliman <developerguilliman@gmail.com>
@@ -36,6 +40,13 @@ public class WaitingDialog extends javax.swing.JDialog {
 	 */
 	private static final long serialVersionUID = 6960711916335927770L;
 
+    // The maximum of the progress bar
+    private static final int PROGRESS_STEPS = 1000;
+
+    private final DialogProgress progress;
+    private volatile Future<?> task;
+    private volatile boolean finished;
+
 	/**
      * Creates new form LoadingDialog
      *
@@ -47,6 +58,7 @@ public class WaitingDialog extends javax.swing.JDialog {
         setLocationRelativeTo(parent);
         initComponents();
         loadingLabel.setText(label);
+        progress = new DialogProgress();
     }
 
     public static void show(java.awt.Frame parent, String label, Callable<List<String>> callable) {
@@ -64,7 +76,7 @@ public class WaitingDialog extends javax.swing.JDialog {
         show(parent, workLabel, new Handler() {
 
             @Override
-            public List<String> apply(Consumer<String> t) throws Exception {
+            public List<String> apply(IProgressHandler progress) throws Exception {
                 return callable.call();
             }
         }, warningLabel, postWarnings, postNoWarnings);
@@ -85,38 +97,45 @@ public class WaitingDialog extends javax.swing.JDialog {
     public static void show(java.awt.Frame parent, String workLabel, Handler handler, String warningLabel, Runnable postWarnings, Runnable postNoWarnings) {
         WaitingDialog wd = new WaitingDialog(parent, workLabel);
 
-        Thread t = new Thread() {
-            @Override
-            public void run() {
-                try {
-                    List<String> warnings = handler.apply(createConsumer(wd));
-                    wd.dispose();
-
-                    if (warnings != null && !warnings.isEmpty()) {
-                        wd.openWarningDialog(parent, warningLabel, warnings, postWarnings);
-                    } else if (postNoWarnings != null) {
-                        postNoWarnings.run();
-                    }
-                } catch (Throwable t) {
-                    t.printStackTrace();
-                    wd.dispose();
-                    Throwable cause = getCause(t);
-                    String exClassName = cause.getClass().getName();
-                    exClassName = exClassName.substring(exClassName.lastIndexOf('.') + 1);
-                    String message = exClassName + " : " + cause.getLocalizedMessage();
-                    JOptionPane.showMessageDialog(parent, message, "Error", JOptionPane.ERROR_MESSAGE);
+        wd.task = TaskExecutor.get().submit(() -> {
+            try {
+                List<String> warnings = handler.apply(wd.progress);
+                wd.close();
+
+                if (wd.progress.isCancelled()) {
+                    return;
+                }
+                if (warnings != null && !warnings.isEmpty()) {
+                    wd.openWarningDialog(parent, warningLabel, warnings, postWarnings);
+                } else if (postNoWarnings != null) {
+                    postNoWarnings.run();
                 }
+            } catch (Throwable t) {
+                wd.close();
+                if (wd.progress.isCancelled() || t instanceof CancellationException) {
+                    return;
+                }
+                t.printStackTrace();
+                Throwable cause = getCause(t);
+                String exClassName = cause.getClass().getName();
+                exClassName = exClassName.substring(exClassName.lastIndexOf('.') + 1);
+                String message = exClassName + " : " + cause.getLocalizedMessage();
+                JOptionPane.showMessageDialog(parent, message, "Error", JOptionPane.ERROR_MESSAGE);
             }
-
-        };
-        t.setName("WaitingDialogTask");
-        t.setDaemon(true);
-        t.start();
+        });
         java.awt.EventQueue.invokeLater(() -> {
-            wd.setVisible(true);
+            // A quick task can end before the dialog is shown
+            if (!wd.finished) {
+                wd.setVisible(true);
+            }
         });
     }
 
+    private void close() {
+        finished = true;
+        java.awt.EventQueue.invokeLater(this::dispose);
+    }
+
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -128,6 +147,7 @@ public class WaitingDialog extends javax.swing.JDialog {
         jPanel1 = new javax.swing.JPanel();
         loadingLabel = new javax.swing.JLabel();
         progressBar = new javax.swing.JProgressBar();
+        cancelButton = new javax.swing.JButton();
 
         setDefaultCloseOperation(javax.swing.WindowConstants.DO_NOTHING_ON_CLOSE);
         setAutoRequestFocus(false);
@@ -146,6 +166,7 @@ public class WaitingDialog extends javax.swing.JDialog {
         loadingLabel.setVerticalTextPosition(javax.swing.SwingConstants.TOP);
         jPanel1.add(loadingLabel);
 
+        progressBar.setMaximum(PROGRESS_STEPS);
         progressBar.setIndeterminate(true);
         progressBar.setOpaque(true);
         progressBar.setString("");
@@ -153,11 +174,30 @@ public class WaitingDialog extends javax.swing.JDialog {
 
         getContentPane().add(jPanel1, java.awt.BorderLayout.CENTER);
 
+        cancelButton.setText("Cancel");
+        cancelButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                cancelButtonActionPerformed(evt);
+            }
+        });
+        getContentPane().add(cancelButton, java.awt.BorderLayout.EAST);
+
         pack();
     }// </editor-fold>//GEN-END:initComponents
 
+    private void cancelButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_cancelButtonActionPerformed
+        progress.cancelled = true;
+        loadingLabel.setText("Cancelling...");
+        cancelButton.setEnabled(false);
+        Future<?> t = task;
+        if (t != null) {
+            t.cancel(true);
+        }
+        close();
+    }//GEN-LAST:event_cancelButtonActionPerformed
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JButton cancelButton;
     private javax.swing.JPanel jPanel1;
     private javax.swing.JLabel loadingLabel;
     private javax.swing.JProgressBar progressBar;
@@ -189,19 +229,43 @@ public class WaitingDialog extends javax.swing.JDialog {
         });
     }
 
-   private static Consumer<String> createConsumer(WaitingDialog wd) {
-        return new Consumer<String>() {
+    /**
+     * Shows the progress of the task in the dialog. The bar only moves when
+     * it changes by a step, so a task can report every item it handles.
+     */
+    private class DialogProgress implements IProgressHandler {
 
-            @Override
-            public void accept(String label) {
-                wd.loadingLabel.setText(label);
+        private volatile boolean cancelled;
+        private String lastLabel;
+        private int lastStep = -1;
+
+        @Override
+        public synchronized void progress(String label, long done, long total) {
+            int step = (total > 0) ? (int) (Math.min(done, total) * PROGRESS_STEPS / total) : -1;
+            if (step == lastStep && label.equals(lastLabel)) {
+                return;
             }
-        };
+            lastStep = step;
+            lastLabel = label;
+            java.awt.EventQueue.invokeLater(() -> {
+                if (cancelled) {
+                    return;
+                }
+                loadingLabel.setText(label);
+                progressBar.setIndeterminate(step < 0);
+                progressBar.setValue(Math.max(step, 0));
+            });
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
     }
 
     public interface Handler {
 
-        public List<String> apply(Consumer<String> t) throws Exception;
+        public List<String> apply(IProgressHandler progress) throws Exception;
 
     }
     
@@ -20,11 +20,13 @@ import java.io.InputStream;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.TreeSet;
 
 import com.developerguilliman.cardEditor.data.CardCollectionData;
+import com.developerguilliman.cardEditor.data.CardDeduplicator;
 import com.developerguilliman.cardEditor.data.CardData;
 import com.developerguilliman.cardEditor.data.SectionData;
+import com.developerguilliman.cardEditor.metrics.Metric;
+import com.developerguilliman.cardEditor.metrics.Metrics;
 
 /**
  *
@@ -32,6 +34,15 @@ import com.developerguilliman.cardEditor.data.SectionData;
  */
 public interface ICardInput {
 
+    public static final Comparator<CardData> TEXTS_COMPARATOR = Comparator.comparing(CardData::getTitle)
+            .thenComparing(CardData::getName)
+            .thenComparing(CardData::getLegend)
+            .thenComparing(CardData::getRules)
+            .thenComparing(CardData::getCostValue)
+            .thenComparing(CardData::getCostType);
+
+    public static final Metric DEDUPLICATE_METRIC = Metrics.get().timer("cards.deduplicate");
+
     CardCollectionData build(InputStream source);
 
     public static CardCollectionData divideSections(Collection<CardData> cards) {
@@ -76,32 +87,41 @@ public interface ICardInput {
         return reorderByName ? comparatorBase.thenComparing(CardData::getName) : comparatorBase;
     }
 
+    /**
+     * Returns the distinct cards of the list, sorted by their six texts.
+     */
     public static SectionData createListDeduplicator(SectionData list) {
-        TreeSet<CardData> dedup = new TreeSet<>(
-                Comparator.comparing(CardData::getTitle)
-                        .thenComparing(CardData::getName)
-                        .thenComparing(CardData::getLegend)
-                        .thenComparing(CardData::getRules)
-                        .thenComparing(CardData::getCostValue)
-                        .thenComparing(CardData::getCostType)
-        );
+        return createListDeduplicator(list, false);
+    }
+
+    /**
+     * Returns the distinct cards of the list, keeping the first of each group
+     * of equal cards, in the order they are first seen or sorted by their six
+     * texts.
+     */
+    public static SectionData createListDeduplicator(SectionData list, boolean keepOrder) {
+        long start = System.nanoTime();
+        CardDeduplicator dedup = new CardDeduplicator(list.size());
         dedup.addAll(list);
-        return new SectionData(dedup);
+        SectionData deduplicated = new SectionData(dedup.getCards());
+        if (!keepOrder) {
+            deduplicated.sort(TEXTS_COMPARATOR);
+        }
+        DEDUPLICATE_METRIC.record(start);
+        return deduplicated;
     }
 
-    public static TreeSet<CardData> createSectionsDeduplicator(CardCollectionData list) {
-        TreeSet<CardData> dedup = new TreeSet<>(
-                Comparator.comparing(CardData::getTitle)
-                        .thenComparing(CardData::getName)
-                        .thenComparing(CardData::getLegend)
-                        .thenComparing(CardData::getRules)
-                        .thenComparing(CardData::getCostValue)
-                        .thenComparing(CardData::getCostType)
-        );
+    /**
+     * Removes from the sections every card equal to one seen before, in
+     * section order.
+     */
+    public static void deduplicateSections(CardCollectionData list) {
+        long start = System.nanoTime();
+        CardDeduplicator dedup = new CardDeduplicator(list.countCards());
         for (SectionData l : list) {
-            dedup.addAll(l);
+            l.removeIf((card) -> dedup.add(card) != card);
         }
-        return dedup;
+        DEDUPLICATE_METRIC.record(start);
     }
 
 }
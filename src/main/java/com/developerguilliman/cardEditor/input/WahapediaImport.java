@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.input;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.developerguilliman.cardEditor.csv.WahapediaCsvBuilder;
+import com.developerguilliman.cardEditor.data.CardCollectionData;
+import com.developerguilliman.cardEditor.data.Faction;
+import com.developerguilliman.cardEditor.progress.IProgressHandler;
+
+/**
+ * Import of several Wahapedia sources at once. Every source is downloaded
+ * and parsed in its own task, at most {@link #MAX_CONNECTIONS} at a time, and
+ * the cards are merged in the order the sources were added, whatever order
+ * the downloads end in.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public class WahapediaImport {
+
+	private static final int MAX_CONNECTIONS = 6;
+
+	private final LinkedHashMap<String, Faction> factions;
+
+	private final int maxToGroup;
+
+	private final boolean reorderByName;
+
+	private final boolean deduplicate;
+
+	private final List<Source> sources;
+
+	public WahapediaImport(LinkedHashMap<String, Faction> selectedFactions, int maxToGroup, boolean reorderByName,
+			boolean deduplicate) {
+		this.factions = selectedFactions;
+		this.maxToGroup = maxToGroup;
+		this.reorderByName = reorderByName;
+		this.deduplicate = deduplicate;
+		this.sources = new ArrayList<>();
+	}
+
+	public void addStratagems() {
+		sources.add(new Source(new WahapediaStratagems(factions, maxToGroup, reorderByName, deduplicate),
+				WahapediaStratagems::getInputStreamFromUrl));
+	}
+
+	public void addPsychicPowers() {
+		sources.add(new Source(new WahapediaPsychicPowers(factions, maxToGroup, reorderByName, deduplicate),
+				WahapediaPsychicPowers::getInputStreamFromUrl));
+	}
+
+	public void addWarlordTraits() {
+		sources.add(new Source(new WahapediaWarlordTraits(factions, maxToGroup, reorderByName, deduplicate),
+				WahapediaWarlordTraits::getInputStreamFromUrl));
+	}
+
+	public void addAbilities() {
+		sources.add(new Source(new WahapediaAbilities(factions, maxToGroup, reorderByName, deduplicate),
+				WahapediaAbilities::getInputStreamFromUrl));
+	}
+
+	/**
+	 * Adds the misc page of every selected faction, one source per faction.
+	 */
+	public void addMisc() {
+		for (Faction faction : factions.values()) {
+			String url = faction.getLink().concat("/");
+			sources.add(new Source(new WahapediaMiscCardBuilder(maxToGroup, reorderByName, deduplicate),
+					() -> WahapediaCsvBuilder.getInputStreamFromUrl(url)));
+		}
+	}
+
+	public int getSourceCount() {
+		return sources.size();
+	}
+
+	/**
+	 * Downloads and builds every added source.
+	 *
+	 * @param progress receives the sources done each time one ends, from the
+	 * thread that built it, and stops the sources not started yet once it is
+	 * cancelled
+	 */
+	public CardCollectionData build(IProgressHandler progress) throws IOException {
+		CardCollectionData cards = new CardCollectionData();
+		int count = sources.size();
+		if (count == 0) {
+			return cards;
+		}
+
+		AtomicInteger done = new AtomicInteger();
+		progress.progress("Loading 0 of " + count + " sources...", 0, count);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(count, MAX_CONNECTIONS), (r) -> {
+			Thread t = new Thread(r, "WahapediaImport");
+			t.setDaemon(true);
+			return t;
+		});
+		List<Future<CardCollectionData>> futures = new ArrayList<>(count);
+		try {
+			for (Source source : sources) {
+				futures.add(executor.submit(() -> {
+					progress.checkCancelled();
+					CardCollectionData built;
+					try (InputStream is = source.opener.open()) {
+						built = source.input.build(is);
+					}
+					int sourcesDone = done.incrementAndGet();
+					progress.progress("Loading " + sourcesDone + " of " + count + " sources...", sourcesDone, count);
+					return built;
+				}));
+			}
+			for (Future<CardCollectionData> future : futures) {
+				cards.addAll(future.get());
+			}
+			return cards;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			if (progress.isCancelled()) {
+				throw new CancellationException();
+			}
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException(cause);
+		} finally {
+			for (Future<CardCollectionData> future : futures) {
+				future.cancel(true);
+			}
+			executor.shutdownNow();
+		}
+	}
+
+	private interface IInputOpener {
+
+		public InputStream open() throws IOException;
+	}
+
+	private static class Source {
+
+		private final ICardInput input;
+		private final IInputOpener opener;
+
+		public Source(ICardInput input, IInputOpener opener) {
+			this.input = input;
+			this.opener = opener;
+		}
+	}
+
+}
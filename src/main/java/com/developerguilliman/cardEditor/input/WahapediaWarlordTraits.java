@@ -18,12 +18,12 @@ package com.developerguilliman.cardEditor.input;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.TreeMap;
 
 import com.developerguilliman.cardEditor.csv.WahapediaCsvBuilder;
+import com.developerguilliman.cardEditor.csv.WahapediaCsvSnapshot;
 import com.developerguilliman.cardEditor.data.CardCollectionData;
 import com.developerguilliman.cardEditor.data.CardData;
 import com.developerguilliman.cardEditor.data.Faction;
@@ -53,6 +53,16 @@ public class WahapediaWarlordTraits implements ICardInput {
 
 	private static final String DESCRIPTION_ROW = "description";
 
+	private static final String[] COLUMNS = { FACTION_ROW, NAME_ROW, TYPE_ROW, LEGEND_ROW, DESCRIPTION_ROW };
+
+	private static final String[] HTML_COLUMNS = { DESCRIPTION_ROW };
+
+	private static final int FACTION_COLUMN = 0;
+	private static final int NAME_COLUMN = 1;
+	private static final int TYPE_COLUMN = 2;
+	private static final int LEGEND_COLUMN = 3;
+	private static final int DESCRIPTION_COLUMN = 4;
+
 	private final LinkedHashMap<String, Faction> factions;
 
 	private final int maxToGroup;
@@ -73,35 +83,24 @@ public class WahapediaWarlordTraits implements ICardInput {
 	public CardCollectionData build(InputStream source) {
 		try {
 
-			WahapediaCsvBuilder wahapediaCsvBuilder = new WahapediaCsvBuilder().build(source);
-			ArrayList<String> header = wahapediaCsvBuilder.getHeader();
-
-			int factionRow = header.indexOf(FACTION_ROW);
-			// int factionNameRow = header.indexOf(FACTION_NAME_ROW);
-			int typeRow = header.indexOf(TYPE_ROW);
-			// int rollRow = header.indexOf(ROLL_ROW);
-			int nameRow = header.indexOf(NAME_ROW);
-			int legendRow = header.indexOf(LEGEND_ROW);
-			int descriptionRow = header.indexOf(DESCRIPTION_ROW);
-
 			TreeMap<String, SectionData> sections = new TreeMap<>();
 
-			for (ArrayList<String> row : wahapediaCsvBuilder.getData()) {
-				String faction = safeGet(row, factionRow);
-				if (!factions.containsKey(faction)) {
-					continue;
+			WahapediaCsvSnapshot.readCells(source, COLUMNS, HTML_COLUMNS, (cells) -> {
+				// Filtered on the read buffer, other factions never create a string
+				if (!cells.matchesAny(FACTION_COLUMN, factions.keySet())) {
+					return;
 				}
-				String name = safeGet(row, nameRow).toUpperCase();
-				String type = safeGet(row, typeRow).toUpperCase();
-				String legend = safeGet(row, legendRow);
-				String description = WahapediaCsvBuilder.stripHtml(safeGet(row, descriptionRow));
+				String name = cells.getString(NAME_COLUMN).toUpperCase();
+				String type = cells.getString(TYPE_COLUMN).toUpperCase();
+				String legend = cells.getString(LEGEND_COLUMN);
+				String description = cells.getString(DESCRIPTION_COLUMN);
 				SectionData sectionData = sections.get(type);
 				if (sectionData == null) {
 					sectionData = new SectionData();
 					sections.put(type, sectionData);
 				}
 				sectionData.add(new CardData(type, name, legend, description, "", ""));
-			}
+			});
 			CardCollectionData cardSections = new CardCollectionData();
 
 			for (SectionData list : sections.values()) {
@@ -128,11 +127,4 @@ public class WahapediaWarlordTraits implements ICardInput {
 		return WahapediaCsvBuilder.getInputStreamFromUrl(STRATAGEM_URL);
 	}
 
-	private static String safeGet(ArrayList<String> row, int index) {
-		if (index < row.size()) {
-			return row.get(index);
-		}
-		return "";
-	}
-
 }
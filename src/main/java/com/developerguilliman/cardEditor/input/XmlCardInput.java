@@ -16,18 +16,12 @@
  */
 package com.developerguilliman.cardEditor.input;
 
-import java.io.IOException;
 import java.io.InputStream;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import com.developerguilliman.cardEditor.Utils;
 import com.developerguilliman.cardEditor.data.CardCollectionData;
@@ -35,61 +29,121 @@ import com.developerguilliman.cardEditor.data.CardData;
 import com.developerguilliman.cardEditor.data.SectionData;
 
 /**
+ * Reads the card XML in a single forward pass, so only the card being read
+ * is kept besides the resulting collection.
  *
  * @author Developer Guilliman <developerguilliman@gmail.com>
  */
 public class XmlCardInput implements ICardInput {
 
+    private static final String[] FIELDS = {"title", "name", "legend", "rules", "costValue", "costType", "cost"};
+    private static final int TITLE = 0;
+    private static final int NAME = 1;
+    private static final int LEGEND = 2;
+    private static final int RULES = 3;
+    private static final int COST_VALUE = 4;
+    private static final int COST_TYPE = 5;
+    private static final int COST = 6;
+
     @Override
     public CardCollectionData build(InputStream source) {
         try {
-            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-            Document doc = dBuilder.parse(source);
-            doc.getDocumentElement().normalize();
-
-            NodeList sectionNodes = doc.getElementsByTagName("section");
-            int len = sectionNodes.getLength();
-            CardCollectionData cardDatas = new CardCollectionData(len);
-            for (int i = 0; i < len; i++) {
-                Node sectionNode = sectionNodes.item(i);
-                if (sectionNode.getNodeType() == Node.ELEMENT_NODE) {
-                    Element sectionElement = (Element) sectionNode;
-                    cardDatas.add(buildStratagemSection(sectionElement));
-                }
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+            XMLStreamReader reader = factory.createXMLStreamReader(source);
+            try {
+                return build(reader);
+            } finally {
+                reader.close();
             }
-            return cardDatas;
-
-        } catch (IOException | ParserConfigurationException | SAXException e) {
+        } catch (XMLStreamException e) {
             throw new RuntimeException(e);
         }
-
     }
 
-    private SectionData buildStratagemSection(Element sectionElement) {
-        NodeList cardNodes = sectionElement.getElementsByTagName("card");
-        int len = cardNodes.getLength();
-        SectionData cardDatas = new SectionData(len);
-        for (int i = 0; i < len; i++) {
-            Node cardNode = cardNodes.item(i);
-            if (cardNode.getNodeType() == Node.ELEMENT_NODE) {
-                Element cardElement = (Element) cardNode;
-                cardDatas.add(buildStratagem(cardElement));
+    private CardCollectionData build(XMLStreamReader reader) throws XMLStreamException {
+
+        CardCollectionData cardDatas = new CardCollectionData();
+        SectionData section = null;
+        String[] fields = null;
+        int field = -1;
+        int fieldDepth = 0;
+        StringBuilder text = new StringBuilder();
+
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (field >= 0) {
+                        fieldDepth++;
+                        break;
+                    }
+                    String element = reader.getLocalName();
+                    if (fields != null) {
+                        field = indexOfField(element);
+                        fieldDepth = 0;
+                        text.setLength(0);
+                    } else if (section != null && "card".equals(element)) {
+                        fields = new String[FIELDS.length];
+                    } else if ("section".equals(element)) {
+                        section = new SectionData();
+                        cardDatas.add(section);
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (field >= 0) {
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    if (field >= 0) {
+                        text.append(reader.getText());
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (field >= 0) {
+                        if (fieldDepth > 0) {
+                            fieldDepth--;
+                            break;
+                        }
+                        // Repeated fields are joined, as their text was
+                        String previous = fields[field];
+                        fields[field] = (previous != null) ? previous.concat(text.toString()) : text.toString();
+                        field = -1;
+                    } else if (fields != null && "card".equals(reader.getLocalName())) {
+                        section.add(buildStratagem(fields));
+                        fields = null;
+                    } else if (fields == null && "section".equals(reader.getLocalName())) {
+                        section = null;
+                    }
+                    break;
+                default:
+                    break;
             }
         }
         return cardDatas;
     }
 
-    private CardData buildStratagem(Element cardElement) {
+    private static int indexOfField(String element) {
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (FIELDS[i].equals(element)) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
-        String title = getText(cardElement, "title", "").replace('\n', ' ');
-        String name = getText(cardElement, "name", "").replace('\n', ' ');
-        String legend = getText(cardElement, "legend", "");
-        String rules = getText(cardElement, "rules", "");
-        String costValue = getText(cardElement, "costValue", null);
-        String costType = getText(cardElement, "costType", null);
+    private CardData buildStratagem(String[] fields) {
+
+        String title = getText(fields, TITLE, "").replace('\n', ' ');
+        String name = getText(fields, NAME, "").replace('\n', ' ');
+        String legend = getText(fields, LEGEND, "");
+        String rules = getText(fields, RULES, "");
+        String costValue = getText(fields, COST_VALUE, null);
+        String costType = getText(fields, COST_TYPE, null);
         if (costValue == null && costType == null) {
-            String oldCost = getText(cardElement, "cost", null);
+            String oldCost = getText(fields, COST, "");
             int io = oldCost.indexOf(' ');
             if (io >= 0) {
                 costValue = oldCost.substring(0, io).replace('\n', ' ');
@@ -106,25 +160,9 @@ public class XmlCardInput implements ICardInput {
 
     }
 
-    private String getText(Element cardElement, String key, String defaultText) {
-
-        NodeList cardNodes = cardElement.getElementsByTagName(key);
-        int len = cardNodes.getLength();
-        if (len == 0) {
-            return defaultText;
-        }
-        if (len == 1) {
-            return Utils.normalize(cardNodes.item(0).getTextContent());
-        }
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < len; i++) {
-            String text = cardNodes.item(i).getTextContent();
-            if (text != null) {
-                sb.append(text);
-            }
-        }
-        return sb.toString();
-
+    private String getText(String[] fields, int field, String defaultText) {
+        String text = fields[field];
+        return (text != null) ? text : defaultText;
     }
 
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.metrics;
+
+import java.util.Map;
+
+/**
+ * The metrics as seen through JMX, under {@value Metrics#OBJECT_NAME}.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public interface IMetricsMXBean {
+
+    Map<String, Long> getCounts();
+
+    Map<String, Double> getTotalMillis();
+
+    String getJsonReport();
+
+    void reset();
+
+}
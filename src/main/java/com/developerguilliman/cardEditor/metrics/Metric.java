@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of times a stage of the import or export ran and, for the timed
+ * ones, the time spent in it. Any thread can add to it without locking.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public final class Metric {
+
+    private final String name;
+    private final boolean timed;
+    private final LongAdder count;
+    private final LongAdder nanos;
+
+    Metric(String name, boolean timed) {
+        this.name = name;
+        this.timed = timed;
+        this.count = new LongAdder();
+        this.nanos = new LongAdder();
+    }
+
+    /**
+     * Adds a run of the stage that started at the given
+     * {@link System#nanoTime()}.
+     */
+    public void record(long startNanos) {
+        nanos.add(System.nanoTime() - startNanos);
+        count.increment();
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isTimed() {
+        return timed;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getNanos() {
+        return nanos.sum();
+    }
+
+    void reset() {
+        count.reset();
+        nanos.reset();
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The metrics of the whole application, every stage of the Wahapedia import
+ * and the pdf export adding to its own {@link Metric}. They can be read
+ * through JMX while the application runs, and written as a JSON report.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public final class Metrics implements IMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.developerguilliman.cardEditor:type=Metrics";
+
+    /**
+     * Set to true to write a JSON report of the metrics next to every
+     * exported pdf.
+     */
+    public static final String REPORT_PROPERTY = "cardEditor.metrics";
+
+    private static final Metrics METRICS = new Metrics();
+
+    private final ConcurrentHashMap<String, Metric> metrics;
+
+    private Metrics() {
+        this.metrics = new ConcurrentHashMap<>();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException | RuntimeException e) {
+            System.out.println("The metrics are not available through JMX: " + e);
+        }
+    }
+
+    public static Metrics get() {
+        return METRICS;
+    }
+
+    public static boolean isReportEnabled() {
+        return Boolean.getBoolean(REPORT_PROPERTY);
+    }
+
+    /**
+     * Returns the metric of a stage whose runs are timed, creating it the
+     * first time.
+     */
+    public Metric timer(String name) {
+        return metrics.computeIfAbsent(name, (n) -> new Metric(n, true));
+    }
+
+    /**
+     * Returns the metric of an event that is only counted, creating it the
+     * first time.
+     */
+    public Metric counter(String name) {
+        return metrics.computeIfAbsent(name, (n) -> new Metric(n, false));
+    }
+
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(metrics.values());
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        TreeMap<String, Long> counts = new TreeMap<>();
+        for (Metric metric : metrics.values()) {
+            counts.put(metric.getName(), metric.getCount());
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getTotalMillis() {
+        TreeMap<String, Double> totals = new TreeMap<>();
+        for (Metric metric : metrics.values()) {
+            if (metric.isTimed()) {
+                totals.put(metric.getName(), metric.getNanos() / 1e6);
+            }
+        }
+        return totals;
+    }
+
+    @Override
+    public String getJsonReport() {
+        return snapshot().toJson();
+    }
+
+    @Override
+    public void reset() {
+        for (Metric metric : metrics.values()) {
+            metric.reset();
+        }
+    }
+
+    /**
+     * Writes what the metrics grew since the snapshot as a JSON file with
+     * the name of the output file and a {@code .metrics.json} suffix, when
+     * the reports are enabled with {@value #REPORT_PROPERTY}. A report that
+     * cannot be written only prints why.
+     */
+    public void writeReportNextTo(File output, MetricsSnapshot since) {
+        if (!isReportEnabled()) {
+            return;
+        }
+        writeReport(new File(output.getPath() + ".metrics.json"), snapshot().minus(since));
+    }
+
+    public static void writeReport(File file, MetricsSnapshot snapshot) {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(snapshot.toJson());
+        } catch (IOException e) {
+            System.out.println("Could not write the metrics report " + file + ": " + e);
+        }
+    }
+
+}
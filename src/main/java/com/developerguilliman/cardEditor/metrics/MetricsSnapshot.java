@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.metrics;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The values of the metrics at one moment, sorted by name.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public final class MetricsSnapshot {
+
+    private final TreeMap<String, long[]> values;
+    private final TreeMap<String, Boolean> timed;
+
+    MetricsSnapshot(Collection<Metric> metrics) {
+        this.values = new TreeMap<>();
+        this.timed = new TreeMap<>();
+        for (Metric metric : metrics) {
+            values.put(metric.getName(), new long[]{metric.getCount(), metric.getNanos()});
+            timed.put(metric.getName(), metric.isTimed());
+        }
+    }
+
+    private MetricsSnapshot(TreeMap<String, long[]> values, TreeMap<String, Boolean> timed) {
+        this.values = values;
+        this.timed = timed;
+    }
+
+    public long getCount(String name) {
+        long[] value = values.get(name);
+        return (value == null) ? 0 : value[0];
+    }
+
+    public long getNanos(String name) {
+        long[] value = values.get(name);
+        return (value == null) ? 0 : value[1];
+    }
+
+    /**
+     * Returns what the metrics grew since the earlier snapshot.
+     */
+    public MetricsSnapshot minus(MetricsSnapshot earlier) {
+        TreeMap<String, long[]> difference = new TreeMap<>();
+        for (Map.Entry<String, long[]> e : values.entrySet()) {
+            String name = e.getKey();
+            difference.put(name, new long[]{e.getValue()[0] - earlier.getCount(name), e.getValue()[1] - earlier.getNanos(name)});
+        }
+        return new MetricsSnapshot(difference, timed);
+    }
+
+    /**
+     * Returns an object with one member per metric, holding its count and,
+     * for the timed ones, the total and mean milliseconds.
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder("{");
+        String separator = "\n";
+        for (Map.Entry<String, long[]> e : values.entrySet()) {
+            long count = e.getValue()[0];
+            sb.append(separator).append("  \"").append(e.getKey()).append("\": {\"count\": ").append(count);
+            if (timed.get(e.getKey())) {
+                double totalMillis = e.getValue()[1] / 1e6;
+                double meanMillis = (count == 0) ? 0 : totalMillis / count;
+                sb.append(String.format(Locale.ROOT, ", \"totalMillis\": %.3f, \"meanMillis\": %.6f", totalMillis, meanMillis));
+            }
+            sb.append('}');
+            separator = ",\n";
+        }
+        return sb.append("\n}\n").toString();
+    }
+
+}
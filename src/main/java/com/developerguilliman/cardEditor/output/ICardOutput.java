@@ -20,10 +20,16 @@ import java.io.IOException;
 import java.io.OutputStream;
 
 import com.developerguilliman.cardEditor.data.CardCollectionData;
+import com.developerguilliman.cardEditor.progress.IProgressHandler;
+import com.developerguilliman.cardEditor.progress.ProgressIgnored;
 import com.developerguilliman.cardEditor.warning.IWarningHandler;
 
 public interface ICardOutput {
 
-    void build(OutputStream out, CardCollectionData cards, IWarningHandler warningHandler) throws IOException;
+    void build(OutputStream out, CardCollectionData cards, IWarningHandler warningHandler, IProgressHandler progressHandler) throws IOException;
+
+    default void build(OutputStream out, CardCollectionData cards, IWarningHandler warningHandler) throws IOException {
+        build(out, cards, warningHandler, new ProgressIgnored());
+    }
 
 }
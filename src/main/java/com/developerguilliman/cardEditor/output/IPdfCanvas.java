@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.output;
+
+import java.awt.Color;
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.util.Matrix;
+
+/**
+ * The subset of the page content stream operators used to draw the cards, so
+ * a page can be either written directly or recorded and written later.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+interface IPdfCanvas {
+
+    void setStrokingColor(Color color) throws IOException;
+
+    void setNonStrokingColor(Color color) throws IOException;
+
+    void addRect(float x, float y, float width, float height) throws IOException;
+
+    void moveTo(float x, float y) throws IOException;
+
+    void lineTo(float x, float y) throws IOException;
+
+    void closePath() throws IOException;
+
+    void stroke() throws IOException;
+
+    void fill() throws IOException;
+
+    void fillAndStroke() throws IOException;
+
+    void setFont(PDFont font, float fontSize) throws IOException;
+
+    void setLeading(float leading) throws IOException;
+
+    void beginText() throws IOException;
+
+    void newLineAtOffset(float tx, float ty) throws IOException;
+
+    void showText(String text) throws IOException;
+
+    void newLine() throws IOException;
+
+    void endText() throws IOException;
+
+    void saveGraphicsState() throws IOException;
+
+    void restoreGraphicsState() throws IOException;
+
+    void transform(Matrix matrix) throws IOException;
+
+    void drawForm(PDFormXObject form) throws IOException;
+
+}
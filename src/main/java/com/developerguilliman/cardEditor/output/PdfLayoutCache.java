@@ -0,0 +1,362 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.output;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.developerguilliman.cardEditor.data.CardData;
+
+/**
+ * Text layout of the cards exported by {@link PdfOutput}: the measured text
+ * widths, the line breaks and the hash of every card. The vertical offsets
+ * and the overflow warnings follow from them, so a card found in the cache is
+ * drawn without measuring any text.
+ * <p>
+ * The layouts are keyed by the six card fields plus the fonts, font sizes,
+ * card size and the borders and bars that move the text, so changing only the
+ * colors keeps every layout valid. The cache can be shared by several
+ * exports, also in parallel, and saved to disk between runs. When it is full
+ * the layout used least recently is dropped.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public class PdfLayoutCache {
+
+    private static final int FILE_MAGIC = 0x43454C43;
+    private static final int FILE_VERSION = 1;
+
+    public static final int DEFAULT_MAX_CARDS = 100000;
+
+    // Longer strings or arrays only come from a broken file
+    private static final int MAX_LENGTH = 1 << 20;
+
+    private final LinkedHashMap<Key, CardLayout> layouts;
+    private boolean modified;
+
+    public PdfLayoutCache() {
+        this(DEFAULT_MAX_CARDS);
+    }
+
+    public PdfLayoutCache(int maxCards) {
+        this.layouts = new LinkedHashMap<Key, CardLayout>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CardLayout> eldest) {
+                return size() > maxCards;
+            }
+        };
+    }
+
+    public synchronized int size() {
+        return layouts.size();
+    }
+
+    public synchronized void clear() {
+        modified |= !layouts.isEmpty();
+        layouts.clear();
+    }
+
+    /**
+     * Tells whether layouts were added or removed since the cache was last
+     * loaded or saved, so it only needs to be written again when it is true.
+     */
+    public synchronized boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Adds the layouts saved with {@link #save(OutputStream)}. Files written
+     * by another version of the layout code are ignored, and a broken file
+     * throws an {@link IOException} without adding any layout.
+     */
+    public void load(InputStream in) throws IOException {
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(in));
+        if (dis.readInt() != FILE_MAGIC || dis.readInt() != FILE_VERSION) {
+            return;
+        }
+        String[] signatures = new String[readLength(dis)];
+        for (int i = 0; i < signatures.length; i++) {
+            signatures[i] = readString(dis);
+            if (signatures[i] == null) {
+                throw new IOException("Broken pdf layout cache");
+            }
+        }
+        int count = dis.readInt();
+        if (count < 0) {
+            throw new IOException("Broken pdf layout cache");
+        }
+        List<Key> keys = new ArrayList<>();
+        List<CardLayout> loaded = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int signatureIndex = dis.readInt();
+            if (signatureIndex < 0 || signatureIndex >= signatures.length) {
+                throw new IOException("Broken pdf layout cache");
+            }
+            keys.add(new Key(signatures[signatureIndex], readString(dis), readString(dis), readString(dis),
+                    readString(dis), readString(dis), readString(dis)));
+            float[] textSizes = new float[readLength(dis)];
+            for (int j = 0; j < textSizes.length; j++) {
+                textSizes[j] = dis.readFloat();
+            }
+            int[] lineEnds = new int[readLength(dis)];
+            for (int j = 0; j < lineEnds.length; j++) {
+                lineEnds[j] = dis.readInt();
+            }
+            loaded.add(new CardLayout(textSizes, lineEnds, readString(dis)));
+        }
+        synchronized (this) {
+            boolean wasModified = modified || !layouts.isEmpty();
+            // Saved from the least to the most recently used, as they are read back
+            for (int i = 0; i < keys.size(); i++) {
+                layouts.put(keys.get(i), loaded.get(i));
+            }
+            modified = wasModified;
+        }
+    }
+
+    /**
+     * Writes every layout, from the least to the most recently used.
+     */
+    public void save(OutputStream out) throws IOException {
+        DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out));
+        List<Map.Entry<Key, CardLayout>> entries;
+        synchronized (this) {
+            entries = new ArrayList<>(layouts.entrySet());
+            modified = false;
+        }
+        Map<String, Integer> signatureIndexes = new HashMap<>();
+        List<String> signatures = new ArrayList<>();
+        for (Map.Entry<Key, CardLayout> entry : entries) {
+            if (signatureIndexes.putIfAbsent(entry.getKey().signature, signatures.size()) == null) {
+                signatures.add(entry.getKey().signature);
+            }
+        }
+
+        try {
+            dos.writeInt(FILE_MAGIC);
+            dos.writeInt(FILE_VERSION);
+            dos.writeInt(signatures.size());
+            for (String signature : signatures) {
+                writeString(dos, signature);
+            }
+            dos.writeInt(entries.size());
+            for (Map.Entry<Key, CardLayout> entry : entries) {
+                Key key = entry.getKey();
+                CardLayout layout = entry.getValue();
+                dos.writeInt(signatureIndexes.get(key.signature));
+                writeString(dos, key.title);
+                writeString(dos, key.name);
+                writeString(dos, key.legend);
+                writeString(dos, key.rules);
+                writeString(dos, key.costValue);
+                writeString(dos, key.costType);
+                dos.writeInt(layout.textSizes.length);
+                for (float textSize : layout.textSizes) {
+                    dos.writeFloat(textSize);
+                }
+                dos.writeInt(layout.lineEnds.length);
+                for (int lineEnd : layout.lineEnds) {
+                    dos.writeInt(lineEnd);
+                }
+                writeString(dos, layout.hash);
+            }
+            dos.flush();
+        } catch (IOException e) {
+            synchronized (this) {
+                modified = true;
+            }
+            throw e;
+        }
+    }
+
+    CardLayout get(String signature, CardData card) {
+        Key key = new Key(signature, card);
+        synchronized (this) {
+            return layouts.get(key);
+        }
+    }
+
+    void put(String signature, CardData card, CardLayout layout) {
+        Key key = new Key(signature, card);
+        synchronized (this) {
+            layouts.put(key, layout);
+            modified = true;
+        }
+    }
+
+    private static int readLength(DataInputStream dis) throws IOException {
+        int length = dis.readInt();
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new IOException("Broken pdf layout cache");
+        }
+        return length;
+    }
+
+    private static String readString(DataInputStream dis) throws IOException {
+        int length = dis.readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new IOException("Broken pdf layout cache");
+        }
+        byte[] bytes = new byte[length];
+        dis.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream dos, String s) throws IOException {
+        if (s == null) {
+            dos.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        dos.writeInt(bytes.length);
+        dos.write(bytes);
+    }
+
+    /**
+     * Measurements of one card, in the order the card drawing asks for them.
+     */
+    static class CardLayout {
+
+        private float[] textSizes;
+        private int textSizeCount;
+        private int[] lineEnds;
+        private int lineEndCount;
+        private String hash;
+
+        CardLayout() {
+            this.textSizes = new float[8];
+            this.lineEnds = new int[16];
+        }
+
+        private CardLayout(float[] textSizes, int[] lineEnds, String hash) {
+            this.textSizes = textSizes;
+            this.textSizeCount = textSizes.length;
+            this.lineEnds = lineEnds;
+            this.lineEndCount = lineEnds.length;
+            this.hash = hash;
+        }
+
+        float getTextSize(int index) {
+            return textSizes[index];
+        }
+
+        void addTextSize(float textSize) {
+            if (textSizeCount == textSizes.length) {
+                textSizes = Arrays.copyOf(textSizes, textSizeCount * 2);
+            }
+            textSizes[textSizeCount++] = textSize;
+        }
+
+        int getLineEnd(int index) {
+            return lineEnds[index];
+        }
+
+        void addLineEnd(int lineEnd) {
+            if (lineEndCount == lineEnds.length) {
+                lineEnds = Arrays.copyOf(lineEnds, lineEndCount * 2);
+            }
+            lineEnds[lineEndCount++] = lineEnd;
+        }
+
+        String getHash() {
+            return hash;
+        }
+
+        void setHash(String hash) {
+            this.hash = hash;
+        }
+
+        CardLayout trim() {
+            textSizes = Arrays.copyOf(textSizes, textSizeCount);
+            lineEnds = Arrays.copyOf(lineEnds, lineEndCount);
+            return this;
+        }
+
+    }
+
+    private static class Key {
+
+        final String signature;
+        final String title;
+        final String name;
+        final String legend;
+        final String rules;
+        final String costValue;
+        final String costType;
+        private final int hashCode;
+
+        Key(String signature, CardData card) {
+            this(signature, card.getTitle(), card.getName(), card.getLegend(), card.getRules(), card.getCostValue(), card.getCostType());
+        }
+
+        Key(String signature, String title, String name, String legend, String rules, String costValue, String costType) {
+            this.signature = signature;
+            this.title = title;
+            this.name = name;
+            this.legend = legend;
+            this.rules = rules;
+            this.costValue = costValue;
+            this.costType = costType;
+            this.hashCode = Objects.hash(signature, title, name, legend, rules, costValue, costType);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hashCode == other.hashCode
+                    && signature.equals(other.signature)
+                    && Objects.equals(title, other.title)
+                    && Objects.equals(name, other.name)
+                    && Objects.equals(legend, other.legend)
+                    && Objects.equals(rules, other.rules)
+                    && Objects.equals(costValue, other.costValue)
+                    && Objects.equals(costType, other.costType);
+        }
+
+    }
+
+}
@@ -17,28 +17,57 @@
 package com.developerguilliman.cardEditor.output;
 
 import java.awt.Color;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Iterator;
-
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDDocumentInformation;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDSimpleFont;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
 import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
+import org.apache.pdfbox.util.Matrix;
 
 import com.developerguilliman.cardEditor.CardHash;
 import com.developerguilliman.cardEditor.Utils;
 import com.developerguilliman.cardEditor.data.CardCollectionData;
 import com.developerguilliman.cardEditor.data.CardData;
 import com.developerguilliman.cardEditor.data.SectionData;
+import com.developerguilliman.cardEditor.metrics.Metric;
+import com.developerguilliman.cardEditor.metrics.Metrics;
+import com.developerguilliman.cardEditor.progress.IProgressHandler;
 import com.developerguilliman.cardEditor.warning.IWarningHandler;
+import com.developerguilliman.cardEditor.warning.WarningArrayList;
 import com.developerguilliman.cardEditor.warning.WarningConsoleOut;
+import com.developerguilliman.cardEditor.warning.WarningCounter;
 
 /**
  *
@@ -51,7 +80,26 @@ public class PdfOutput implements ICardOutput {
     private static final float LEADING_INTERTEXT_FACTOR = 0.25f;
     private static final float MIN_Y_FONT_FACTOR = 1.25f;
     private static final Color VERY_LIGHT_GRAY = new Color(0xe7, 0xe7, 0xe7);
+    // The fonts every pdf reader has, the only ones a settings file can name
+    private static final PDType1Font[] STANDARD_FONTS = {
+        PDType1Font.TIMES_ROMAN, PDType1Font.TIMES_BOLD, PDType1Font.TIMES_ITALIC, PDType1Font.TIMES_BOLD_ITALIC,
+        PDType1Font.HELVETICA, PDType1Font.HELVETICA_BOLD, PDType1Font.HELVETICA_OBLIQUE, PDType1Font.HELVETICA_BOLD_OBLIQUE,
+        PDType1Font.COURIER, PDType1Font.COURIER_BOLD, PDType1Font.COURIER_OBLIQUE, PDType1Font.COURIER_BOLD_OBLIQUE,
+        PDType1Font.SYMBOL, PDType1Font.ZAPF_DINGBATS
+    };
+    private static final String NO_COLOR = "none";
+
+    private static final Metric DOCUMENT_METRIC = Metrics.get().timer("pdf.document");
+    // The pages and cards are timed where they are laid out, in parallel or not
+    private static final Metric PAGE_METRIC = Metrics.get().timer("pdf.page");
+    private static final Metric CARD_METRIC = Metrics.get().timer("pdf.card");
+    // Every warning of the pdf output is a text or a cost overflowing its card
+    private static final Metric OVERFLOW_METRIC = Metrics.get().counter("pdf.overflow");
     private static final float EXTRA_GRID = 5;
+    // Room around the form bounding boxes for the stroke joins
+    private static final float FORM_BOX_MARGIN = 2;
+    // Part of the layout cache keys, to change when the text layout changes
+    private static final int LAYOUT_VERSION = 1;
 
     public static final PDRectangle DEFAULT_PAGE_SIZE = PDRectangle.A4;
 
@@ -88,6 +136,13 @@ public class PdfOutput implements ICardOutput {
     public static final boolean DEFAULT_FILL_UNUSED_CARD_SLOTS = false;
     public static final boolean DEFAULT_FILL_UNUSED_CARD_SLOTS_COST = false;
     public static final boolean DEFAULT_FILL_UNUSED_CARD_SLOTS_TITLES = false;
+    public static final boolean DEFAULT_PARALLEL = false;
+    public static final boolean DEFAULT_SCRATCH_FILE = false;
+
+    // Pages laid out ahead of the one being written, per worker thread
+    private static final int PARALLEL_PAGES_AHEAD_FACTOR = 4;
+    // Page contents kept in memory before moving them to the scratch file
+    private static final long SCRATCH_FILE_MAIN_MEMORY_BYTES = 4 * 1024 * 1024;
 
     private final PDRectangle pageSize;
 
@@ -121,8 +176,12 @@ public class PdfOutput implements ICardOutput {
     private final boolean fillUnusedCardSlotsTitles;
     private final boolean fillUnusedCardSlotsBorders;
 
+    private final boolean parallel;
+    private final boolean scratchFile;
+    private final PdfLayoutCache layoutCache;
+
     private final CardHash cardHash;
-    private final StringBuilder printedTextBuffer;
+    private final ThreadLocal<StringBuilder> printedTextBuffers;
 
     public PdfOutput(DefaultPreset preset) {
 
@@ -159,8 +218,12 @@ public class PdfOutput implements ICardOutput {
         this.fillUnusedCardSlotsBorders = DEFAULT_FILL_UNUSED_CARD_SLOTS_COST;
         this.fillUnusedCardSlotsTitles = DEFAULT_FILL_UNUSED_CARD_SLOTS_TITLES;
 
+        this.parallel = DEFAULT_PARALLEL;
+        this.scratchFile = DEFAULT_SCRATCH_FILE;
+        this.layoutCache = null;
+
         this.cardHash = new CardHash();
-        this.printedTextBuffer = new StringBuilder();
+        this.printedTextBuffers = ThreadLocal.withInitial(StringBuilder::new);
     }
 
     private PdfOutput(PDRectangle pageSize, int perX, int perY, float marginPercentX, float marginPercentY,
@@ -169,7 +232,8 @@ public class PdfOutput implements ICardOutput {
             Color cardBordersColor, Color costBordersColor,
             Color cardFillColor, Color costValueFillColor, Color costTypeFillColor,
             Color foregroundGridColor, Color backgroundGridColor,
-            boolean backgroundPages, boolean fillUnusedCardSlots, boolean fillUnusedCardSlotsBorders, boolean fillUnusedCardSlotsTitles) {
+            boolean backgroundPages, boolean fillUnusedCardSlots, boolean fillUnusedCardSlotsBorders, boolean fillUnusedCardSlotsTitles,
+            boolean parallel, boolean scratchFile, PdfLayoutCache layoutCache) {
 
         this.pageSize = pageSize;
         this.perX = perX;
@@ -203,18 +267,27 @@ public class PdfOutput implements ICardOutput {
         this.fillUnusedCardSlotsBorders = fillUnusedCardSlotsBorders;
         this.fillUnusedCardSlotsTitles = fillUnusedCardSlotsTitles;
 
+        this.parallel = parallel;
+        this.scratchFile = scratchFile;
+        this.layoutCache = layoutCache;
+
         this.cardHash = new CardHash();
-        this.printedTextBuffer = new StringBuilder();
+        this.printedTextBuffers = ThreadLocal.withInitial(StringBuilder::new);
     }
 
     @Override
-    public void build(OutputStream out, CardCollectionData cards, IWarningHandler warningHandler) throws IOException {
-
-        try ( PDDocument document = new PDDocument()) {
-            buildDocument(document, cards, warningHandler);
+    public void build(OutputStream out, CardCollectionData cards, IWarningHandler warningHandler, IProgressHandler progressHandler) throws IOException {
+
+        long start = System.nanoTime();
+        MemoryUsageSetting memoryUsage = scratchFile ? MemoryUsageSetting.setupMixed(SCRATCH_FILE_MAIN_MEMORY_BYTES) : MemoryUsageSetting.setupMainMemoryOnly();
+        try ( PDDocument document = new PDDocument(memoryUsage)) {
+            buildDocument(document, cards, new WarningCounter(warningHandler, OVERFLOW_METRIC), progressHandler);
+            progressHandler.checkCancelled();
+            progressHandler.progress("Saving pdf...", 0, 0);
             document.save(out);
 
         }
+        DOCUMENT_METRIC.record(start);
 
     }
 
@@ -222,7 +295,7 @@ public class PdfOutput implements ICardOutput {
         build(out, cards, new WarningConsoleOut());
     }
 
-    private void buildDocument(PDDocument document, CardCollectionData cards, IWarningHandler warningHandler) throws IOException {
+    private void buildDocument(PDDocument document, CardCollectionData cards, IWarningHandler warningHandler, IProgressHandler progressHandler) throws IOException {
 
         Calendar now = Calendar.getInstance();
         PDDocumentInformation info = new PDDocumentInformation();
@@ -234,73 +307,149 @@ public class PdfOutput implements ICardOutput {
 
         document.getDocumentCatalog().setDocumentOutline(new PDDocumentOutline());
 
+        PageTemplate template = createPageTemplate(document);
+
+        int cardsPerPage = perX * perY;
+        int pageCount = 0;
+        for (SectionData section : cards) {
+            pageCount += (section.size() + cardsPerPage - 1) / cardsPerPage;
+        }
+
+        if (parallel) {
+            buildParallelPages(document, template, cards, warningHandler, progressHandler, pageCount);
+            return;
+        }
+
+        int builtPages = 0;
         for (SectionData sections : cards) {
             boolean first = true;
             Iterator<CardData> cardIterator = sections.iterator();
             while (cardIterator.hasNext()) {
-                int printedCards = buildForegroundPage(document, sections, cardIterator, first, warningHandler);
+                progressHandler.checkCancelled();
+                int printedCards = buildForegroundPage(document, template, sections, cardIterator, first, warningHandler);
                 first = false;
                 if (backgroundPages) {
-                    buildBackgroundPage(document, printedCards);
+                    buildBackgroundPage(document, template, printedCards);
                 }
+                progressHandler.progress(pagesLabel(++builtPages, pageCount), builtPages, pageCount);
             }
         }
 
     }
 
-    private int buildForegroundPage(PDDocument document, SectionData section, Iterator<CardData> cardIterator, boolean first, IWarningHandler warningHandler) throws IOException {
-        PDPage page = new PDPage(pageSize);
-        document.addPage(page);
-        if (first) {
-            String sectionTitle = section.getName();
-            PDOutlineItem outlineItem = new PDOutlineItem();
-            outlineItem.setDestination(page);
-            outlineItem.setTitle(sectionTitle.isEmpty() ? "Various cards" : sectionTitle);
-            document.getDocumentCatalog().getDocumentOutline().addLast(outlineItem);
+    /**
+     * Lays out the foreground pages on the common fork join pool and writes
+     * them into the document in the same order as the sequential build, so
+     * the outline, the page numbers of the warnings and the card hashes are
+     * the same. Only a few pages per worker are laid out ahead of the one
+     * being written.
+     */
+    private void buildParallelPages(PDDocument document, PageTemplate template, CardCollectionData cards, IWarningHandler warningHandler, IProgressHandler progressHandler, int pageCount) throws IOException {
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int maxPagesAhead = pool.getParallelism() * PARALLEL_PAGES_AHEAD_FACTOR;
+        int cardsPerPage = perX * perY;
+
+        ArrayDeque<LaidOutPage> pendingPages = new ArrayDeque<>(maxPagesAhead + 1);
+        int pageIndex = 0;
+        int writtenPages = 0;
+        try {
+            for (SectionData section : cards) {
+                List<CardData> sectionCards = new ArrayList<>(section);
+                for (int from = 0; from < sectionCards.size(); from += cardsPerPage) {
+                    progressHandler.checkCancelled();
+                    List<CardData> pageCards = sectionCards.subList(from, Math.min(from + cardsPerPage, sectionCards.size()));
+                    pageIndex++;
+                    LaidOutPage laidOutPage = new LaidOutPage(section, from == 0, pageCards.size());
+                    laidOutPage.layout = pool.submit(layoutForegroundPage(laidOutPage, template, pageCards, pageIndex));
+                    pendingPages.add(laidOutPage);
+                    if (backgroundPages) {
+                        pageIndex++;
+                    }
+                    if (pendingPages.size() > maxPagesAhead) {
+                        writeLaidOutPage(document, template, pendingPages.poll(), warningHandler);
+                        progressHandler.progress(pagesLabel(++writtenPages, pageCount), writtenPages, pageCount);
+                    }
+                }
+            }
+            while (!pendingPages.isEmpty()) {
+                progressHandler.checkCancelled();
+                writeLaidOutPage(document, template, pendingPages.poll(), warningHandler);
+                progressHandler.progress(pagesLabel(++writtenPages, pageCount), writtenPages, pageCount);
+            }
+        } finally {
+            // Only left when the build stopped early
+            for (LaidOutPage laidOutPage : pendingPages) {
+                laidOutPage.layout.cancel(false);
+            }
         }
-        try ( PDPageContentStream cs = new PDPageContentStream(document, page)) {
-
-            final float pageWidth = page.getBBox().getWidth();
-            final float pageHeight = page.getBBox().getHeight();
-
-            final float printableWidth = pageWidth * (100 - marginPercentX) / 100;
-            final float printableHeight = pageHeight * (100 - marginPercentY) / 100;
+    }
 
-            final float marginX = (pageWidth - printableWidth) / 2;
-            final float marginY = (pageHeight - printableHeight) / 2;
+    private static String pagesLabel(int builtPages, int pageCount) {
+        return "Creating page " + builtPages + " of " + pageCount + "...";
+    }
 
-            final float cardWidth = printableWidth / perX;
-            final float cardHeight = printableHeight / perY;
+    private Callable<Void> layoutForegroundPage(LaidOutPage laidOutPage, PageTemplate template, List<CardData> pageCards, int pageIndex) {
+        return () -> {
+            buildForegroundContent(laidOutPage.canvas, template, pageCards.iterator(), pageIndex, laidOutPage.warnings);
+            return null;
+        };
+    }
 
-            int printedCards = buildCardsContentPage(cs, cardIterator, marginX, marginY, cardWidth, cardHeight, document.getPages().getCount(), warningHandler);
-            buildPageGrid(cs, marginX, marginY, printableWidth, printableHeight, cardWidth, cardHeight, foregroundGridColor);
-            return printedCards;
+    private void writeLaidOutPage(PDDocument document, PageTemplate template, LaidOutPage laidOutPage, IWarningHandler warningHandler) throws IOException {
+        try {
+            laidOutPage.layout.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while laying out the pages");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+        PDPage page = addForegroundPage(document, laidOutPage.section, laidOutPage.first);
+        try ( PDPageContentStream cs = new PDPageContentStream(document, page)) {
+            laidOutPage.canvas.replay(new PdfStreamCanvas(cs));
+        }
+        for (String warning : laidOutPage.warnings.getWarnings()) {
+            warningHandler.warn(warning);
+        }
+        if (backgroundPages) {
+            buildBackgroundPage(document, template, laidOutPage.printedCards);
+        }
+    }
 
+    private int buildForegroundPage(PDDocument document, PageTemplate template, SectionData section, Iterator<CardData> cardIterator, boolean first, IWarningHandler warningHandler) throws IOException {
+        PDPage page = addForegroundPage(document, section, first);
+        try ( PDPageContentStream cs = new PDPageContentStream(document, page)) {
+            return buildForegroundContent(new PdfStreamCanvas(cs), template, cardIterator, document.getPages().getCount(), warningHandler);
         }
     }
 
-    private void buildBackgroundPage(PDDocument document, int printedCards) throws IOException {
+    private PDPage addForegroundPage(PDDocument document, SectionData section, boolean first) {
         PDPage page = new PDPage(pageSize);
         document.addPage(page);
-        try ( PDPageContentStream cs = new PDPageContentStream(document, page)) {
-            final float pageWidth = page.getBBox().getWidth();
-            final float pageHeight = page.getBBox().getHeight();
-
-            final float printableWidth = pageWidth * (100 - marginPercentX) / 100;
-            final float printableHeight = pageHeight * (100 - marginPercentY) / 100;
-
-            final float marginX = (pageWidth - printableWidth) / 2;
-            final float marginY = (pageHeight - printableHeight) / 2;
-
-            final float cardWidth = printableWidth / perX;
-            final float cardHeight = printableHeight / perY;
-
-            buildCardsBackgroundPage(cs, printedCards, marginX, marginY, cardWidth, cardHeight);
-            buildPageGrid(cs, marginX, marginY, printableWidth, printableHeight, cardWidth, cardHeight, backgroundGridColor);
+        if (first) {
+            String sectionTitle = section.getName();
+            PDOutlineItem outlineItem = new PDOutlineItem();
+            outlineItem.setDestination(page);
+            outlineItem.setTitle(sectionTitle.isEmpty() ? "Various cards" : sectionTitle);
+            document.getDocumentCatalog().getDocumentOutline().addLast(outlineItem);
         }
+        return page;
+    }
+
+    private int buildForegroundContent(IPdfCanvas cs, PageTemplate template, Iterator<CardData> cardIterator, int pageIndex, IWarningHandler warningHandler) throws IOException {
+        long start = System.nanoTime();
+        int printedCards = buildCardsContentPage(cs, template, cardIterator, pageIndex, warningHandler);
+        drawForm(cs, template.foregroundGrid);
+        PAGE_METRIC.record(start);
+        return printedCards;
     }
 
-    private int buildCardsContentPage(PDPageContentStream cs, Iterator<CardData> cardIterator, float marginX, float marginY, float cardWidth, float cardHeight, int pageIndex, IWarningHandler warningHandler) throws IOException {
+    private int buildCardsContentPage(IPdfCanvas cs, PageTemplate template, Iterator<CardData> cardIterator, int pageIndex, IWarningHandler warningHandler) throws IOException {
 
         int printedCards = 0;
 
@@ -308,36 +457,46 @@ public class PdfOutput implements ICardOutput {
         for (int numY = perY - 1; numY >= 0; numY--) {
             // Left to Right
             for (int numX = 0; numX < perX; numX++) {
-                float x = cardWidth * numX + marginX;
-                float y = cardHeight * numY + marginY;
+                float x = template.cardWidth * numX + template.marginX;
+                float y = template.cardHeight * numY + template.marginY;
                 if (!cardIterator.hasNext()) {
                     if (fillUnusedCardSlots) {
-                        printCardEmptyForeground(cs, x, y, cardWidth, cardHeight, printedCards, pageIndex, warningHandler);
+                        printCardEmptyForeground(cs, template, x, y, template.cardWidth, template.cardHeight, printedCards, pageIndex, warningHandler);
                     } else {
                         return printedCards;
                     }
                 } else {
                     CardData card = cardIterator.next();
                     printedCards++;
-                    String hash = printCardForeground(cs, card, x, y, cardWidth, cardHeight, printedCards, pageIndex, warningHandler);
-                    printCardHash(cs, hash, x, y, cardWidth);
+                    long start = System.nanoTime();
+                    printCardForeground(cs, template, card, x, y, template.cardWidth, template.cardHeight, printedCards, pageIndex, warningHandler);
+                    CARD_METRIC.record(start);
                 }
             }
         }
         return printedCards;
     }
 
-    private void buildCardsBackgroundPage(PDPageContentStream cs, int printedCards,
-            float marginX, float marginY, float cardWidth, float cardHeight) throws IOException {
+    private void buildBackgroundPage(PDDocument document, PageTemplate template, int printedCards) throws IOException {
+        PDPage page = new PDPage(pageSize);
+        document.addPage(page);
+        try ( PDPageContentStream cs = new PDPageContentStream(document, page)) {
+            IPdfCanvas canvas = new PdfStreamCanvas(cs);
+            buildCardsBackgroundPage(canvas, template, printedCards);
+            drawForm(canvas, template.backgroundGrid);
+        }
+    }
+
+    private void buildCardsBackgroundPage(IPdfCanvas cs, PageTemplate template, int printedCards) throws IOException {
 
         // Up to Down
         for (int numY = perY - 1; numY >= 0; numY--) {
             // Left to Right
             for (int numX = 0; numX < perX; numX++) {
-                float x = cardWidth * numX + marginX;
-                float y = cardHeight * numY + marginY;
+                float x = template.cardWidth * numX + template.marginX;
+                float y = template.cardHeight * numY + template.marginY;
                 if (fillUnusedCardSlots || printedCards > 0) {
-                    printCardBackground(cs, x, y, cardWidth, cardHeight);
+                    drawCardFrame(cs, template, x, y);
                     printedCards--;
                 } else {
                     return;
@@ -346,7 +505,127 @@ public class PdfOutput implements ICardOutput {
         }
     }
 
-    private void buildPageGrid(PDPageContentStream cs, float marginX, float marginY, float printableWidth,
+    /**
+     * Draws once, as form XObjects, the vector paths that are the same in
+     * every page and card of the document: the page grids, the card
+     * background and borders and the cost borders of the cards whose cost
+     * type fits in the default width. Each page then only references them.
+     */
+    private PageTemplate createPageTemplate(PDDocument document) throws IOException {
+
+        PageTemplate template = new PageTemplate();
+
+        final float pageWidth = pageSize.getWidth();
+        final float pageHeight = pageSize.getHeight();
+
+        final float printableWidth = pageWidth * (100 - marginPercentX) / 100;
+        final float printableHeight = pageHeight * (100 - marginPercentY) / 100;
+
+        template.marginX = (pageWidth - printableWidth) / 2;
+        template.marginY = (pageHeight - printableHeight) / 2;
+
+        template.cardWidth = printableWidth / perX;
+        template.cardHeight = printableHeight / perY;
+
+        PDRectangle pageBox = new PDRectangle(pageWidth, pageHeight);
+        if (foregroundGridColor != null) {
+            template.foregroundGrid = createForm(document, pageBox, cs -> buildPageGrid(cs, template.marginX, template.marginY,
+                    printableWidth, printableHeight, template.cardWidth, template.cardHeight, foregroundGridColor));
+        }
+        if (backgroundGridColor != null) {
+            template.backgroundGrid = createForm(document, pageBox, cs -> buildPageGrid(cs, template.marginX, template.marginY,
+                    printableWidth, printableHeight, template.cardWidth, template.cardHeight, backgroundGridColor));
+        }
+
+        PDRectangle cardBox = new PDRectangle(-FORM_BOX_MARGIN, -FORM_BOX_MARGIN,
+                template.cardWidth + 2 * FORM_BOX_MARGIN, template.cardHeight + 2 * FORM_BOX_MARGIN);
+        if (cardBackgroundColor != null || cardBordersColor != null || cardFillColor != null) {
+            template.cardFrame = createForm(document, cardBox, cs -> printCardFrame(cs, 0, 0, template.cardWidth, template.cardHeight));
+        }
+
+        if (costBordersColor != null) {
+            boolean marginForCardBorders = (cardBordersColor != null || cardFillColor != null);
+            float bordersMargin = Math.min(template.cardWidth, template.cardHeight);
+            bordersMargin *= marginForCardBorders ? 0.04f : 0.025f;
+            float width = template.cardWidth - 2 * bordersMargin;
+            float poligon6Width = width * 0.5f;
+            float poligon6Height = Math.max(costValueFont.size, costTypeFont.size * 1.5f);
+
+            template.costValueAndType = createForm(document, cardBox, cs -> drawCostPoligons(cs, 0, 0, width, poligon6Width, poligon6Height, true, true));
+            template.costValue = createForm(document, cardBox, cs -> drawCostPoligons(cs, 0, 0, width, poligon6Width, poligon6Height, true, false));
+            template.costType = createForm(document, cardBox, cs -> drawCostPoligons(cs, 0, 0, width, poligon6Width, poligon6Height, false, true));
+        }
+        if (layoutCache != null) {
+            template.layoutSignature = createLayoutSignature(template);
+        }
+        return template;
+    }
+
+    /**
+     * Everything but the card text that changes where the text is broken
+     * and placed: the fonts, the card size and the borders and bars that
+     * take room from the text.
+     */
+    private String createLayoutSignature(PageTemplate template) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(LAYOUT_VERSION);
+        sb.append('|').append(template.cardWidth).append('x').append(template.cardHeight);
+        for (FontData font : new FontData[]{titleFont, nameFont, legendFont, rulesFont, costValueFont, costTypeFont, hashFont}) {
+            sb.append('|').append(font.font.getName()).append(' ').append(font.size);
+        }
+        sb.append('|').append(cardBordersColor != null || cardFillColor != null);
+        sb.append(costBordersColor != null);
+        sb.append(titleBarsColor != null);
+        sb.append(upperBarColor != null);
+        sb.append(lowerBarColor != null);
+        return sb.toString();
+    }
+
+    private static PDFormXObject createForm(PDDocument document, PDRectangle bBox, IFormPainter painter) throws IOException {
+        PDFormXObject form = new PDFormXObject(document);
+        form.setResources(new PDResources());
+        form.setBBox(bBox);
+        try ( PDPageContentStream cs = new PDPageContentStream(document, form, form.getContentStream().createOutputStream(COSName.FLATE_DECODE))) {
+            painter.paint(new PdfStreamCanvas(cs));
+        }
+        return form;
+    }
+
+    private static void drawForm(IPdfCanvas cs, PDFormXObject form) throws IOException {
+        if (form != null) {
+            cs.drawForm(form);
+        }
+    }
+
+    private static void drawForm(IPdfCanvas cs, PDFormXObject form, float x, float y) throws IOException {
+        cs.saveGraphicsState();
+        cs.transform(Matrix.getTranslateInstance(x, y));
+        cs.drawForm(form);
+        cs.restoreGraphicsState();
+    }
+
+    private void drawCardFrame(IPdfCanvas cs, PageTemplate template, float x, float y) throws IOException {
+        if (template.cardFrame != null) {
+            drawForm(cs, template.cardFrame, x, y);
+        }
+    }
+
+    /**
+     * Draws the cost borders from the forms of the page template when they
+     * have the shape the template drew, told by the caller from the margins
+     * and texts the sizes come from, or draws them again otherwise.
+     */
+    private void drawCostChrome(IPdfCanvas cs, PageTemplate template, float x, float y, float width,
+            float poligon6Width, float poligon6Height, boolean costValue, boolean costType, boolean templateShape) throws IOException {
+
+        if (templateShape) {
+            drawForm(cs, costValue ? (costType ? template.costValueAndType : template.costValue) : template.costType, x, y);
+        } else {
+            drawCostPoligons(cs, x, y, width, poligon6Width, poligon6Height, costValue, costType);
+        }
+    }
+
+    private void buildPageGrid(IPdfCanvas cs, float marginX, float marginY, float printableWidth,
             float printableHeight, float width, float height, Color gridColor) throws IOException {
 
         if (gridColor == null) {
@@ -368,13 +647,9 @@ public class PdfOutput implements ICardOutput {
         }
     }
 
-    private void printCardEmptyForeground(PDPageContentStream cs, float x, float y, float width, float height, int cardIndex, int pageIndex, IWarningHandler warningHandler) throws IOException {
+    private void printCardEmptyForeground(IPdfCanvas cs, PageTemplate template, float x, float y, float width, float height, int cardIndex, int pageIndex, IWarningHandler warningHandler) throws IOException {
 
-        if (cardBackgroundColor != null) {
-            cs.setNonStrokingColor(cardBackgroundColor);
-            cs.addRect(x, y, width, height);
-            cs.fill();
-        }
+        drawCardFrame(cs, template, x, y);
 
         boolean marginForCardBorders = (cardBordersColor != null || cardFillColor != null);
         float bordersMargin = Math.min(width, height);
@@ -384,18 +659,12 @@ public class PdfOutput implements ICardOutput {
         x += bordersMargin;
         y += bordersMargin;
 
-        if (marginForCardBorders) {
-            float blankSpace = Math.min(width, height) * 0.1f;
-            drawCardPoligon(cs, x, y, width, height, blankSpace, cardBordersColor, cardFillColor);
-        }
         if (fillUnusedCardSlotsBorders) {
             float minY;
             float costValueBottomY;
             float costTypeBottomY;
             float poligon6Width;
             float poligon8Side;
-            float costValueX;
-            float costTypeX;
             if (costBordersColor == null) {
                 float maxFont = Math.max(costValueFont.size, costTypeFont.size) * MIN_Y_FONT_FACTOR;
                 minY = y + maxFont;
@@ -407,24 +676,20 @@ public class PdfOutput implements ICardOutput {
                 poligon6Width = width * 0.5f;
                 float poligon6Min = Math.min(poligon6Width, poligon6Height);
 
-                float poligon6BlankSpace = poligon6Min * 0.1f;
                 float poligon8ExtraSide = poligon6Min * 0.25f;
                 poligon8Side = poligon6Height + 2 * poligon8ExtraSide;
                 minY = y + 4;
                 costValueBottomY = costTypeBottomY = minY;
-                float costZoneMarginX = (width - poligon6Width - poligon8Side) / 2;
 
                 if (poligon6Width + poligon8Side > width) {
                     warningHandler.warn("Cost borders too wide in card " + cardIndex + ", page:" + pageIndex + ".");
                 }
-                costValueX = costTypeX = x + costZoneMarginX;
 
                 minY += poligon8Side;
-                costTypeX += poligon8Side;
                 costTypeBottomY += poligon8ExtraSide;
 
-                drawCostPoligon(cs, costTypeX, costTypeBottomY, poligon6Width, poligon6Height, poligon6BlankSpace, costBordersColor, costTypeFillColor);
-                drawCardPoligon(cs, costValueX, costValueBottomY, poligon8Side, poligon8Side, poligon8ExtraSide, costBordersColor, costValueFillColor);
+                // Without card borders the empty slots keep a narrower margin than the template
+                drawCostChrome(cs, template, x, y, width, poligon6Width, poligon6Height, true, true, marginForCardBorders);
 
                 costValueBottomY += poligon8ExtraSide + costValueFont.getHeight() + ((poligon6Height - costValueFont.size) / 2) + 1;
                 costTypeBottomY += costTypeFont.getHeight() + ((poligon6Height - costTypeFont.size) / 2) + 1;
@@ -460,7 +725,11 @@ public class PdfOutput implements ICardOutput {
 
     }
 
-    private String printCardForeground(PDPageContentStream cs, CardData card, float x, float y, float width, float height, int cardIndex, int pageIndex, IWarningHandler warningHandler) throws IOException {
+    private void printCardForeground(IPdfCanvas cs, PageTemplate template, CardData card, float x, float y, float width, float height, int cardIndex, int pageIndex, IWarningHandler warningHandler) throws IOException {
+
+        final float cardX = x;
+        final float cardY = y;
+        final float cardWidth = width;
 
         String title = card.getTitle().replace("\t", TAB_SPACES).trim();
         String name = card.getName().replace("\t", TAB_SPACES).trim();
@@ -469,16 +738,21 @@ public class PdfOutput implements ICardOutput {
         String costValue = card.getCostValue().replace("\t", TAB_SPACES).trim();
         String costType = card.getCostType().replace("\t", TAB_SPACES).trim();
 
+        StringBuilder printedTextBuffer = printedTextBuffers.get();
         printedTextBuffer.setLength(0);
 
+        PdfLayoutCache.CardLayout cachedLayout = (layoutCache != null) ? layoutCache.get(template.layoutSignature, card) : null;
+        TextMeasurer measurer;
+        if (cachedLayout != null) {
+            measurer = new TextMeasurer(cachedLayout, true);
+        } else {
+            measurer = new TextMeasurer((layoutCache != null) ? new PdfLayoutCache.CardLayout() : null, false);
+        }
+
 //        if (foregroundImage != null) {
 //            cs.drawImage(foregroundImage, x, y, width, height);
 //        }
-        if (cardBackgroundColor != null) {
-            cs.setNonStrokingColor(cardBackgroundColor);
-            cs.addRect(x, y, width, height);
-            cs.fill();
-        }
+        drawCardFrame(cs, template, x, y);
 
         final float titleTextWidth;
         final float normalTextWidth;
@@ -491,8 +765,6 @@ public class PdfOutput implements ICardOutput {
         y += bordersMargin;
 
         if (cardBordersColor != null || cardFillColor != null) {
-            float blankSpace = Math.min(width, height) * 0.1f;
-            drawCardPoligon(cs, x, y, width, height, blankSpace, cardBordersColor, cardFillColor);
             titleTextWidth = width * 0.85f;
             normalTextWidth = width * 0.9f;
         } else {
@@ -518,8 +790,8 @@ public class PdfOutput implements ICardOutput {
         } else if (costBordersColor == null) {
             float maxFont = Math.max(costValueFont.size, costTypeFont.size) * MIN_Y_FONT_FACTOR;
             minY = y + maxFont;
-            poligon8Side = costValueFont.getTextSize(costValue.concat(" "));
-            poligon6Width = costTypeFont.getTextSize(" ".concat(costType));
+            poligon8Side = measurer.getTextSize(costValueFont, costValue.concat(" "));
+            poligon6Width = measurer.getTextSize(costTypeFont, " ".concat(costType));
             float sumWidth = poligon8Side + poligon6Width;
             costValueX = x + ((width - sumWidth) / 2);
             costTypeX = costValueX + poligon8Side;
@@ -532,11 +804,11 @@ public class PdfOutput implements ICardOutput {
             }
         } else {
             float poligon6Height = Math.max(costValueFont.size, costTypeFont.size * 1.5f);
-            poligon6Width = width * 0.5f;
-            poligon6Width = (!costType.isEmpty()) ? Math.max(poligon6Width, 1.01f * costTypeFont.getTextSize(costType)) : poligon6Width;
+            float costTypeWidth = (!costType.isEmpty()) ? 1.01f * measurer.getTextSize(costTypeFont, costType) : 0;
+            boolean costTypeWidened = !costType.isEmpty() && costTypeWidth > width * 0.5f;
+            poligon6Width = costTypeWidened ? costTypeWidth : width * 0.5f;
             float poligon6Min = Math.min(poligon6Width, poligon6Height);
 
-            float poligon6BlankSpace = poligon6Min * 0.1f;
             float poligon8ExtraSide = poligon6Min * 0.25f;
             poligon8Side = poligon6Height + 2 * poligon8ExtraSide;
             minY = y + 4;
@@ -548,17 +820,13 @@ public class PdfOutput implements ICardOutput {
             }
             costValueX = costTypeX = x + costZoneMarginX;
 
+            drawCostChrome(cs, template, x, y, width, poligon6Width, poligon6Height, !costValue.isEmpty(), !costType.isEmpty(), !costTypeWidened);
+
             if (!costValue.isEmpty()) {
                 minY += poligon8Side;
                 if (!costType.isEmpty()) {
                     costTypeX += poligon8Side;
                     costTypeBottomY += poligon8ExtraSide;
-
-                    drawCostPoligon(cs, costTypeX, costTypeBottomY, poligon6Width, poligon6Height, poligon6BlankSpace, costBordersColor, costTypeFillColor);
-                    drawCardPoligon(cs, costValueX, costValueBottomY, poligon8Side, poligon8Side, poligon8ExtraSide, costBordersColor, costValueFillColor);
-
-                } else {
-                    drawCardPoligon(cs, costTypeX, costValueBottomY, poligon8Side, poligon8Side, poligon8ExtraSide, costBordersColor, costValueFillColor);
                 }
                 if (lowerBarColor != null) {
                     minY += 2;
@@ -568,7 +836,6 @@ public class PdfOutput implements ICardOutput {
                 minY += poligon6Height + poligon8ExtraSide;
                 poligon6Width += poligon8Side;
                 costTypeBottomY += poligon8ExtraSide;
-                drawCardPoligon(cs, costValueX, costTypeBottomY, poligon6Width, poligon6Height, poligon6BlankSpace, costBordersColor, costTypeFillColor);
             }
             costValueBottomY += poligon8ExtraSide + costValueFont.getHeight() + ((poligon6Height - costValueFont.size) / 2) + 1;
             costTypeBottomY += costTypeFont.getHeight() + ((poligon6Height - costTypeFont.size) / 2) + 1;
@@ -583,7 +850,7 @@ public class PdfOutput implements ICardOutput {
         // DEBUG: Uncomment the following lines to print max card text available area
         //cs.setStrokingColor(Color.RED);
         //cs.drawLine(x, minY, x + width, minY);
-        nextY -= printBreakableCenteredText(cs, title, x + titleTextMarginX, nextY, titleTextWidth, titleFont, printedTextBuffer, cardIndex, pageIndex, warningHandler);
+        nextY -= printBreakableCenteredText(cs, title, x + titleTextMarginX, nextY, titleTextWidth, titleFont, measurer, printedTextBuffer, cardIndex, pageIndex, warningHandler);
         nextY -= 4;
 
         if (upperBarColor != null) {
@@ -598,7 +865,7 @@ public class PdfOutput implements ICardOutput {
                 drawNameLines(cs, x + normalTextMarginX, normalTextWidth, nextY, titleBarsColor);
             }
 
-            nextY -= printBreakableCenteredText(cs, name, x + normalTextMarginX, nextY, normalTextWidth, nameFont, printedTextBuffer, cardIndex, pageIndex, warningHandler);
+            nextY -= printBreakableCenteredText(cs, name, x + normalTextMarginX, nextY, normalTextWidth, nameFont, measurer, printedTextBuffer, cardIndex, pageIndex, warningHandler);
 
             if (titleBarsColor != null) {
                 drawNameLines(cs, x + normalTextMarginX, normalTextWidth, nextY - 6, titleBarsColor);
@@ -607,27 +874,31 @@ public class PdfOutput implements ICardOutput {
         }
         nextY -= 6;
 
-        nextY -= printBreakingText(legend, x + normalTextMarginX, nextY, normalTextWidth, nextY - minY, legendFont, cs, printedTextBuffer, cardIndex, pageIndex, warningHandler);
+        nextY -= printBreakingText(legend, x + normalTextMarginX, nextY, normalTextWidth, nextY - minY, legendFont, measurer, cs, printedTextBuffer, cardIndex, pageIndex, warningHandler);
 
-        nextY -= printBreakingText(rules, x + normalTextMarginX, nextY, normalTextWidth, nextY - minY, rulesFont, cs, printedTextBuffer, cardIndex, pageIndex, warningHandler);
+        nextY -= printBreakingText(rules, x + normalTextMarginX, nextY, normalTextWidth, nextY - minY, rulesFont, measurer, cs, printedTextBuffer, cardIndex, pageIndex, warningHandler);
 
         if (!costValue.isEmpty()) {
-            printCenteredText(cs, costValue, costValueX, costValueBottomY, poligon8Side, costValueFont, printedTextBuffer, cardIndex, pageIndex, warningHandler);
+            printCenteredText(cs, costValue, costValueX, costValueBottomY, poligon8Side, costValueFont, measurer, printedTextBuffer, cardIndex, pageIndex, warningHandler);
         }
         if (!costType.isEmpty()) {
-            printCenteredText(cs, costType, costTypeX, costTypeBottomY, poligon6Width, costTypeFont, printedTextBuffer, cardIndex, pageIndex, warningHandler);
+            printCenteredText(cs, costType, costTypeX, costTypeBottomY, poligon6Width, costTypeFont, measurer, printedTextBuffer, cardIndex, pageIndex, warningHandler);
         }
 
-        return cardHash.getStringsHash(printedTextBuffer.toString());
+        String hash = measurer.getHash(printedTextBuffer, cardHash);
+        printCardHash(cs, hash, cardX, cardY, cardWidth, measurer, printedTextBuffer);
 
+        if (layoutCache != null && cachedLayout == null) {
+            layoutCache.put(template.layoutSignature, card, measurer.layout.trim());
+        }
     }
 
-    private void printCardHash(PDPageContentStream cs, String hash, float x, float y, float width) throws IOException {
+    private void printCardHash(IPdfCanvas cs, String hash, float x, float y, float width, TextMeasurer measurer, StringBuilder printedTextBuffer) throws IOException {
         float margin = hashFont.size * 0.5f;
-        printRightText(cs, hash, x + margin, y + margin, width - 2 * margin, hashFont, printedTextBuffer);
+        printRightText(cs, hash, x + margin, y + margin, width - 2 * margin, hashFont, measurer, printedTextBuffer);
     }
 
-    private static void drawNameLines(PDPageContentStream cs, float x, float width, float y, Color color) throws IOException {
+    private static void drawNameLines(IPdfCanvas cs, float x, float width, float y, Color color) throws IOException {
 
         cs.setStrokingColor(color);
         cs.moveTo(x, y);
@@ -635,7 +906,7 @@ public class PdfOutput implements ICardOutput {
         cs.stroke();
     }
 
-    private void printCardBackground(PDPageContentStream cs, float x, float y, float width, float height) throws IOException {
+    private void printCardFrame(IPdfCanvas cs, float x, float y, float width, float height) throws IOException {
 
         if (cardBackgroundColor != null) {
             cs.setNonStrokingColor(cardBackgroundColor);
@@ -654,7 +925,32 @@ public class PdfOutput implements ICardOutput {
         }
     }
 
-    private static void drawCardPoligon(PDPageContentStream cs, float x, float y, float width, float height, float blankSpace,
+    /**
+     * Draws the cost borders of a card whose bottom left corner, inside the
+     * card borders, is at {@code x, y}.
+     */
+    private void drawCostPoligons(IPdfCanvas cs, float x, float y, float width, float poligon6Width, float poligon6Height,
+            boolean costValue, boolean costType) throws IOException {
+
+        float poligon6Min = Math.min(poligon6Width, poligon6Height);
+
+        float poligon6BlankSpace = poligon6Min * 0.1f;
+        float poligon8ExtraSide = poligon6Min * 0.25f;
+        float poligon8Side = poligon6Height + 2 * poligon8ExtraSide;
+        float bottomY = y + 4;
+        float costValueX = x + (width - poligon6Width - poligon8Side) / 2;
+
+        if (costValue) {
+            if (costType) {
+                drawCostPoligon(cs, costValueX + poligon8Side, bottomY + poligon8ExtraSide, poligon6Width, poligon6Height, poligon6BlankSpace, costBordersColor, costTypeFillColor);
+            }
+            drawCardPoligon(cs, costValueX, bottomY, poligon8Side, poligon8Side, poligon8ExtraSide, costBordersColor, costValueFillColor);
+        } else if (costType) {
+            drawCardPoligon(cs, costValueX, bottomY + poligon8ExtraSide, poligon6Width + poligon8Side, poligon6Height, poligon6BlankSpace, costBordersColor, costTypeFillColor);
+        }
+    }
+
+    private static void drawCardPoligon(IPdfCanvas cs, float x, float y, float width, float height, float blankSpace,
             Color outerColor, Color fillColor) throws IOException {
 
         float x0 = x;
@@ -691,7 +987,7 @@ public class PdfOutput implements ICardOutput {
 
     }
 
-    private static void drawCostPoligon(PDPageContentStream cs, float x, float y, float width, float height, float blankSpace,
+    private static void drawCostPoligon(IPdfCanvas cs, float x, float y, float width, float height, float blankSpace,
             Color outerColor, Color fillColor) throws IOException {
 
         float x0 = x;
@@ -723,8 +1019,8 @@ public class PdfOutput implements ICardOutput {
         }
     }
 
-    private static float printBreakableCenteredText(PDPageContentStream cs, String text, float x, float y,
-            float maxWidth, FontData font, StringBuilder printedTextBuffer,
+    private static float printBreakableCenteredText(IPdfCanvas cs, String text, float x, float y,
+            float maxWidth, FontData font, TextMeasurer measurer, StringBuilder printedTextBuffer,
             int cardIndex, int pageIndex, IWarningHandler warningHandler) throws IOException {
 
         if (text.isEmpty()) {
@@ -736,15 +1032,15 @@ public class PdfOutput implements ICardOutput {
 
         cs.setLeading(leading);
 
-        float size = font.getTextSize(text);
+        float size = measurer.getTextSize(font, text);
 
         if (size > maxWidth) {
             int center = findNearestCenterSpace(text);
             if (center > 0 && center < text.length()) {
                 String pre = text.substring(0, center);
                 String post = text.substring(center + 1);
-                printCenteredText(cs, pre, x, y, maxWidth, font, font.getTextSize(pre), printedTextBuffer, cardIndex, pageIndex, warningHandler);
-                printCenteredText(cs, post, x, y - leading, maxWidth, font, font.getTextSize(post), printedTextBuffer, cardIndex, pageIndex, warningHandler);
+                printCenteredText(cs, pre, x, y, maxWidth, font, measurer.getTextSize(font, pre), printedTextBuffer, cardIndex, pageIndex, warningHandler);
+                printCenteredText(cs, post, x, y - leading, maxWidth, font, measurer.getTextSize(font, post), printedTextBuffer, cardIndex, pageIndex, warningHandler);
                 return (2 * leading);
             }
         }
@@ -753,8 +1049,8 @@ public class PdfOutput implements ICardOutput {
         return leading;
     }
 
-    private static float printCenteredText(PDPageContentStream cs, String text, float x, float y,
-            float maxWidth, FontData font, StringBuilder printedTextBuffer,
+    private static float printCenteredText(IPdfCanvas cs, String text, float x, float y,
+            float maxWidth, FontData font, TextMeasurer measurer, StringBuilder printedTextBuffer,
             int cardIndex, int pageIndex, IWarningHandler warningHandler) throws IOException {
 
         if (text.isEmpty()) {
@@ -766,12 +1062,12 @@ public class PdfOutput implements ICardOutput {
 
         cs.setLeading(leading);
 
-        float size = font.getTextSize(text);
+        float size = measurer.getTextSize(font, text);
         printCenteredText(cs, text, x, y, maxWidth, font, size, printedTextBuffer, cardIndex, pageIndex, warningHandler);
         return leading;
     }
 
-    private static void printCenteredText(PDPageContentStream cs, String text, float x, float y, float maxWidth, FontData font,
+    private static void printCenteredText(IPdfCanvas cs, String text, float x, float y, float maxWidth, FontData font,
             float size, StringBuilder printedTextBuffer, int cardIndex, int pageIndex, IWarningHandler warningHandler) throws IOException {
 
         float xDisp = (maxWidth - size) / 2;
@@ -788,10 +1084,10 @@ public class PdfOutput implements ICardOutput {
         cs.endText();
     }
 
-    private static void printRightText(PDPageContentStream cs, String text, float x, float y,
-            float maxWidth, FontData font, StringBuilder printedTextBuffer) throws IOException {
+    private static void printRightText(IPdfCanvas cs, String text, float x, float y,
+            float maxWidth, FontData font, TextMeasurer measurer, StringBuilder printedTextBuffer) throws IOException {
 
-        float xDisp = maxWidth - font.getTextSize(text);
+        float xDisp = maxWidth - measurer.getTextSize(font, text);
         cs.setFont(font.font, font.size);
         cs.setNonStrokingColor(font.color);
         cs.beginText();
@@ -802,7 +1098,7 @@ public class PdfOutput implements ICardOutput {
         cs.endText();
     }
 
-    private static float printBreakingText(String text, float x, float y, float maxWidth, float maxHeight, FontData font, PDPageContentStream cs, StringBuilder printedTextBuffer, int cardIndex, int pageIndex, IWarningHandler warningHandler) throws IOException {
+    private static float printBreakingText(String text, float x, float y, float maxWidth, float maxHeight, FontData font, TextMeasurer measurer, IPdfCanvas cs, StringBuilder printedTextBuffer, int cardIndex, int pageIndex, IWarningHandler warningHandler) throws IOException {
 
         if (text.isEmpty()) {
             return 0;
@@ -832,7 +1128,7 @@ public class PdfOutput implements ICardOutput {
                 int lineLen = line.length();
                 int currentLineStart = 0;
                 while (currentLineStart < lineLen && yDiff < maxHeight) {
-                    currentLineStart = printLine(line, currentLineStart, maxWidth, font, cs, printedTextBuffer);
+                    currentLineStart = printLine(line, currentLineStart, maxWidth, font, measurer, cs, printedTextBuffer);
                     printedTextBuffer.append('\n');
                     yDiff += leading;
                 }
@@ -848,37 +1144,40 @@ public class PdfOutput implements ICardOutput {
     }
 
     private static int printLine(String text, int currentLineStart, float maxWidth, FontData font,
-            PDPageContentStream cs, StringBuilder printedTextBuffer) throws IOException {
+            TextMeasurer measurer, IPdfCanvas cs, StringBuilder printedTextBuffer) throws IOException {
+
+        int currentLineEnd = measurer.findLineEnd(text, currentLineStart, maxWidth, font);
+        cs.showText(text.substring(currentLineStart, currentLineEnd));
+        cs.newLine();
+        printedTextBuffer.append(text, currentLineStart, currentLineEnd);
+        return currentLineEnd + 1;
+    }
+
+    private static int findLineEnd(String text, int currentLineStart, float maxWidth, FontData font) throws IOException {
 
         int len = text.length();
 
         int currentLineEnd = text.indexOf(' ', currentLineStart + 1);
         if (currentLineEnd < 0) {
-            String currentLine = text.substring(currentLineStart);
-            cs.showText(currentLine);
-            cs.newLine();
-            printedTextBuffer.append(currentLine);
             return len;
         }
-        String currentLine = text.substring(currentLineStart, currentLineEnd);
-        String nextLine;
+        // Widths are added word by word over index ranges, so each candidate
+        // line costs only the glyphs of its last word
+        float currentLineWidth = font.getGlyphsWidth(text, currentLineStart, currentLineEnd);
         int nextLineEnd = 0;
         while (nextLineEnd < len) {
 
             nextLineEnd = text.indexOf(' ', currentLineEnd + 1);
             nextLineEnd = (nextLineEnd < 0) ? len : nextLineEnd;
 
-            nextLine = text.substring(currentLineStart, nextLineEnd);
-            if (font.getTextSize(nextLine) > maxWidth) {
+            float nextLineWidth = font.addGlyphsWidth(currentLineWidth, text, currentLineStart, currentLineEnd, nextLineEnd);
+            if (font.toTextSize(nextLineWidth) > maxWidth) {
                 break;
             }
-            currentLine = nextLine;
+            currentLineWidth = nextLineWidth;
             currentLineEnd = nextLineEnd;
         }
-        cs.showText(currentLine);
-        cs.newLine();
-        printedTextBuffer.append(currentLine);
-        return currentLineEnd + 1;
+        return currentLineEnd;
     }
 
     private static int findNearestCenterSpace(String text) {
@@ -942,6 +1241,10 @@ public class PdfOutput implements ICardOutput {
         private boolean fillUnusedCardSlotsBorders;
         private boolean fillUnusedCardSlotsTitles;
 
+        private boolean parallel;
+        private boolean scratchFile;
+        private PdfLayoutCache layoutCache;
+
         public Builder(DefaultPreset preset) {
             this.reset(preset);
         }
@@ -992,6 +1295,271 @@ public class PdfOutput implements ICardOutput {
             this.fillUnusedCardSlots = DEFAULT_FILL_UNUSED_CARD_SLOTS;
             this.fillUnusedCardSlotsBorders = DEFAULT_FILL_UNUSED_CARD_SLOTS_COST;
             this.fillUnusedCardSlotsTitles = DEFAULT_FILL_UNUSED_CARD_SLOTS_TITLES;
+
+            this.parallel = DEFAULT_PARALLEL;
+            this.scratchFile = DEFAULT_SCRATCH_FILE;
+        }
+
+        /**
+         * Sets the settings of a properties file written by {@link #save},
+         * the settings missing from the file keep their values.
+         *
+         * @throws IllegalArgumentException when a setting is unknown or its
+         * value cannot be read
+         */
+        public Builder load(InputStream in) throws IOException {
+            Properties properties = new Properties();
+            properties.load(in);
+            for (String key : properties.stringPropertyNames()) {
+                String value = properties.getProperty(key).trim();
+                try {
+                    setSetting(key, value);
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Wrong pdf setting " + key + "=" + value + ": " + e.getMessage(), e);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Writes every setting but the layout cache as a properties file. The
+         * page size is in points, the fonts are the names of the standard
+         * ones and the colors are hexadecimal or {@value #NO_COLOR}.
+         */
+        public void save(OutputStream out) throws IOException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.ISO_8859_1));
+            writer.write("# Card Editor pdf settings\n");
+            for (Map.Entry<String, String> e : getSettings().entrySet()) {
+                writer.write(e.getKey() + "=" + e.getValue() + "\n");
+            }
+            writer.flush();
+        }
+
+        private LinkedHashMap<String, String> getSettings() {
+            LinkedHashMap<String, String> settings = new LinkedHashMap<>();
+            settings.put("pageSize", pageSize.getWidth() + " " + pageSize.getHeight());
+            settings.put("perX", Integer.toString(perX));
+            settings.put("perY", Integer.toString(perY));
+            settings.put("marginPercentX", Float.toString(marginPercentX));
+            settings.put("marginPercentY", Float.toString(marginPercentY));
+
+            settings.put("titleFontSize", Float.toString(titleFontSize));
+            settings.put("nameFontSize", Float.toString(nameFontSize));
+            settings.put("legendFontSize", Float.toString(legendFontSize));
+            settings.put("rulesFontSize", Float.toString(rulesFontSize));
+            settings.put("costValueFontSize", Float.toString(costValueFontSize));
+            settings.put("costTypeFontSize", Float.toString(costTypeFontSize));
+
+            settings.put("titleFontType", formatFont(titleFontType));
+            settings.put("nameFontType", formatFont(nameFontType));
+            settings.put("legendFontType", formatFont(legendFontType));
+            settings.put("rulesFontType", formatFont(rulesFontType));
+            settings.put("costValueFontType", formatFont(costValueFontType));
+            settings.put("costTypeFontType", formatFont(costTypeFontType));
+
+            settings.put("titleFontColor", formatColor(titleFontColor));
+            settings.put("nameFontColor", formatColor(nameFontColor));
+            settings.put("legendFontColor", formatColor(legendFontColor));
+            settings.put("rulesFontColor", formatColor(rulesFontColor));
+            settings.put("costValueFontColor", formatColor(costValueFontColor));
+            settings.put("costTypeFontColor", formatColor(costTypeFontColor));
+
+            settings.put("cardBackgroundColor", formatColor(cardBackgroundColor));
+            settings.put("titleBarsColor", formatColor(titleBarsColor));
+            settings.put("upperBarColor", formatColor(upperBarColor));
+            settings.put("lowerBarColor", formatColor(lowerBarColor));
+            settings.put("cardBordersColor", formatColor(cardBordersColor));
+            settings.put("costBordersColor", formatColor(costBordersColor));
+            settings.put("cardFillColor", formatColor(cardFillColor));
+            settings.put("costValueFillColor", formatColor(costValueFillColor));
+            settings.put("costTypeFillColor", formatColor(costTypeFillColor));
+            settings.put("foregroundGridColor", formatColor(foregroundGridColor));
+            settings.put("backgroundGridColor", formatColor(backgroundGridColor));
+
+            settings.put("backgroundPages", Boolean.toString(backgroundPages));
+            settings.put("fillUnusedCardSlots", Boolean.toString(fillUnusedCardSlots));
+            settings.put("fillUnusedCardSlotsBorders", Boolean.toString(fillUnusedCardSlotsBorders));
+            settings.put("fillUnusedCardSlotsTitles", Boolean.toString(fillUnusedCardSlotsTitles));
+
+            settings.put("parallel", Boolean.toString(parallel));
+            settings.put("scratchFile", Boolean.toString(scratchFile));
+            return settings;
+        }
+
+        private void setSetting(String key, String value) {
+            switch (key) {
+                case "pageSize":
+                    String[] size = value.split("\\s+");
+                    if (size.length != 2) {
+                        throw new IllegalArgumentException("expected the width and height in points");
+                    }
+                    pageSize = new PDRectangle(Float.parseFloat(size[0]), Float.parseFloat(size[1]));
+                    break;
+                case "perX":
+                    perX = Integer.parseInt(value);
+                    break;
+                case "perY":
+                    perY = Integer.parseInt(value);
+                    break;
+                case "marginPercentX":
+                    marginPercentX = Float.parseFloat(value);
+                    break;
+                case "marginPercentY":
+                    marginPercentY = Float.parseFloat(value);
+                    break;
+
+                case "titleFontSize":
+                    titleFontSize = Float.parseFloat(value);
+                    break;
+                case "nameFontSize":
+                    nameFontSize = Float.parseFloat(value);
+                    break;
+                case "legendFontSize":
+                    legendFontSize = Float.parseFloat(value);
+                    break;
+                case "rulesFontSize":
+                    rulesFontSize = Float.parseFloat(value);
+                    break;
+                case "costValueFontSize":
+                    costValueFontSize = Float.parseFloat(value);
+                    break;
+                case "costTypeFontSize":
+                    costTypeFontSize = Float.parseFloat(value);
+                    break;
+
+                case "titleFontType":
+                    titleFontType = parseFont(value);
+                    break;
+                case "nameFontType":
+                    nameFontType = parseFont(value);
+                    break;
+                case "legendFontType":
+                    legendFontType = parseFont(value);
+                    break;
+                case "rulesFontType":
+                    rulesFontType = parseFont(value);
+                    break;
+                case "costValueFontType":
+                    costValueFontType = parseFont(value);
+                    break;
+                case "costTypeFontType":
+                    costTypeFontType = parseFont(value);
+                    break;
+
+                case "titleFontColor":
+                    titleFontColor = parseColor(value);
+                    break;
+                case "nameFontColor":
+                    nameFontColor = parseColor(value);
+                    break;
+                case "legendFontColor":
+                    legendFontColor = parseColor(value);
+                    break;
+                case "rulesFontColor":
+                    rulesFontColor = parseColor(value);
+                    break;
+                case "costValueFontColor":
+                    costValueFontColor = parseColor(value);
+                    break;
+                case "costTypeFontColor":
+                    costTypeFontColor = parseColor(value);
+                    break;
+
+                case "cardBackgroundColor":
+                    cardBackgroundColor = parseColor(value);
+                    break;
+                case "titleBarsColor":
+                    titleBarsColor = parseColor(value);
+                    break;
+                case "upperBarColor":
+                    upperBarColor = parseColor(value);
+                    break;
+                case "lowerBarColor":
+                    lowerBarColor = parseColor(value);
+                    break;
+                case "cardBordersColor":
+                    cardBordersColor = parseColor(value);
+                    break;
+                case "costBordersColor":
+                    costBordersColor = parseColor(value);
+                    break;
+                case "cardFillColor":
+                    cardFillColor = parseColor(value);
+                    break;
+                case "costValueFillColor":
+                    costValueFillColor = parseColor(value);
+                    break;
+                case "costTypeFillColor":
+                    costTypeFillColor = parseColor(value);
+                    break;
+                case "foregroundGridColor":
+                    foregroundGridColor = parseColor(value);
+                    break;
+                case "backgroundGridColor":
+                    backgroundGridColor = parseColor(value);
+                    break;
+
+                case "backgroundPages":
+                    backgroundPages = parseBoolean(value);
+                    break;
+                case "fillUnusedCardSlots":
+                    fillUnusedCardSlots = parseBoolean(value);
+                    break;
+                case "fillUnusedCardSlotsBorders":
+                    fillUnusedCardSlotsBorders = parseBoolean(value);
+                    break;
+                case "fillUnusedCardSlotsTitles":
+                    fillUnusedCardSlotsTitles = parseBoolean(value);
+                    break;
+
+                case "parallel":
+                    parallel = parseBoolean(value);
+                    break;
+                case "scratchFile":
+                    scratchFile = parseBoolean(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown setting");
+            }
+        }
+
+        private static String formatFont(PDFont font) {
+            for (PDType1Font standardFont : STANDARD_FONTS) {
+                if (standardFont == font) {
+                    return standardFont.getName();
+                }
+            }
+            throw new IllegalArgumentException("Only the standard fonts can be saved, not " + font.getName());
+        }
+
+        private static PDFont parseFont(String name) {
+            for (PDType1Font standardFont : STANDARD_FONTS) {
+                if (standardFont.getName().equals(name)) {
+                    return standardFont;
+                }
+            }
+            throw new IllegalArgumentException("not a standard font name");
+        }
+
+        private static String formatColor(Color color) {
+            return (color == null) ? NO_COLOR : String.format("#%06X", color.getRGB() & 0xFFFFFF);
+        }
+
+        private static Color parseColor(String value) {
+            if (NO_COLOR.equals(value)) {
+                return null;
+            }
+            if (!value.startsWith("#") || value.length() != 7) {
+                throw new IllegalArgumentException("expected #RRGGBB or " + NO_COLOR);
+            }
+            return new Color(Integer.parseInt(value.substring(1), 16));
+        }
+
+        private static boolean parseBoolean(String value) {
+            if (!"true".equals(value) && !"false".equals(value)) {
+                throw new IllegalArgumentException("expected true or false");
+            }
+            return Boolean.parseBoolean(value);
         }
 
         public Builder setPageSize(PDRectangle pageSize) {
@@ -1184,6 +1752,35 @@ public class PdfOutput implements ICardOutput {
             return this;
         }
 
+        /**
+         * Lays out the pages on all the available cores. The document is the
+         * same as the one built on a single thread.
+         */
+        public Builder setParallel(boolean parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+
+        /**
+         * Moves the finished page contents to a temporary file once they use
+         * more than a few megabytes, so the heap used by big decks does not
+         * grow with the size of the page contents.
+         */
+        public Builder setScratchFile(boolean scratchFile) {
+            this.scratchFile = scratchFile;
+            return this;
+        }
+
+        /**
+         * Reuses and fills the given text layouts, so the cards that did not
+         * change since a previous export are not measured again. Null, the
+         * default, measures every card.
+         */
+        public Builder setLayoutCache(PdfLayoutCache layoutCache) {
+            this.layoutCache = layoutCache;
+            return this;
+        }
+
         public PDRectangle getPageSize() {
             return pageSize;
         }
@@ -1336,6 +1933,18 @@ public class PdfOutput implements ICardOutput {
             return fillUnusedCardSlotsTitles;
         }
 
+        public boolean isParallel() {
+            return parallel;
+        }
+
+        public boolean isScratchFile() {
+            return scratchFile;
+        }
+
+        public PdfLayoutCache getLayoutCache() {
+            return layoutCache;
+        }
+
         public PdfOutput build() {
             return new PdfOutput(
                     pageSize, perX, perY, marginPercentX, marginPercentY,
@@ -1349,32 +1958,189 @@ public class PdfOutput implements ICardOutput {
                     cardBordersColor, costBordersColor,
                     cardFillColor, costValueFillColor, costTypeFillColor,
                     foregroundGridColor, backgroundGridColor,
-                    backgroundPages, fillUnusedCardSlots, fillUnusedCardSlotsBorders, fillUnusedCardSlotsTitles
+                    backgroundPages, fillUnusedCardSlots, fillUnusedCardSlotsBorders, fillUnusedCardSlotsTitles,
+                    parallel, scratchFile, layoutCache
             );
         }
 
     }
 
+    private interface IFormPainter {
+
+        void paint(IPdfCanvas cs) throws IOException;
+
+    }
+
+    private static class PageTemplate {
+
+        float marginX;
+        float marginY;
+        float cardWidth;
+        float cardHeight;
+        String layoutSignature;
+
+        PDFormXObject foregroundGrid;
+        PDFormXObject backgroundGrid;
+        PDFormXObject cardFrame;
+        PDFormXObject costValueAndType;
+        PDFormXObject costValue;
+        PDFormXObject costType;
+
+    }
+
+    /**
+     * Measures the text of one card and records every result in its layout,
+     * or reads the results back from a cached layout without measuring.
+     */
+    private static class TextMeasurer {
+
+        final PdfLayoutCache.CardLayout layout;
+        private final boolean cached;
+        private int textSizeIndex;
+        private int lineEndIndex;
+
+        TextMeasurer(PdfLayoutCache.CardLayout layout, boolean cached) {
+            this.layout = layout;
+            this.cached = cached;
+        }
+
+        float getTextSize(FontData font, String text) throws IOException {
+            if (cached) {
+                return layout.getTextSize(textSizeIndex++);
+            }
+            float size = font.getTextSize(text);
+            if (layout != null) {
+                layout.addTextSize(size);
+            }
+            return size;
+        }
+
+        int findLineEnd(String text, int lineStart, float maxWidth, FontData font) throws IOException {
+            if (cached) {
+                return layout.getLineEnd(lineEndIndex++);
+            }
+            int lineEnd = PdfOutput.findLineEnd(text, lineStart, maxWidth, font);
+            if (layout != null) {
+                layout.addLineEnd(lineEnd);
+            }
+            return lineEnd;
+        }
+
+        String getHash(CharSequence printedText, CardHash cardHash) {
+            if (cached) {
+                return layout.getHash();
+            }
+            String hash = cardHash.getStringsHash(printedText);
+            if (layout != null) {
+                layout.setHash(hash);
+            }
+            return hash;
+        }
+
+    }
+
+    private static class LaidOutPage {
+
+        final SectionData section;
+        final boolean first;
+        final int printedCards;
+        final PdfRecordedCanvas canvas;
+        final WarningArrayList warnings;
+        Future<Void> layout;
+
+        LaidOutPage(SectionData section, boolean first, int printedCards) {
+            this.section = section;
+            this.first = first;
+            this.printedCards = printedCards;
+            this.canvas = new PdfRecordedCanvas();
+            this.warnings = new WarningArrayList();
+        }
+
+    }
+
     static class FontData {
 
+        private static final int GLYPH_PAGE_BITS = 8;
+        private static final int GLYPH_PAGE_SIZE = 1 << GLYPH_PAGE_BITS;
+        private static final int GLYPH_PAGE_MASK = GLYPH_PAGE_SIZE - 1;
+
         final PDFont font;
         final float size;
         final Color color;
         private float height;
 
+        // Glyph advances in font units, indexed by char and filled on demand.
+        // Only simple fonts map every char to a single code, so only they can
+        // add widths char by char the same way PDFont.getStringWidth does.
+        // Pages may be read by several layout threads; the PDFont caches are
+        // not thread safe, so misses are measured holding the font lock
+        private final AtomicReferenceArray<float[]> glyphWidths;
+
         public FontData(PDFont font, float size, Color color) {
             this.font = font;
             this.size = size;
             this.color = color;
+            this.glyphWidths = (font instanceof PDSimpleFont) ? new AtomicReferenceArray<>((Character.MAX_VALUE + 1) >> GLYPH_PAGE_BITS) : null;
         }
 
         float getTextSize(String text) throws IOException {
-            return size * font.getStringWidth(text) / 1000;
+            return toTextSize(getGlyphsWidth(text, 0, text.length()));
+        }
+
+        float toTextSize(float glyphsWidth) {
+            return size * glyphsWidth / 1000;
+        }
+
+        float getGlyphsWidth(String text, int start, int end) throws IOException {
+            return addGlyphsWidth(0, text, start, start, end);
+        }
+
+        /**
+         * Adds to the width of the text between {@code lineStart} and
+         * {@code from} the glyphs up to {@code to}, in font units.
+         */
+        float addGlyphsWidth(float lineWidth, String text, int lineStart, int from, int to) throws IOException {
+            if (glyphWidths == null) {
+                synchronized (font) {
+                    return font.getStringWidth(text.substring(lineStart, to));
+                }
+            }
+            for (int i = from; i < to; i++) {
+                lineWidth += getGlyphWidth(text.charAt(i));
+            }
+            return lineWidth;
+        }
+
+        private float getGlyphWidth(char c) throws IOException {
+            float[] page = glyphWidths.get(c >>> GLYPH_PAGE_BITS);
+            if (page != null) {
+                float width = page[c & GLYPH_PAGE_MASK];
+                if (!Float.isNaN(width)) {
+                    return width;
+                }
+            }
+            return measureGlyphWidth(c);
+        }
+
+        private float measureGlyphWidth(char c) throws IOException {
+            synchronized (font) {
+                float[] page = glyphWidths.get(c >>> GLYPH_PAGE_BITS);
+                if (page == null) {
+                    page = new float[GLYPH_PAGE_SIZE];
+                    Arrays.fill(page, Float.NaN);
+                    glyphWidths.set(c >>> GLYPH_PAGE_BITS, page);
+                }
+                float width = font.getStringWidth(String.valueOf(c));
+                page[c & GLYPH_PAGE_MASK] = width;
+                return width;
+            }
         }
 
         float getHeight() throws IOException {
             if (height == 0) {
-                height = font.getBoundingBox().getHeight() * size / 1000;
+                synchronized (font) {
+                    height = font.getBoundingBox().getHeight() * size / 1000;
+                }
             }
             return height;
         }
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.output;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.util.Matrix;
+
+/**
+ * Canvas that only records the operators, so a page can be laid out on any
+ * thread and written later into the document in page order.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+class PdfRecordedCanvas implements IPdfCanvas {
+
+    private static final byte SET_STROKING_COLOR = 0;
+    private static final byte SET_NON_STROKING_COLOR = 1;
+    private static final byte ADD_RECT = 2;
+    private static final byte MOVE_TO = 3;
+    private static final byte LINE_TO = 4;
+    private static final byte CLOSE_PATH = 5;
+    private static final byte STROKE = 6;
+    private static final byte FILL = 7;
+    private static final byte FILL_AND_STROKE = 8;
+    private static final byte SET_FONT = 9;
+    private static final byte SET_LEADING = 10;
+    private static final byte BEGIN_TEXT = 11;
+    private static final byte NEW_LINE_AT_OFFSET = 12;
+    private static final byte SHOW_TEXT = 13;
+    private static final byte NEW_LINE = 14;
+    private static final byte END_TEXT = 15;
+    private static final byte SAVE_GRAPHICS_STATE = 16;
+    private static final byte RESTORE_GRAPHICS_STATE = 17;
+    private static final byte TRANSFORM = 18;
+    private static final byte DRAW_FORM = 19;
+
+    private byte[] operators;
+    private int operatorCount;
+    private float[] numbers;
+    private int numberCount;
+    private Object[] objects;
+    private int objectCount;
+
+    PdfRecordedCanvas() {
+        this.operators = new byte[1024];
+        this.numbers = new float[1024];
+        this.objects = new Object[256];
+    }
+
+    /**
+     * Writes every recorded operator, in order, into the given canvas.
+     * <p>
+     * The PDFBox fonts keep their encoding caches in plain maps, so the text is
+     * shown holding the font lock, the same one held while measuring text.
+     */
+    void replay(IPdfCanvas target) throws IOException {
+        int n = 0;
+        int o = 0;
+        PDFont font = null;
+        for (int i = 0; i < operatorCount; i++) {
+            switch (operators[i]) {
+                case SET_STROKING_COLOR:
+                    target.setStrokingColor((Color) objects[o++]);
+                    break;
+                case SET_NON_STROKING_COLOR:
+                    target.setNonStrokingColor((Color) objects[o++]);
+                    break;
+                case ADD_RECT:
+                    target.addRect(numbers[n], numbers[n + 1], numbers[n + 2], numbers[n + 3]);
+                    n += 4;
+                    break;
+                case MOVE_TO:
+                    target.moveTo(numbers[n], numbers[n + 1]);
+                    n += 2;
+                    break;
+                case LINE_TO:
+                    target.lineTo(numbers[n], numbers[n + 1]);
+                    n += 2;
+                    break;
+                case CLOSE_PATH:
+                    target.closePath();
+                    break;
+                case STROKE:
+                    target.stroke();
+                    break;
+                case FILL:
+                    target.fill();
+                    break;
+                case FILL_AND_STROKE:
+                    target.fillAndStroke();
+                    break;
+                case SET_FONT:
+                    font = (PDFont) objects[o++];
+                    target.setFont(font, numbers[n++]);
+                    break;
+                case SET_LEADING:
+                    target.setLeading(numbers[n++]);
+                    break;
+                case BEGIN_TEXT:
+                    target.beginText();
+                    break;
+                case NEW_LINE_AT_OFFSET:
+                    target.newLineAtOffset(numbers[n], numbers[n + 1]);
+                    n += 2;
+                    break;
+                case SHOW_TEXT:
+                    synchronized (font) {
+                        target.showText((String) objects[o++]);
+                    }
+                    break;
+                case NEW_LINE:
+                    target.newLine();
+                    break;
+                case END_TEXT:
+                    target.endText();
+                    break;
+                case SAVE_GRAPHICS_STATE:
+                    target.saveGraphicsState();
+                    break;
+                case RESTORE_GRAPHICS_STATE:
+                    target.restoreGraphicsState();
+                    break;
+                case TRANSFORM:
+                    target.transform((Matrix) objects[o++]);
+                    break;
+                case DRAW_FORM:
+                    target.drawForm((PDFormXObject) objects[o++]);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown operator " + operators[i]);
+            }
+        }
+    }
+
+    @Override
+    public void setStrokingColor(Color color) {
+        addOperator(SET_STROKING_COLOR);
+        addObject(color);
+    }
+
+    @Override
+    public void setNonStrokingColor(Color color) {
+        addOperator(SET_NON_STROKING_COLOR);
+        addObject(color);
+    }
+
+    @Override
+    public void addRect(float x, float y, float width, float height) {
+        addOperator(ADD_RECT);
+        addNumber(x);
+        addNumber(y);
+        addNumber(width);
+        addNumber(height);
+    }
+
+    @Override
+    public void moveTo(float x, float y) {
+        addOperator(MOVE_TO);
+        addNumber(x);
+        addNumber(y);
+    }
+
+    @Override
+    public void lineTo(float x, float y) {
+        addOperator(LINE_TO);
+        addNumber(x);
+        addNumber(y);
+    }
+
+    @Override
+    public void closePath() {
+        addOperator(CLOSE_PATH);
+    }
+
+    @Override
+    public void stroke() {
+        addOperator(STROKE);
+    }
+
+    @Override
+    public void fill() {
+        addOperator(FILL);
+    }
+
+    @Override
+    public void fillAndStroke() {
+        addOperator(FILL_AND_STROKE);
+    }
+
+    @Override
+    public void setFont(PDFont font, float fontSize) {
+        addOperator(SET_FONT);
+        addObject(font);
+        addNumber(fontSize);
+    }
+
+    @Override
+    public void setLeading(float leading) {
+        addOperator(SET_LEADING);
+        addNumber(leading);
+    }
+
+    @Override
+    public void beginText() {
+        addOperator(BEGIN_TEXT);
+    }
+
+    @Override
+    public void newLineAtOffset(float tx, float ty) {
+        addOperator(NEW_LINE_AT_OFFSET);
+        addNumber(tx);
+        addNumber(ty);
+    }
+
+    @Override
+    public void showText(String text) {
+        addOperator(SHOW_TEXT);
+        addObject(text);
+    }
+
+    @Override
+    public void newLine() {
+        addOperator(NEW_LINE);
+    }
+
+    @Override
+    public void endText() {
+        addOperator(END_TEXT);
+    }
+
+    @Override
+    public void saveGraphicsState() {
+        addOperator(SAVE_GRAPHICS_STATE);
+    }
+
+    @Override
+    public void restoreGraphicsState() {
+        addOperator(RESTORE_GRAPHICS_STATE);
+    }
+
+    @Override
+    public void transform(Matrix matrix) {
+        addOperator(TRANSFORM);
+        addObject(matrix);
+    }
+
+    @Override
+    public void drawForm(PDFormXObject form) {
+        addOperator(DRAW_FORM);
+        addObject(form);
+    }
+
+    private void addOperator(byte operator) {
+        if (operatorCount == operators.length) {
+            operators = Arrays.copyOf(operators, operatorCount * 2);
+        }
+        operators[operatorCount++] = operator;
+    }
+
+    private void addNumber(float number) {
+        if (numberCount == numbers.length) {
+            numbers = Arrays.copyOf(numbers, numberCount * 2);
+        }
+        numbers[numberCount++] = number;
+    }
+
+    private void addObject(Object object) {
+        if (objectCount == objects.length) {
+            objects = Arrays.copyOf(objects, objectCount * 2);
+        }
+        objects[objectCount++] = object;
+    }
+
+}
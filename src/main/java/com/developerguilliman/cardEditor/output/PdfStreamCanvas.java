@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.output;
+
+import java.awt.Color;
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.util.Matrix;
+
+/**
+ * Canvas that writes straight into a page content stream.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+class PdfStreamCanvas implements IPdfCanvas {
+
+    private final PDPageContentStream cs;
+
+    PdfStreamCanvas(PDPageContentStream cs) {
+        this.cs = cs;
+    }
+
+    @Override
+    public void setStrokingColor(Color color) throws IOException {
+        cs.setStrokingColor(color);
+    }
+
+    @Override
+    public void setNonStrokingColor(Color color) throws IOException {
+        cs.setNonStrokingColor(color);
+    }
+
+    @Override
+    public void addRect(float x, float y, float width, float height) throws IOException {
+        cs.addRect(x, y, width, height);
+    }
+
+    @Override
+    public void moveTo(float x, float y) throws IOException {
+        cs.moveTo(x, y);
+    }
+
+    @Override
+    public void lineTo(float x, float y) throws IOException {
+        cs.lineTo(x, y);
+    }
+
+    @Override
+    public void closePath() throws IOException {
+        cs.closePath();
+    }
+
+    @Override
+    public void stroke() throws IOException {
+        cs.stroke();
+    }
+
+    @Override
+    public void fill() throws IOException {
+        cs.fill();
+    }
+
+    @Override
+    public void fillAndStroke() throws IOException {
+        cs.fillAndStroke();
+    }
+
+    @Override
+    public void setFont(PDFont font, float fontSize) throws IOException {
+        cs.setFont(font, fontSize);
+    }
+
+    @Override
+    public void setLeading(float leading) throws IOException {
+        cs.setLeading(leading);
+    }
+
+    @Override
+    public void beginText() throws IOException {
+        cs.beginText();
+    }
+
+    @Override
+    public void newLineAtOffset(float tx, float ty) throws IOException {
+        cs.newLineAtOffset(tx, ty);
+    }
+
+    @Override
+    public void showText(String text) throws IOException {
+        cs.showText(text);
+    }
+
+    @Override
+    public void newLine() throws IOException {
+        cs.newLine();
+    }
+
+    @Override
+    public void endText() throws IOException {
+        cs.endText();
+    }
+
+    @Override
+    public void saveGraphicsState() throws IOException {
+        cs.saveGraphicsState();
+    }
+
+    @Override
+    public void restoreGraphicsState() throws IOException {
+        cs.restoreGraphicsState();
+    }
+
+    @Override
+    public void transform(Matrix matrix) throws IOException {
+        cs.transform(matrix);
+    }
+
+    @Override
+    public void drawForm(PDFormXObject form) throws IOException {
+        cs.drawForm(form);
+    }
+
+}
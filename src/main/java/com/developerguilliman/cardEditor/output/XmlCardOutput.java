@@ -16,73 +16,138 @@
  */
 package com.developerguilliman.cardEditor.output;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Text;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import com.developerguilliman.cardEditor.data.CardCollectionData;
 import com.developerguilliman.cardEditor.data.CardData;
 import com.developerguilliman.cardEditor.data.SectionData;
+import com.developerguilliman.cardEditor.progress.IProgressHandler;
 import com.developerguilliman.cardEditor.warning.IWarningHandler;
 
+/**
+ * Writes the cards as XML, streaming every section and card straight to the
+ * output. By default the elements are indented by two spaces per level.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
 public class XmlCardOutput implements ICardOutput {
 
+    // The declaration the previous DOM writer produced, so saved files do not change
+    private static final String DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String INDENT = "  ";
+    // The line breaks of the previous writer, inside the texts too
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final boolean LF_SEPARATOR = LINE_SEPARATOR.equals("\n");
+
+    private final boolean indent;
+
+    public XmlCardOutput() {
+        this(true);
+    }
+
+    public XmlCardOutput(boolean indent) {
+        this.indent = indent;
+    }
+
     @Override
-    public void build(OutputStream out, CardCollectionData cards, IWarningHandler warnings) throws IOException {
+    public void build(OutputStream out, CardCollectionData cards, IWarningHandler warnings, IProgressHandler progressHandler) throws IOException {
+        int total = 0;
+        for (SectionData section : cards) {
+            total += section.size();
+        }
+        int done = 0;
         try {
-            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-            Document doc = dBuilder.newDocument();
-            Element root = doc.createElement("cards");
-            doc.appendChild(root);
+            // The stream writer encodes char by char, the buffer keeps that off the output stream
+            Writer bufferedWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            bufferedWriter.write(DECLARATION);
+            XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(bufferedWriter);
+            newLine(writer, 0);
+            if (cards.isEmpty()) {
+                writer.writeEmptyElement("cards");
+            } else {
+                writer.writeStartElement("cards");
+            }
             for (SectionData section : cards) {
 
-                Element sectionElement = doc.createElement("section");
-                root.appendChild(sectionElement);
+                newLine(writer, 1);
+                if (section.isEmpty()) {
+                    writer.writeEmptyElement("section");
+                    continue;
+                }
+                writer.writeStartElement("section");
                 for (CardData card : section) {
-                    Element cardElement = doc.createElement("card");
-                    sectionElement.appendChild(cardElement);
-                    create(doc, cardElement, "name", card.getName());
-                    create(doc, cardElement, "title", card.getTitle());
-                    create(doc, cardElement, "legend", card.getLegend());
-                    create(doc, cardElement, "rules", card.getRules());
-                    create(doc, cardElement, "costValue", card.getCostValue());
-                    create(doc, cardElement, "costType", card.getCostType());
-
+                    progressHandler.checkCancelled();
+                    newLine(writer, 2);
+                    writer.writeStartElement("card");
+                    create(writer, "name", card.getName());
+                    create(writer, "title", card.getTitle());
+                    create(writer, "legend", card.getLegend());
+                    create(writer, "rules", card.getRules());
+                    create(writer, "costValue", card.getCostValue());
+                    create(writer, "costType", card.getCostType());
+                    newLine(writer, 2);
+                    writer.writeEndElement();
+                    progressHandler.progress("Saving cards...", ++done, total);
                 }
+                newLine(writer, 1);
+                writer.writeEndElement();
+            }
+            if (!cards.isEmpty()) {
+                newLine(writer, 0);
+                writer.writeEndElement();
             }
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-            DOMSource domSource = new DOMSource(doc);
-            StreamResult streamResult = new StreamResult(out);
-            transformer.transform(domSource, streamResult);
+            newLine(writer, 0);
+            writer.close();
+            bufferedWriter.flush();
 
-        } catch (ParserConfigurationException | TransformerException e) {
+        } catch (XMLStreamException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private void create(Document doc, Element element, String key, String value) {
-        Element child = doc.createElement(key);
-        Text text = doc.createTextNode(key);
-        text.setData(value);
-        child.appendChild(text);
-        element.appendChild(child);
+    private void newLine(XMLStreamWriter writer, int level) throws XMLStreamException {
+        if (indent) {
+            writer.writeCharacters(LINE_SEPARATOR);
+            for (int i = 0; i < level; i++) {
+                writer.writeCharacters(INDENT);
+            }
+        }
+    }
+
+    private void create(XMLStreamWriter writer, String key, String value) throws XMLStreamException {
+        newLine(writer, 3);
+        if (value == null || value.isEmpty()) {
+            writer.writeEmptyElement(key);
+            return;
+        }
+        writer.writeStartElement(key);
+        // Carriage returns are kept as references, a reader would turn them into line feeds
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '\r' || (c == '\n' && !LF_SEPARATOR)) {
+                writer.writeCharacters(value.substring(start, i));
+                if (c == '\r') {
+                    writer.writeEntityRef("#13");
+                } else {
+                    writer.writeCharacters(LINE_SEPARATOR);
+                }
+                start = i + 1;
+            }
+        }
+        writer.writeCharacters(start == 0 ? value : value.substring(start));
+        writer.writeEndElement();
     }
 
 }
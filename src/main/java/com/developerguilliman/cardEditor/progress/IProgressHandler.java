@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.progress;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Receives the progress of a long task, and tells the task when it has to
+ * stop.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public interface IProgressHandler {
+
+    /**
+     * @param label what the task is doing
+     * @param done the work already done
+     * @param total the whole work, zero or less when it is not known
+     */
+    void progress(String label, long done, long total);
+
+    boolean isCancelled();
+
+    /**
+     * @throws CancellationException when the task has to stop
+     */
+    default void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException();
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.progress;
+
+/**
+ * Progress handler of the tasks nobody follows, they are never cancelled.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public class ProgressIgnored implements IProgressHandler {
+
+    @Override
+    public void progress(String label, long done, long total) {
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+}
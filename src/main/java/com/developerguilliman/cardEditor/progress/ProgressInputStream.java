@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.progress;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reports the bytes read from a stream of known length as the progress of a
+ * task, and stops the reads once the task is cancelled.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public class ProgressInputStream extends FilterInputStream {
+
+    private final long length;
+    private final String label;
+    private final IProgressHandler progressHandler;
+    private long read;
+
+    public ProgressInputStream(InputStream in, long length, String label, IProgressHandler progressHandler) {
+        super(in);
+        this.length = length;
+        this.label = label;
+        this.progressHandler = progressHandler;
+    }
+
+    @Override
+    public int read() throws IOException {
+        progressHandler.checkCancelled();
+        int b = super.read();
+        if (b >= 0) {
+            read++;
+            progressHandler.progress(label, read, length);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        progressHandler.checkCancelled();
+        int count = super.read(b, off, len);
+        if (count > 0) {
+            read += count;
+            progressHandler.progress(label, read, length);
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        read += skipped;
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+}
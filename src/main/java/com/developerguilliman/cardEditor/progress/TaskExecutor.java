@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.progress;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor shared by the long tasks of the application. It starts a
+ * virtual thread per task on the Java versions that have them, and uses a
+ * small pool of daemon threads otherwise.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public final class TaskExecutor {
+
+    private static final int POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private TaskExecutor() {
+    }
+
+    public static ExecutorService get() {
+        return EXECUTOR;
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            // Looked up at run time, the sources are built for Java 8
+            Method virtualThreads = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtualThreads.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), (r) -> {
+                        Thread t = new Thread(r, "Task-" + count.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2020 Developer Guilliman <developerguilliman@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.developerguilliman.cardEditor.warning;
+
+import com.developerguilliman.cardEditor.metrics.Metric;
+
+/**
+ * Counts the warnings in a metric before handing them to another handler.
+ *
+ * @author Developer Guilliman <developerguilliman@gmail.com>
+ */
+public class WarningCounter implements IWarningHandler {
+
+    private final IWarningHandler warningHandler;
+    private final Metric metric;
+
+    public WarningCounter(IWarningHandler warningHandler, Metric metric) {
+        this.warningHandler = warningHandler;
+        this.metric = metric;
+    }
+
+    @Override
+    public void warn(String warningText) {
+        metric.increment();
+        warningHandler.warn(warningText);
+    }
+
+}
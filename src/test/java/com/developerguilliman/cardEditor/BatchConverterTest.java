@@ -0,0 +1,134 @@
+package com.developerguilliman.cardEditor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import com.developerguilliman.cardEditor.data.CardCollectionData;
+import com.developerguilliman.cardEditor.data.CardData;
+import com.developerguilliman.cardEditor.data.SectionData;
+import com.developerguilliman.cardEditor.output.PdfOutput;
+import com.developerguilliman.cardEditor.output.XmlCardOutput;
+import com.developerguilliman.cardEditor.warning.WarningArrayList;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Checks the exit codes of the command line conversion and that the pdf
+ * settings files keep every setting.
+ */
+public class BatchConverterTest
+    extends TestCase
+{
+    private File dir;
+    private PrintStream out;
+
+    public BatchConverterTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( BatchConverterTest.class );
+    }
+
+    @Override
+    protected void setUp()
+        throws IOException
+    {
+        dir = Files.createTempDirectory( "batch" ).toFile();
+        out = new PrintStream( new ByteArrayOutputStream() );
+    }
+
+    @Override
+    protected void tearDown()
+    {
+        for ( File file : dir.listFiles() )
+        {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    public void testSettingsRoundTrip()
+        throws IOException
+    {
+        ByteArrayOutputStream color = new ByteArrayOutputStream();
+        new PdfOutput.Builder( PdfOutput.DefaultPreset.COLOR_8 ).setPerX( 2 ).save( color );
+        PdfOutput.Builder builder = new PdfOutput.Builder( PdfOutput.DefaultPreset.BW_9 );
+        builder.load( new ByteArrayInputStream( color.toByteArray() ) );
+        ByteArrayOutputStream again = new ByteArrayOutputStream();
+        builder.save( again );
+        assertEquals( 2, builder.getPerX() );
+        assertTrue( Arrays.equals( color.toByteArray(), again.toByteArray() ) );
+    }
+
+    public void testWrongSettings()
+    {
+        try
+        {
+            new PdfOutput.Builder( PdfOutput.DefaultPreset.BW_8 )
+                .load( new ByteArrayInputStream( "titleFontColor=red".getBytes() ) );
+            fail();
+        }
+        catch ( IllegalArgumentException | IOException e )
+        {
+            assertTrue( e.getMessage().contains( "titleFontColor" ) );
+        }
+    }
+
+    public void testExitCodes()
+        throws IOException
+    {
+        File good = writeCards( "good.xml", "Some rules." );
+        StringBuilder rules = new StringBuilder();
+        for ( int i = 0; i < 3000; i++ )
+        {
+            rules.append( "More rules than fit. " );
+        }
+        File tooLong = writeCards( "long.xml", rules.toString() );
+        File broken = new File( dir, "broken.xml" );
+        Files.write( broken.toPath(), "<cards><broken".getBytes() );
+
+        assertEquals( BatchConverter.EXIT_OK, BatchConverter.run( new String[] {
+            "--batch", "--threads", "2", good.getPath() }, out ) );
+        assertTrue( new File( dir, "good.pdf" ).length() > 0 );
+
+        assertEquals( BatchConverter.EXIT_WARNINGS, BatchConverter.run( new String[] {
+            "--batch", good.getPath(), tooLong.getPath() }, out ) );
+        assertTrue( new File( dir, "long.pdf" ).length() > 0 );
+
+        assertEquals( BatchConverter.EXIT_FAILED, BatchConverter.run( new String[] {
+            "--batch", good.getPath(), broken.getPath(), tooLong.getPath() }, out ) );
+        assertFalse( new File( dir, "broken.pdf" ).exists() );
+        assertFalse( new File( dir, "broken.pdf.part" ).exists() );
+
+        assertEquals( BatchConverter.EXIT_USAGE, BatchConverter.run( new String[] {
+            "--batch", "--preset", "NONE", good.getPath() }, out ) );
+        assertEquals( BatchConverter.EXIT_USAGE, BatchConverter.run( new String[] { "--batch" }, out ) );
+    }
+
+    private File writeCards( String name, String rules )
+        throws IOException
+    {
+        SectionData section = new SectionData();
+        section.add( new CardData( "Stratagem", "NAME", "Legend.", rules, "1", "CP" ) );
+        CardCollectionData cards = new CardCollectionData();
+        cards.add( section );
+        File file = new File( dir, name );
+        try ( OutputStream os = new FileOutputStream( file ) )
+        {
+            new XmlCardOutput().build( os, cards, new WarningArrayList() );
+        }
+        return file;
+    }
+}
@@ -0,0 +1,81 @@
+package com.developerguilliman.cardEditor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Checks that {@link CardHash} gives the ids printed by the previous
+ * implementation, which hashed the bytes of {@link String#getBytes}.
+ */
+public class CardHashTest
+    extends TestCase
+{
+    private static final char[] BASE32_ALPHABET = "BCDEFGHJKLMNPQRSTVWXYZ1234567890".toCharArray();
+
+    public CardHashTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( CardHashTest.class );
+    }
+
+    public void testKnownHashes()
+    {
+        CardHash cardHash = new CardHash();
+        assertEquals( "49C9D", cardHash.getStringsHash( "" ) );
+        assertEquals( "FH5SL", cardHash.getStringsHash( "A" ) );
+        assertEquals( "2VWLP", cardHash.getStringsHash( "Hello card" ) );
+        assertEquals( "60VCY", cardHash.getStringsHash( "lone \uD83D high" ) );
+        assertEquals( "WWYZK", cardHash.getStringsHash( "lone \uDE00 low" ) );
+        assertEquals( "BP8XZ", cardHash.getStringsHash( "Title", "Name", "legend \uD83D", "\uDE00rules" ) );
+        assertEquals( "49C9D", cardHash.getStringsHash( new String[0] ) );
+    }
+
+    public void testSameHashesAsStringBytes()
+        throws Exception
+    {
+        Random random = new Random( 23 );
+        CardHash cardHash = new CardHash();
+        MessageDigest messageDigest = MessageDigest.getInstance( "SHA-512" );
+        for ( int n = 0; n < 2000; n++ )
+        {
+            char[] chars = new char[random.nextInt( ( n % 100 == 0 ) ? 9000 : 60 )];
+            for ( int i = 0; i < chars.length; i++ )
+            {
+                switch ( random.nextInt( 5 ) )
+                {
+                    case 0:
+                        chars[i] = (char) random.nextInt( 0x10000 );
+                        break;
+                    case 1:
+                        chars[i] = (char) ( 0xD800 + random.nextInt( 0x800 ) );
+                        break;
+                    case 2:
+                        chars[i] = (char) random.nextInt( 0x800 );
+                        break;
+                    default:
+                        chars[i] = (char) random.nextInt( 0x80 );
+                        break;
+                }
+            }
+            String s = new String( chars );
+            byte[] digest = messageDigest.digest( s.getBytes( StandardCharsets.UTF_8 ) );
+            int bits = ( ( digest[0] & 0xFF ) << 24 ) | ( ( digest[1] & 0xFF ) << 16 )
+                | ( ( digest[2] & 0xFF ) << 8 ) | ( digest[3] & 0xFF );
+            StringBuilder expected = new StringBuilder();
+            for ( int i = 0; i < 5; i++ )
+            {
+                expected.append( BASE32_ALPHABET[( bits >>> ( 27 - 5 * i ) ) & 0x1F] );
+            }
+            assertEquals( expected.toString(), cardHash.getStringsHash( new StringBuilder( s ) ) );
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.developerguilliman.cardEditor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Checks {@link Utils#longestCommonWords(List)} against the previous
+ * implementation, which tried every run of words with contains.
+ */
+public class UtilsTest
+    extends TestCase
+{
+    private static final String[] WORDS = {
+        "Battle", "Tactic", "Stratagem", "Strategic", "Ploy", "Relic", "Relics",
+        "Warlord", "Trait", "a", "ab", "ba", "Tac", "-", "ÿ", "épée"
+    };
+
+    public UtilsTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( UtilsTest.class );
+    }
+
+    public void testLongestCommonWordsExamples()
+    {
+        assertEquals( "", Utils.longestCommonWords( Collections.<String>emptyList() ) );
+        assertEquals( "", Utils.longestCommonWords( Arrays.asList( "" ) ) );
+        assertEquals( "Battle Tactic", Utils.longestCommonWords( Arrays.asList( "Battle Tactic" ) ) );
+        assertEquals( "Stratagem", Utils.longestCommonWords(
+                Arrays.asList( "Battle Tactic Stratagem", "Strategic Ploy Stratagem" ) ) );
+        assertEquals( "Relic", Utils.longestCommonWords( Arrays.asList( "Relic", "Relics" ) ) );
+        assertEquals( "", Utils.longestCommonWords( Arrays.asList( "Relics", "Relic" ) ) );
+        assertEquals( "Warlord Trait", Utils.longestCommonWords(
+                Arrays.asList( "Warlord Trait", "Chapter Warlord Trait", "Warlord Traits" ) ) );
+    }
+
+    public void testLongestCommonWordsMatchesPreviousImplementation()
+    {
+        Random random = new Random( 0x40C0DE );
+        for ( int round = 0; round < 20000; round++ )
+        {
+            List<String> titles = new ArrayList<>();
+            int count = 1 + random.nextInt( 5 );
+            String base = randomTitle( random );
+            for ( int i = 0; i < count; i++ )
+            {
+                titles.add( random.nextInt( 3 ) == 0 ? randomTitle( random ) : mutate( random, base ) );
+            }
+            assertEquals( titles.toString(), previousLongestCommonWords( titles ), Utils.longestCommonWords( titles ) );
+        }
+    }
+
+    private static String randomTitle( Random random )
+    {
+        StringBuilder sb = new StringBuilder();
+        int words = random.nextInt( 7 );
+        for ( int i = 0; i < words; i++ )
+        {
+            if ( i > 0 || random.nextInt( 8 ) == 0 )
+            {
+                sb.append( random.nextInt( 10 ) == 0 ? "  " : " " );
+            }
+            sb.append( WORDS[random.nextInt( WORDS.length )] );
+        }
+        if ( random.nextInt( 8 ) == 0 )
+        {
+            sb.append( ' ' );
+        }
+        return sb.toString();
+    }
+
+    private static String mutate( Random random, String base )
+    {
+        switch ( random.nextInt( 4 ) )
+        {
+            case 0:
+                return base;
+            case 1:
+                return randomTitle( random ) + " " + base;
+            case 2:
+                return base + randomTitle( random );
+            default:
+                int cut = base.isEmpty() ? 0 : random.nextInt( base.length() );
+                return base.substring( cut ) + " " + randomTitle( random ) + base.substring( 0, cut );
+        }
+    }
+
+    private static String previousLongestCommonWords( List<String> list )
+    {
+        String[] array = list.toArray( new String[0] );
+        int aLen = array.length;
+        if ( aLen == 0 )
+        {
+            return "";
+        }
+
+        String result = "";
+        String s = array[0];
+        int sLen = s.length();
+
+        for ( int i = 0; i < sLen; i = nextSpace( s, i ) + 1 )
+        {
+            for ( int j = nextSpace( s, i ); j <= sLen; j = nextSpace( s, j ) )
+            {
+                String sub = s.substring( i, j );
+                int k;
+                for ( k = 1; k < aLen; k++ )
+                {
+                    if ( !array[k].contains( sub ) )
+                    {
+                        break;
+                    }
+                }
+                if ( k == aLen && result.length() < sub.length() )
+                {
+                    result = sub;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int nextSpace( String s, int i )
+    {
+        int sLen = s.length();
+        if ( i == sLen )
+        {
+            return sLen + 1;
+        }
+        i = s.indexOf( ' ', i + 1 );
+        return i < 0 ? sLen : i;
+    }
+}
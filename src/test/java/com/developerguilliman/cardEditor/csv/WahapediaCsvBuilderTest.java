@@ -0,0 +1,100 @@
+package com.developerguilliman.cardEditor.csv;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.unbescape.html.HtmlEscape;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Checks {@link WahapediaCsvBuilder#stripHtml(String)} against the previous
+ * implementation, two regular expressions followed by unbescape.
+ */
+public class WahapediaCsvBuilderTest
+    extends TestCase
+{
+    private static final Pattern LI_TAG_START_PATTERN = Pattern.compile( "\\<li.*?\\>" );
+    private static final Pattern ANY_TAG_PATTERN = Pattern.compile( "\\<.*?\\>" );
+
+    private static final String[] FRAGMENTS = {
+        "Use this Stratagem", " ", "  ", "\t", "a", "D6", "4+", "•", "é",
+        "<li>", "<li class=\"impact\">", "</li>", "<ul>", "</ul>", "<b>", "</b>", "<br>", "<lix", "<link>",
+        "<", ">", "<>", "<<", ">>", "<li", "li>", "< li>",
+        "\n", "\r", "\r\n", "\u0085", "\u2028", "\u2029",
+        "&", "& ", "&&", "&;", "&#", "&#;", "&#x;", "&x", "#", ";", "amp;", "&am", "p;",
+        "&amp;", "&AMP;", "&amp", "&lt;", "&gt;", "&quot;", "&apos;", "&nbsp;", "&ndash;", "&mdash;",
+        "&lsquo;", "&rsquo;", "&ldquo;", "&rdquo;", "&hellip;", "&bull;", "&times;", "&deg;",
+        "&laquo;", "&raquo;", "&copy;", "&reg;", "&trade;", "&middot;", "&frac12;", "&minus;", "&plusmn;",
+        "&not;", "&notit;", "&nbspx;", "&unknown;", "&Aacute;", "&aacute;",
+        "&#39;", "&#039;", "&#x27;", "&#X27;", "&#8211;", "&#x2013;", "&#128;", "&#150;", "&#0;", "&#9;",
+        "&#10;", "&#55296;", "&#xD800;", "&#65535;", "&#x10000;", "&#1114112;", "&#99999999;", "&#39", "&#x27"
+    };
+
+    public WahapediaCsvBuilderTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( WahapediaCsvBuilderTest.class );
+    }
+
+    public void testStripHtmlExamples()
+    {
+        assertEquals( "", WahapediaCsvBuilder.stripHtml( "" ) );
+        assertEquals( "", WahapediaCsvBuilder.stripHtml( "  <b></b> " ) );
+        assertEquals( "Plain text", WahapediaCsvBuilder.stripHtml( " Plain text\t" ) );
+        assertEquals( "Use this Stratagem in your Shooting phase.",
+                WahapediaCsvBuilder.stripHtml( "Use this Stratagem in your <b>Shooting</b> phase." ) );
+        assertEquals( "Effects:\n\n• One\n\n• Two",
+                WahapediaCsvBuilder.stripHtml( "Effects:<ul class=\"impact\"><li>One</li><li>Two</li></ul>" ) );
+        assertEquals( "Roll a D6 – that unit's weapons & <armour>",
+                WahapediaCsvBuilder.stripHtml( "Roll a D6&nbsp;&ndash; that unit&#39;s weapons &amp; &lt;armour&gt;" ) );
+        assertEquals( "&amp;", WahapediaCsvBuilder.stripHtml( "&amp;amp;" ) );
+        assertEquals( "&", WahapediaCsvBuilder.stripHtml( "&am<b>p;" ) );
+        assertEquals( "a <b\nc", WahapediaCsvBuilder.stripHtml( "a <b\nc" ) );
+    }
+
+    public void testStripHtmlMatchesPreviousImplementation()
+    {
+        Random random = new Random( 0x5781 );
+        for ( int round = 0; round < 200000; round++ )
+        {
+            StringBuilder sb = new StringBuilder();
+            int count = random.nextInt( 12 );
+            for ( int i = 0; i < count; i++ )
+            {
+                sb.append( FRAGMENTS[random.nextInt( FRAGMENTS.length )] );
+            }
+            String html = sb.toString();
+            assertEquals( html, previousStripHtml( html ), WahapediaCsvBuilder.stripHtml( html ) );
+        }
+    }
+
+    public void testStripHtmlEntities()
+    {
+        for ( String fragment : FRAGMENTS )
+        {
+            String html = "x" + fragment + "y" + fragment;
+            assertEquals( html, previousStripHtml( html ), WahapediaCsvBuilder.stripHtml( html ) );
+        }
+        for ( int value = 0; value < 0x11000; value++ )
+        {
+            String html = "&#" + value + ";&#x" + Integer.toHexString( value ) + ";";
+            assertEquals( html, previousStripHtml( html ), WahapediaCsvBuilder.stripHtml( html ) );
+        }
+    }
+
+    private static String previousStripHtml( String str )
+    {
+        str = str.trim();
+        str = LI_TAG_START_PATTERN.matcher( str ).replaceAll( "\n\n• " );
+        str = ANY_TAG_PATTERN.matcher( str ).replaceAll( "" );
+        str = HtmlEscape.unescapeHtml( str );
+        return str;
+    }
+}
@@ -0,0 +1,188 @@
+package com.developerguilliman.cardEditor.csv;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.developerguilliman.cardEditor.metrics.Metric;
+import com.developerguilliman.cardEditor.metrics.Metrics;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Checks that {@link WahapediaCsvSnapshot} gives the same cells streaming the
+ * CSV, parsing it and loading its saved snapshot, and that a broken snapshot
+ * is parsed again and replaced.
+ */
+public class WahapediaCsvSnapshotTest
+    extends TestCase
+{
+    private static final String CSV = "﻿id|faction_id|name|description|\n"
+        + "1|SM|Fire Discipline|<b>Use</b> this <ul><li>once</li></ul>|\n"
+        + "2|CSM|Veterans of the &amp; Long War|<p>Re-roll</p>|\n"
+        + "3|SM|Only Name||\n"
+        + "4|SM|Rapid Fire|Shoot &lt;twice&gt;|\n";
+
+    private static final String[] COLUMNS = { "faction_id", "name", "description", "missing" };
+    private static final String[] HTML_COLUMNS = { "description" };
+
+    private static final Metric STRIP_HTML_METRIC = Metrics.get().timer( "wahapedia.stripHtml" );
+
+    private File directory;
+    private File defaultDirectory;
+
+    public WahapediaCsvSnapshotTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( WahapediaCsvSnapshotTest.class );
+    }
+
+    @Override
+    protected void setUp() throws IOException
+    {
+        directory = Files.createTempDirectory( "snapshots" ).toFile();
+        defaultDirectory = WahapediaCsvSnapshot.getDefaultDirectory();
+    }
+
+    @Override
+    protected void tearDown()
+    {
+        WahapediaCsvSnapshot.setDefaultDirectory( defaultDirectory );
+        File[] files = directory.listFiles();
+        if ( files != null )
+        {
+            for ( File file : files )
+            {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private static ByteArrayInputStream source()
+    {
+        return new ByteArrayInputStream( CSV.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    private static List<String> readCells( String faction ) throws IOException
+    {
+        List<String> cells = new ArrayList<>();
+        WahapediaCsvSnapshot.readCells( source(), COLUMNS, HTML_COLUMNS, ( row ) -> {
+            if ( !row.matchesAny( 0, Collections.singleton( faction ) ) )
+            {
+                return;
+            }
+            for ( int column = 0; column < COLUMNS.length; column++ )
+            {
+                cells.add( row.getString( column ) );
+                cells.add( String.valueOf( row.isEmpty( column ) ) );
+            }
+        } );
+        return cells;
+    }
+
+    private static List<String> expectedCells()
+    {
+        return Arrays.asList(
+            "SM", "false", "Fire Discipline", "false", WahapediaCsvBuilder.stripHtml( "<b>Use</b> this <ul><li>once</li></ul>" ), "false", "", "true",
+            "SM", "false", "Only Name", "false", "", "true", "", "true",
+            "SM", "false", "Rapid Fire", "false", "Shoot <twice>", "false", "", "true" );
+    }
+
+    private File getSnapshotFile()
+    {
+        File[] files = directory.listFiles();
+        assertEquals( 1, files.length );
+        return files[0];
+    }
+
+    public void testSavedInTheHomeByDefault()
+    {
+        if ( System.getProperty( WahapediaCsvSnapshot.DIRECTORY_PROPERTY ) == null )
+        {
+            assertEquals( new File( System.getProperty( "user.home" ), ".cardEditor/snapshots" ), defaultDirectory );
+        }
+    }
+
+    public void testStreamedWithoutDirectory() throws IOException
+    {
+        WahapediaCsvSnapshot.setDefaultDirectory( null );
+        List<String> expected = expectedCells();
+        long stripped = STRIP_HTML_METRIC.getCount();
+        assertEquals( expected, readCells( "SM" ) );
+        // Only the descriptions of the selected rows were cleaned, once for the text and once for isEmpty
+        assertEquals( 3 * 2, STRIP_HTML_METRIC.getCount() - stripped );
+        assertEquals( 0, directory.listFiles().length );
+    }
+
+    public void testSaveAndLoad() throws IOException
+    {
+        WahapediaCsvSnapshot.setDefaultDirectory( directory );
+        assertEquals( expectedCells(), readCells( "SM" ) );
+        File file = getSnapshotFile();
+        long modified = file.lastModified();
+        long length = file.length();
+
+        List<String> expected = expectedCells();
+        long stripped = STRIP_HTML_METRIC.getCount();
+        assertEquals( expected, readCells( "SM" ) );
+        assertEquals( 0, STRIP_HTML_METRIC.getCount() - stripped );
+        assertEquals( modified, getSnapshotFile().lastModified() );
+        assertEquals( length, getSnapshotFile().length() );
+
+        WahapediaCsvSnapshot parsed = WahapediaCsvSnapshot.read( source(), COLUMNS, HTML_COLUMNS, (File) null );
+        WahapediaCsvSnapshot loaded = WahapediaCsvSnapshot.read( source(), COLUMNS, HTML_COLUMNS, directory );
+        assertEquals( 4, loaded.getRowCount() );
+        assertEquals( COLUMNS.length, loaded.getColumnCount() );
+        for ( int row = 0; row < 4; row++ )
+        {
+            for ( int column = 0; column < COLUMNS.length; column++ )
+            {
+                assertEquals( parsed.getString( row, column ), loaded.getString( row, column ) );
+            }
+        }
+        // Only the HTML columns are cleaned
+        assertEquals( "Veterans of the &amp; Long War", loaded.getString( 1, 1 ) );
+        assertEquals( WahapediaCsvBuilder.stripHtml( "<p>Re-roll</p>" ), loaded.getString( 1, 2 ) );
+    }
+
+    public void testBrokenSnapshotIsReplaced() throws IOException
+    {
+        WahapediaCsvSnapshot.setDefaultDirectory( directory );
+        readCells( "SM" );
+        File file = getSnapshotFile();
+        byte[] saved = Files.readAllBytes( file.toPath() );
+
+        // A changed string byte, caught by the checksum
+        try ( RandomAccessFile raf = new RandomAccessFile( file, "rw" ) )
+        {
+            raf.seek( saved.length - 2 );
+            raf.write( saved[saved.length - 2] ^ 0x20 );
+        }
+        assertEquals( expectedCells(), readCells( "SM" ) );
+        assertTrue( Arrays.equals( saved, Files.readAllBytes( getSnapshotFile().toPath() ) ) );
+
+        // A truncated file
+        Files.write( file.toPath(), Arrays.copyOf( saved, saved.length / 2 ) );
+        assertEquals( expectedCells(), readCells( "SM" ) );
+        assertTrue( Arrays.equals( saved, Files.readAllBytes( getSnapshotFile().toPath() ) ) );
+
+        // Not a snapshot at all
+        Files.write( file.toPath(), new byte[] { 1, 2, 3 } );
+        assertEquals( expectedCells(), readCells( "SM" ) );
+        assertTrue( Arrays.equals( saved, Files.readAllBytes( getSnapshotFile().toPath() ) ) );
+    }
+}
@@ -0,0 +1,220 @@
+package com.developerguilliman.cardEditor.csv;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Runs {@link WahapediaHttpCache} against a local server that answers
+ * conditional requests like Wahapedia does.
+ */
+public class WahapediaHttpCacheTest
+    extends TestCase
+{
+    private static final String ETAG = "\"v1\"";
+    private static final String NEW_ETAG = "\"v2\"";
+    private static final String LAST_MODIFIED = "Sat, 01 Aug 2020 10:00:00 GMT";
+
+    private HttpServer server;
+    private File directory;
+    private final List<String> requests = new ArrayList<>();
+    private volatile String body = "id|name\n1|Fire Discipline\n";
+    private volatile boolean gzip;
+    private volatile boolean sendEtag = true;
+    private volatile String etag = ETAG;
+
+    public WahapediaHttpCacheTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( WahapediaHttpCacheTest.class );
+    }
+
+    @Override
+    protected void setUp() throws IOException
+    {
+        directory = Files.createTempDirectory( "http-cache" ).toFile();
+        server = HttpServer.create( new InetSocketAddress( "127.0.0.1", 0 ), 0 );
+        server.createContext( "/", this::handle );
+        server.start();
+    }
+
+    @Override
+    protected void tearDown()
+    {
+        server.stop( 0 );
+        File[] files = directory.listFiles();
+        if ( files != null )
+        {
+            for ( File file : files )
+            {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private void handle( HttpExchange exchange ) throws IOException
+    {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst( "If-None-Match" );
+        String ifModifiedSince = exchange.getRequestHeaders().getFirst( "If-Modified-Since" );
+        String acceptEncoding = exchange.getRequestHeaders().getFirst( "Accept-Encoding" );
+        synchronized ( requests )
+        {
+            requests.add( ifNoneMatch + "|" + ifModifiedSince + "|" + acceptEncoding );
+        }
+        boolean notModified = sendEtag ? etag.equals( ifNoneMatch ) : LAST_MODIFIED.equals( ifModifiedSince );
+        if ( notModified )
+        {
+            exchange.sendResponseHeaders( 304, -1 );
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.getBytes( StandardCharsets.UTF_8 );
+        if ( gzip )
+        {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try ( GZIPOutputStream gos = new GZIPOutputStream( baos ) )
+            {
+                gos.write( bytes );
+            }
+            bytes = baos.toByteArray();
+            exchange.getResponseHeaders().add( "Content-Encoding", "gzip" );
+        }
+        if ( sendEtag )
+        {
+            exchange.getResponseHeaders().add( "ETag", etag );
+        }
+        exchange.getResponseHeaders().add( "Last-Modified", LAST_MODIFIED );
+        exchange.sendResponseHeaders( 200, bytes.length );
+        try ( OutputStream os = exchange.getResponseBody() )
+        {
+            os.write( bytes );
+        }
+    }
+
+    private String url( String path )
+    {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static String read( InputStream is ) throws IOException
+    {
+        try ( InputStream in = is )
+        {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ( ( read = in.read( buffer ) ) >= 0 )
+            {
+                baos.write( buffer, 0, read );
+            }
+            return new String( baos.toByteArray(), StandardCharsets.UTF_8 );
+        }
+    }
+
+    public void testRevalidatesWithEtag() throws IOException
+    {
+        WahapediaHttpCache cache = new WahapediaHttpCache( directory );
+        String original = body;
+        assertEquals( original, read( cache.open( url( "/Stratagems.csv" ) ) ) );
+        body = "changed on the server but not the validator";
+        assertEquals( original, read( cache.open( url( "/Stratagems.csv" ) ) ) );
+
+        assertEquals( 2, requests.size() );
+        assertEquals( "null|null|gzip", requests.get( 0 ) );
+        assertEquals( ETAG + "|" + LAST_MODIFIED + "|gzip", requests.get( 1 ) );
+    }
+
+    public void testRevalidatesWithLastModified() throws IOException
+    {
+        sendEtag = false;
+        WahapediaHttpCache cache = new WahapediaHttpCache( directory );
+        String original = body;
+        assertEquals( original, read( cache.open( url( "/Abilities.csv" ) ) ) );
+        body = "changed";
+        assertEquals( original, read( cache.open( url( "/Abilities.csv" ) ) ) );
+        assertEquals( "null|" + LAST_MODIFIED + "|gzip", requests.get( 1 ) );
+    }
+
+    public void testDownloadsAgainWhenChanged() throws IOException
+    {
+        WahapediaHttpCache cache = new WahapediaHttpCache( directory );
+        read( cache.open( url( "/Stratagems.csv" ) ) );
+        etag = NEW_ETAG;
+        body = "id|name\n2|Counter-offensive\n";
+        assertEquals( body, read( cache.open( url( "/Stratagems.csv" ) ) ) );
+        assertEquals( body, read( cache.open( url( "/Stratagems.csv" ) ) ) );
+        assertEquals( 3, requests.size() );
+        assertEquals( NEW_ETAG + "|" + LAST_MODIFIED + "|gzip", requests.get( 2 ) );
+    }
+
+    public void testDecodesGzip() throws IOException
+    {
+        gzip = true;
+        body = "id|name|description\n1|Épée|<b>ÿ</b>\n";
+        WahapediaHttpCache cache = new WahapediaHttpCache( directory );
+        assertEquals( body, read( cache.open( url( "/PsychicPowers.csv" ) ) ) );
+        assertEquals( body, read( cache.open( url( "/PsychicPowers.csv" ) ) ) );
+    }
+
+    public void testKeepsUrlsApart() throws IOException
+    {
+        WahapediaHttpCache cache = new WahapediaHttpCache( directory );
+        String first = body;
+        read( cache.open( url( "/a" ) ) );
+        body = "second";
+        sendEtag = false;
+        assertEquals( "second", read( cache.open( url( "/b" ) ) ) );
+        assertEquals( first, read( new WahapediaHttpCache( directory ).open( url( "/a" ) ) ) );
+    }
+
+    public void testOffline() throws IOException
+    {
+        WahapediaHttpCache cache = new WahapediaHttpCache( directory );
+        String original = body;
+        read( cache.open( url( "/Stratagems.csv" ) ) );
+
+        cache.setOffline( true );
+        assertEquals( original, read( cache.open( url( "/Stratagems.csv" ) ) ) );
+        assertEquals( 1, requests.size() );
+        try
+        {
+            cache.open( url( "/Warlord_traits.csv" ) );
+            fail( "Not cached URL opened offline" );
+        }
+        catch ( IOException e )
+        {
+            // Expected
+        }
+        assertEquals( 1, requests.size() );
+    }
+
+    public void testUsesCopyWhenServerIsDown() throws IOException
+    {
+        WahapediaHttpCache cache = new WahapediaHttpCache( directory );
+        String original = body;
+        String url = url( "/Stratagems.csv" );
+        read( cache.open( url ) );
+        server.stop( 0 );
+        assertEquals( original, read( cache.open( url ) ) );
+    }
+}
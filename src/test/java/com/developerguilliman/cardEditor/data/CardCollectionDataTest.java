@@ -0,0 +1,166 @@
+package com.developerguilliman.cardEditor.data;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Random;
+
+import com.developerguilliman.cardEditor.Utils;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Checks {@link CardCollectionData#getExactIndex(SectionData)} against a
+ * linear identity search while the sections change in every possible way.
+ */
+public class CardCollectionDataTest
+    extends TestCase
+{
+    public CardCollectionDataTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( CardCollectionDataTest.class );
+    }
+
+    public void testExactIndexOfEqualSections()
+    {
+        CardCollectionData cards = new CardCollectionData();
+        SectionData first = new SectionData();
+        SectionData second = new SectionData();
+        SectionData absent = new SectionData();
+        cards.add( first );
+        cards.add( second );
+        cards.add( first );
+        assertEquals( 0, cards.getExactIndex( first ) );
+        assertEquals( 1, cards.getExactIndex( second ) );
+        assertEquals( -1, cards.getExactIndex( absent ) );
+        cards.remove( 0 );
+        assertEquals( 0, cards.getExactIndex( second ) );
+        assertEquals( 1, cards.getExactIndex( first ) );
+        cards.clear();
+        assertEquals( -1, cards.getExactIndex( first ) );
+    }
+
+    public void testExactIndexWhileReadingOnAnotherThread() throws InterruptedException
+    {
+        final CardCollectionData cards = new CardCollectionData();
+        final SectionData[] pool = new SectionData[100];
+        for ( int i = 0; i < pool.length; i++ )
+        {
+            pool[i] = new SectionData();
+            cards.add( pool[i] );
+        }
+        final Throwable[] failure = new Throwable[1];
+        Thread reader = new Thread( () ->
+        {
+            try
+            {
+                for ( int round = 0; round < 2000; round++ )
+                {
+                    for ( SectionData s : cards )
+                    {
+                        assertNotNull( s );
+                    }
+                    cards.subList( 0, pool.length / 2 ).listIterator().hasNext();
+                }
+            }
+            catch ( Throwable t )
+            {
+                failure[0] = t;
+            }
+        } );
+        reader.start();
+        while ( reader.isAlive() )
+        {
+            for ( int i = 0; i < pool.length; i++ )
+            {
+                assertEquals( i, cards.getExactIndex( pool[i] ) );
+            }
+        }
+        reader.join();
+        assertNull( failure[0] );
+    }
+
+    public void testExactIndexMatchesLinearSearch()
+    {
+        Random random = new Random( 0x1DE );
+        CardCollectionData cards = new CardCollectionData();
+        SectionData[] pool = new SectionData[40];
+        for ( int i = 0; i < pool.length; i++ )
+        {
+            pool[i] = new SectionData();
+        }
+        for ( int round = 0; round < 20000; round++ )
+        {
+            SectionData section = pool[random.nextInt( pool.length )];
+            int size = cards.size();
+            switch ( random.nextInt( 10 ) )
+            {
+                case 0:
+                    cards.add( section );
+                    break;
+                case 1:
+                    cards.add( random.nextInt( size + 1 ), section );
+                    break;
+                case 2:
+                    if ( size > 0 )
+                    {
+                        cards.remove( random.nextInt( size ) );
+                    }
+                    break;
+                case 3:
+                    if ( size > 0 )
+                    {
+                        cards.set( random.nextInt( size ), section );
+                    }
+                    break;
+                case 4:
+                    Collections.shuffle( cards, random );
+                    break;
+                case 5:
+                    Iterator<SectionData> iterator = cards.iterator();
+                    while ( iterator.hasNext() )
+                    {
+                        if ( iterator.next() == section )
+                        {
+                            iterator.remove();
+                        }
+                    }
+                    break;
+                case 6:
+                    ListIterator<SectionData> listIterator = cards.listIterator();
+                    if ( listIterator.hasNext() )
+                    {
+                        listIterator.next();
+                        listIterator.add( section );
+                    }
+                    break;
+                case 7:
+                    if ( size > 1 )
+                    {
+                        cards.subList( 0, random.nextInt( size ) ).clear();
+                    }
+                    break;
+                case 8:
+                    cards.removeIf( ( s ) -> s == section );
+                    break;
+                default:
+                    if ( random.nextInt( 50 ) == 0 )
+                    {
+                        cards.clear();
+                    }
+                    break;
+            }
+            for ( SectionData s : pool )
+            {
+                assertEquals( Utils.getExactIndex( cards, s ), cards.getExactIndex( s ) );
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.developerguilliman.cardEditor.data;
+
+import java.util.Arrays;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Checks that {@link CardDeduplicator} keeps the first of the equal cards in
+ * the order they are added, also when different texts share a hash.
+ */
+public class CardDeduplicatorTest
+    extends TestCase
+{
+    public CardDeduplicatorTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( CardDeduplicatorTest.class );
+    }
+
+    private static CardData card( String title, String name, String legend, String rules )
+    {
+        return new CardData( title, name, legend, rules, "1", "CP" );
+    }
+
+    public void testFirstCardsInOrder()
+    {
+        CardData first = card( "T", "First", "L", "R" );
+        CardData second = card( "T", "Second", "L", "R" );
+        CardData third = card( "T", "Third", "L", "R" );
+        CardDeduplicator dedup = new CardDeduplicator();
+        assertSame( second, dedup.add( second ) );
+        assertSame( first, dedup.add( first ) );
+        assertSame( second, dedup.add( card( "T", "Second", "L", "R" ) ) );
+        assertSame( third, dedup.add( third ) );
+        assertSame( first, dedup.add( card( "T", "First", "L", "R" ) ) );
+        assertEquals( 3, dedup.size() );
+        assertEquals( Arrays.asList( second, first, third ), dedup.getCards() );
+    }
+
+    public void testSameHashDifferentTexts()
+    {
+        assertEquals( "Aa".hashCode(), "BB".hashCode() );
+        // Same lengths and hashes in every text, so the same fingerprint
+        CardData aa = card( "Aa", "AaAa", "AaBB", "" );
+        CardData bb = card( "BB", "BBBB", "BBAa", "" );
+        CardData mixed = card( "Aa", "BBAa", "AaBB", "" );
+        CardDeduplicator dedup = new CardDeduplicator();
+        assertSame( aa, dedup.add( aa ) );
+        assertSame( bb, dedup.add( bb ) );
+        assertSame( mixed, dedup.add( mixed ) );
+        assertSame( bb, dedup.add( card( "BB", "BBBB", "BBAa", "" ) ) );
+        assertSame( aa, dedup.add( card( "Aa", "AaAa", "AaBB", "" ) ) );
+        assertSame( mixed, dedup.add( card( "Aa", "BBAa", "AaBB", "" ) ) );
+        assertEquals( Arrays.asList( aa, bb, mixed ), dedup.getCards() );
+    }
+
+    public void testNullTexts()
+    {
+        CardData nullRules = card( "T", "N", "L", null );
+        CardData emptyRules = card( "T", "N", "L", "" );
+        CardData nullLegend = card( "T", "N", null, "" );
+        CardData allNull = new CardData( null, null, null, null, null, null );
+        CardDeduplicator dedup = new CardDeduplicator( 2 );
+        assertSame( nullRules, dedup.add( nullRules ) );
+        assertSame( emptyRules, dedup.add( emptyRules ) );
+        assertSame( nullLegend, dedup.add( nullLegend ) );
+        assertSame( allNull, dedup.add( allNull ) );
+        assertSame( nullRules, dedup.add( card( "T", "N", "L", null ) ) );
+        assertSame( allNull, dedup.add( new CardData( null, null, null, null, null, null ) ) );
+        assertEquals( Arrays.asList( nullRules, emptyRules, nullLegend, allNull ), dedup.getCards() );
+    }
+}
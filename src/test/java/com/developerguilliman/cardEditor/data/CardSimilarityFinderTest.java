@@ -0,0 +1,116 @@
+package com.developerguilliman.cardEditor.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Checks that {@link CardSimilarityFinder} groups the cards whose texts
+ * differ in a word or in case and punctuation, and leaves the others alone.
+ */
+public class CardSimilarityFinderTest
+    extends TestCase
+{
+    private static final String[] WORDS = { "select", "one", "unit", "from", "your", "army", "that", "is", "within",
+        "range", "of", "an", "enemy", "until", "the", "end", "phase", "add", "to", "hit", "rolls", "made", "for",
+        "attacks", "by", "model", "in", "this", "charge", "fight" };
+
+    public CardSimilarityFinderTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( CardSimilarityFinderTest.class );
+    }
+
+    private static String randomText( Random random, int words )
+    {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i < words; i++ )
+        {
+            sb.append( WORDS[random.nextInt( WORDS.length )] ).append( ' ' );
+        }
+        return sb.toString().trim();
+    }
+
+    private static CardData card( String legend, String rules )
+    {
+        return new CardData( "Stratagem", "Name", legend, rules, "1", "CP" );
+    }
+
+    public void testNearDuplicatesAreGrouped()
+    {
+        Random random = new Random( 0x51 );
+        List<CardData> cards = new ArrayList<>();
+        List<List<CardData>> expected = new ArrayList<>();
+        for ( int i = 0; i < 20; i++ )
+        {
+            String legend = randomText( random, 15 );
+            String rules = randomText( random, 60 );
+            cards.add( card( legend, rules ) );
+            if ( i % 4 == 0 )
+            {
+                CardData original = cards.get( cards.size() - 1 );
+                // Another case and punctuation, and one word changed
+                CardData sameText = card( legend.toUpperCase(), rules.replace( " ", ", " ) + "." );
+                CardData oneWord = card( legend, "unrelated " + rules.substring( rules.indexOf( ' ' ) + 1 ) );
+                cards.add( sameText );
+                cards.add( oneWord );
+                expected.add( Arrays.asList( original, sameText, oneWord ) );
+            }
+        }
+        cards.add( card( "", "" ) );
+        cards.add( card( null, "" ) );
+        assertEquals( expected, new CardSimilarityFinder().find( cards ) );
+    }
+
+    public void testGroupedThroughAnotherCard()
+    {
+        Random random = new Random( 0x52 );
+        String[] words = randomText( random, 40 ).split( " " );
+        List<CardData> cards = new ArrayList<>();
+        // Every card changes a few more words than the previous one
+        for ( int i = 0; i < 6; i++ )
+        {
+            words[i * 7] = "changed" + i;
+            cards.add( card( "", String.join( " ", words ) ) );
+        }
+        List<List<CardData>> groups = new CardSimilarityFinder().find( cards );
+        assertEquals( 1, groups.size() );
+        assertEquals( cards, groups.get( 0 ) );
+    }
+
+    public void testManyIdenticalCards()
+    {
+        Random random = new Random( 0x54 );
+        String legend = randomText( random, 10 );
+        String rules = randomText( random, 40 );
+        List<CardData> cards = new ArrayList<>();
+        // Compared pair by pair in their buckets these took minutes
+        for ( int i = 0; i < 32000; i++ )
+        {
+            cards.add( card( legend, rules ) );
+        }
+        List<List<CardData>> groups = new CardSimilarityFinder().find( cards );
+        assertEquals( 1, groups.size() );
+        assertEquals( cards.size(), groups.get( 0 ).size() );
+    }
+
+    public void testDistinctCardsAreNotGrouped()
+    {
+        Random random = new Random( 0x53 );
+        List<CardData> cards = new ArrayList<>();
+        for ( int i = 0; i < 200; i++ )
+        {
+            cards.add( card( randomText( random, 10 ), randomText( random, 40 ) ) );
+        }
+        assertTrue( new CardSimilarityFinder().find( cards ).isEmpty() );
+    }
+}
@@ -0,0 +1,59 @@
+package com.developerguilliman.cardEditor.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Checks the snapshots and the JSON report of the metrics, and that they are
+ * registered in JMX.
+ */
+public class MetricsTest
+    extends TestCase
+{
+    public MetricsTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( MetricsTest.class );
+    }
+
+    public void testSnapshotDifference()
+    {
+        Metric timer = Metrics.get().timer( "test.timer" );
+        Metric counter = Metrics.get().counter( "test.counter" );
+        timer.record( System.nanoTime() );
+        MetricsSnapshot before = Metrics.get().snapshot();
+
+        timer.record( System.nanoTime() - 2000000 );
+        counter.increment();
+        counter.increment();
+        MetricsSnapshot difference = Metrics.get().snapshot().minus( before );
+
+        assertEquals( 1, difference.getCount( "test.timer" ) );
+        assertTrue( difference.getNanos( "test.timer" ) >= 2000000 );
+        assertEquals( 2, difference.getCount( "test.counter" ) );
+        assertEquals( 0, difference.getNanos( "test.counter" ) );
+        assertSame( timer, Metrics.get().timer( "test.timer" ) );
+
+        String json = difference.toJson();
+        assertTrue( json, json.contains( "\"test.counter\": {\"count\": 2}" ) );
+        assertTrue( json, json.contains( "\"test.timer\": {\"count\": 1, \"totalMillis\": " ) );
+    }
+
+    public void testRegisteredInJmx()
+        throws Exception
+    {
+        Metrics.get().counter( "test.jmx" ).increment();
+        String report = (String) ManagementFactory.getPlatformMBeanServer()
+            .getAttribute( new ObjectName( Metrics.OBJECT_NAME ), "JsonReport" );
+        assertTrue( report, report.contains( "\"test.jmx\"" ) );
+    }
+}
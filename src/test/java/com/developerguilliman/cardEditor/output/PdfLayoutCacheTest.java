@@ -0,0 +1,148 @@
+package com.developerguilliman.cardEditor.output;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.developerguilliman.cardEditor.data.CardData;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Checks that {@link PdfLayoutCache} survives a save and load, drops the
+ * least recently used layouts when full and rejects broken files.
+ */
+public class PdfLayoutCacheTest
+    extends TestCase
+{
+    public PdfLayoutCacheTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( PdfLayoutCacheTest.class );
+    }
+
+    private static CardData card( int i )
+    {
+        return new CardData( "Title", "Card " + i, "Legend " + i, ( i % 2 == 0 ) ? "Rules" : null, "" + i, "CP" );
+    }
+
+    private static PdfLayoutCache.CardLayout layout( int i )
+    {
+        PdfLayoutCache.CardLayout layout = new PdfLayoutCache.CardLayout();
+        layout.addTextSize( i + 0.5f );
+        layout.addTextSize( i * 2 );
+        layout.addLineEnd( i );
+        layout.setHash( "H" + i );
+        return layout.trim();
+    }
+
+    private static byte[] save( PdfLayoutCache cache )
+        throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        cache.save( bytes );
+        return bytes.toByteArray();
+    }
+
+    public void testSaveAndLoad()
+        throws IOException
+    {
+        PdfLayoutCache cache = new PdfLayoutCache();
+        for ( int i = 0; i < 10; i++ )
+        {
+            cache.put( ( i < 5 ) ? "A" : "B", card( i ), layout( i ) );
+        }
+        assertTrue( cache.isModified() );
+        byte[] saved = save( cache );
+        assertFalse( cache.isModified() );
+
+        PdfLayoutCache loaded = new PdfLayoutCache();
+        loaded.load( new ByteArrayInputStream( saved ) );
+        assertFalse( loaded.isModified() );
+        assertEquals( 10, loaded.size() );
+        for ( int i = 0; i < 10; i++ )
+        {
+            PdfLayoutCache.CardLayout layout = loaded.get( ( i < 5 ) ? "A" : "B", card( i ) );
+            assertEquals( i + 0.5f, layout.getTextSize( 0 ) );
+            assertEquals( i * 2f, layout.getTextSize( 1 ) );
+            assertEquals( i, layout.getLineEnd( 0 ) );
+            assertEquals( "H" + i, layout.getHash() );
+        }
+        assertNull( loaded.get( "B", card( 0 ) ) );
+        assertTrue( Arrays.equals( saved, save( loaded ) ) );
+    }
+
+    public void testLeastRecentlyUsedEviction()
+        throws IOException
+    {
+        PdfLayoutCache cache = new PdfLayoutCache( 3 );
+        cache.put( "A", card( 0 ), layout( 0 ) );
+        cache.put( "A", card( 1 ), layout( 1 ) );
+        cache.put( "A", card( 2 ), layout( 2 ) );
+        assertNotNull( cache.get( "A", card( 0 ) ) );
+        cache.put( "A", card( 3 ), layout( 3 ) );
+        assertEquals( 3, cache.size() );
+        assertNull( cache.get( "A", card( 1 ) ) );
+        assertNotNull( cache.get( "A", card( 0 ) ) );
+        assertNotNull( cache.get( "A", card( 3 ) ) );
+
+        // The usage order is kept by the file
+        PdfLayoutCache loaded = new PdfLayoutCache( 3 );
+        loaded.load( new ByteArrayInputStream( save( cache ) ) );
+        loaded.put( "A", card( 4 ), layout( 4 ) );
+        assertNull( loaded.get( "A", card( 2 ) ) );
+        assertNotNull( loaded.get( "A", card( 0 ) ) );
+        assertNotNull( loaded.get( "A", card( 3 ) ) );
+    }
+
+    public void testBrokenFile()
+        throws IOException
+    {
+        PdfLayoutCache cache = new PdfLayoutCache();
+        for ( int i = 0; i < 10; i++ )
+        {
+            cache.put( "A", card( i ), layout( i ) );
+        }
+        byte[] saved = save( cache );
+
+        byte[] truncated = Arrays.copyOf( saved, saved.length - 3 );
+        PdfLayoutCache loaded = new PdfLayoutCache();
+        try
+        {
+            loaded.load( new ByteArrayInputStream( truncated ) );
+            fail( "A truncated file was loaded" );
+        }
+        catch ( IOException e )
+        {
+            // Expected
+        }
+        assertEquals( 0, loaded.size() );
+
+        byte[] hugeLength = saved.clone();
+        // The length of the first signature, after the magic, version and count
+        hugeLength[12] = 0x7F;
+        try
+        {
+            loaded.load( new ByteArrayInputStream( hugeLength ) );
+            fail( "A broken length was loaded" );
+        }
+        catch ( IOException e )
+        {
+            // Expected
+        }
+        assertEquals( 0, loaded.size() );
+
+        byte[] otherVersion = saved.clone();
+        otherVersion[7]++;
+        loaded.load( new ByteArrayInputStream( otherVersion ) );
+        assertEquals( 0, loaded.size() );
+        assertFalse( loaded.isModified() );
+    }
+}
@@ -0,0 +1,107 @@
+package com.developerguilliman.cardEditor.progress;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Checks the progress reported by {@link ProgressInputStream} and that it
+ * stops reading once the task is cancelled.
+ */
+public class ProgressInputStreamTest
+    extends TestCase
+{
+    private final List<Long> reported = new ArrayList<>();
+    private boolean cancelled;
+
+    private final IProgressHandler handler = new IProgressHandler()
+    {
+        @Override
+        public void progress( String label, long done, long total )
+        {
+            assertEquals( "Loading", label );
+            assertEquals( 100, total );
+            reported.add( done );
+        }
+
+        @Override
+        public boolean isCancelled()
+        {
+            return cancelled;
+        }
+    };
+
+    public ProgressInputStreamTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( ProgressInputStreamTest.class );
+    }
+
+    private ProgressInputStream open()
+    {
+        byte[] bytes = new byte[100];
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            bytes[i] = (byte) i;
+        }
+        return new ProgressInputStream( new ByteArrayInputStream( bytes ), bytes.length, "Loading", handler );
+    }
+
+    public void testCounts() throws IOException
+    {
+        ProgressInputStream in = open();
+        assertEquals( 0, in.read() );
+        assertEquals( 1, in.read() );
+        byte[] buffer = new byte[30];
+        assertEquals( 30, in.read( buffer ) );
+        assertEquals( 2, buffer[0] );
+        assertEquals( 10, in.skip( 10 ) );
+        assertEquals( 20, in.read( buffer, 5, 20 ) );
+        assertEquals( 42, buffer[5] );
+        assertEquals( 38, in.read( new byte[50] ) );
+        assertEquals( -1, in.read() );
+        assertEquals( -1, in.read( buffer ) );
+        assertFalse( in.markSupported() );
+        // The skipped bytes count when the next read reports
+        assertEquals( "[1, 2, 32, 62, 100]", reported.toString() );
+    }
+
+    public void testCancelled() throws IOException
+    {
+        ProgressInputStream in = open();
+        assertEquals( 10, in.read( new byte[10] ) );
+        cancelled = true;
+        try
+        {
+            in.read();
+            fail( "Read after the cancel" );
+        }
+        catch ( CancellationException e )
+        {
+            // Expected
+        }
+        try
+        {
+            in.read( new byte[10] );
+            fail( "Read after the cancel" );
+        }
+        catch ( CancellationException e )
+        {
+            // Expected
+        }
+        assertEquals( "[10]", reported.toString() );
+        cancelled = false;
+        // Nothing was consumed by the cancelled reads
+        assertEquals( 10, in.read() );
+    }
+}
@@ -0,0 +1,49 @@
+package com.developerguilliman.cardEditor.progress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Checks that {@link TaskExecutor} runs tasks side by side on threads that
+ * never keep the application alive, virtual or from the fallback pool.
+ */
+public class TaskExecutorTest
+    extends TestCase
+{
+    public TaskExecutorTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( TaskExecutorTest.class );
+    }
+
+    public void testConcurrentDaemonTasks() throws Exception
+    {
+        // Every task waits for the others, so they only end when they run at the same time
+        int tasks = 2;
+        CountDownLatch started = new CountDownLatch( tasks );
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for ( int i = 0; i < tasks; i++ )
+        {
+            futures.add( TaskExecutor.get().submit( () -> {
+                started.countDown();
+                assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+                return Thread.currentThread().isDaemon();
+            } ) );
+        }
+        for ( Future<Boolean> future : futures )
+        {
+            assertTrue( future.get( 20, TimeUnit.SECONDS ) );
+        }
+    }
+}
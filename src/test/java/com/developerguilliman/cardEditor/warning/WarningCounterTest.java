@@ -0,0 +1,41 @@
+package com.developerguilliman.cardEditor.warning;
+
+import java.util.Arrays;
+
+import com.developerguilliman.cardEditor.metrics.Metric;
+import com.developerguilliman.cardEditor.metrics.Metrics;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Checks that the counted warnings still reach the wrapped handler.
+ */
+public class WarningCounterTest
+    extends TestCase
+{
+    public WarningCounterTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( WarningCounterTest.class );
+    }
+
+    public void testCountsAndForwards()
+    {
+        Metric metric = Metrics.get().counter( "test.warnings" );
+        long before = metric.getCount();
+        WarningArrayList warnings = new WarningArrayList();
+        IWarningHandler counter = new WarningCounter( warnings, metric );
+
+        counter.warn( "first" );
+        counter.warn( "second" );
+
+        assertEquals( 2, metric.getCount() - before );
+        assertEquals( Arrays.asList( "first", "second" ), warnings.getWarnings() );
+    }
+}